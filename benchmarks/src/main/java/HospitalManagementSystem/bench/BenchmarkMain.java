@@ -0,0 +1,23 @@
+package HospitalManagementSystem.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so every result also reports allocation
+ * rate ({@code gc.alloc.rate.norm} is bytes per operation). Accepts the usual JMH command line,
+ * e.g. {@code java -jar target/benchmarks.jar DataAccessBenchmark -p patients=1000}.
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        Options commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,98 @@
+package HospitalManagementSystem.bench;
+
+import HospitalManagementSystem.AppointmentService;
+import HospitalManagementSystem.AvailabilityIndex;
+import HospitalManagementSystem.ConnectionPool;
+import HospitalManagementSystem.Doctor;
+import HospitalManagementSystem.Patient;
+import HospitalManagementSystem.PatientRecord;
+import HospitalManagementSystem.SchedulingEngine;
+import HospitalManagementSystem.perf.PerfDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the data-access hot paths as the patients table grows. Caches are disabled in the
+ * forked JVM so every call measures the database round trip.
+ *
+ * <p>Note that {@code addPatient} grows the table while it runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dhms.cache.ttlSeconds=0"})
+public class DataAccessBenchmark {
+    private static final int DOCTORS = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    public int patients;
+
+    private ConnectionPool pool;
+    private Patient patient;
+    private Doctor doctor;
+    private AppointmentService appointmentService;
+    private String[] dates;
+
+    @Setup(Level.Trial)
+    public void seed() throws Exception {
+        String url = "jdbc:h2:mem:bench_" + patients + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        pool = PerfDatabase.open(url, 8);
+        PerfDatabase.createSchema(pool);
+        PerfDatabase.seedPatients(pool, patients);
+        PerfDatabase.seedDoctors(pool, DOCTORS);
+        PerfDatabase.seedAppointments(pool, patients / 10, DOCTORS, patients);
+        patient = new Patient(pool);
+        doctor = new Doctor(pool);
+        SchedulingEngine engine = new SchedulingEngine(pool, doctor, new AvailabilityIndex());
+        engine.reload();
+        appointmentService = new AppointmentService(pool, engine);
+        dates = new String[365];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = LocalDate.now().plusDays(i).toString();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        pool.close();
+    }
+
+    @Benchmark
+    public List<PatientRecord> viewPatients() {
+        return patient.viewPatients();
+    }
+
+    @Benchmark
+    public boolean addPatient() {
+        return patient.addPatient("Benchmark Patient", 42, "F");
+    }
+
+    @Benchmark
+    public boolean getDoctorById() {
+        return doctor.getDoctorById(1 + ThreadLocalRandom.current().nextInt(DOCTORS));
+    }
+
+    @Benchmark
+    public boolean checkDoctorAvailability() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return appointmentService.isDoctorAvailable(1 + random.nextInt(DOCTORS), dates[random.nextInt(dates.length)]);
+    }
+}
@@ -0,0 +1,143 @@
+package HospitalManagementSystem.bench;
+
+import HospitalManagementSystem.ConnectionPool;
+import HospitalManagementSystem.ExportProgress;
+import HospitalManagementSystem.Json;
+import HospitalManagementSystem.Patient;
+import HospitalManagementSystem.PatientRecord;
+import HospitalManagementSystem.ReportExporter;
+import HospitalManagementSystem.perf.PerfDatabase;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Export throughput over {@code rows} patients and as many appointments spread over 1000 doctors.
+ * The {@code megabytes} and {@code rows} counters are the rates to read: MB/s and rows/s written.
+ *
+ * <p>{@code patients}, {@code appointments} and {@code rosters} go through {@link ReportExporter};
+ * {@code rosters} writes one file per doctor covering every appointment. {@code materialized} is
+ * the approach it replaces: load every patient into a list, then format each line as a String
+ * and write it through a BufferedWriter. The GC profiler shows the difference in allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ExportBenchmark {
+    private static final int DOCTORS = 1000;
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"patients", "appointments", "rosters", "materialized"})
+    public String report;
+
+    @Param({"CSV", "JSON"})
+    public ReportExporter.Format format;
+
+    private ConnectionPool pool;
+    private ReportExporter exporter;
+    private Patient patient;
+    private Path directory;
+    private LocalDate lastDay;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Written {
+        public double megabytes;
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void seed() throws Exception {
+        String url = "jdbc:h2:mem:export_" + rows + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        pool = PerfDatabase.open(url, 8);
+        PerfDatabase.createSchema(pool);
+        PerfDatabase.seedPatients(pool, rows);
+        PerfDatabase.seedDoctors(pool, DOCTORS);
+        PerfDatabase.seedAppointments(pool, rows, DOCTORS, rows);
+        exporter = new ReportExporter(pool, 1000, 4);
+        patient = new Patient(pool);
+        directory = Files.createTempDirectory("export-benchmark");
+        lastDay = LocalDate.now().plusDays(rows / DOCTORS);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        pool.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public ExportProgress export(Written written) throws Exception {
+        Path file = directory.resolve(report + format.getExtension());
+        ExportProgress progress = switch (report) {
+            case "patients" -> exporter.exportPatients(file, format, ignored -> {
+            });
+            case "appointments" -> exporter.exportAppointments(file, format, ignored -> {
+            });
+            case "rosters" -> exporter.exportRosters(LocalDate.now(), lastDay, directory.resolve("rosters"), format, ignored -> {
+            });
+            default -> materialized(file);
+        };
+        written.megabytes += progress.getBytesWritten() / 1e6;
+        written.rows += progress.getRowsWritten();
+        return progress;
+    }
+
+    private ExportProgress materialized(Path file) throws IOException {
+        List<PatientRecord> patients = patient.viewPatients();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            boolean json = format == ReportExporter.Format.JSON;
+            writer.write(json ? "[" : "id,name,age,gender\n");
+            for (int i = 0; i < patients.size(); i++) {
+                PatientRecord record = patients.get(i);
+                if (json) {
+                    StringBuilder line = new StringBuilder(i == 0 ? "\n" : ",\n").append("{\"id\":").append(record.id()).append(",\"name\":");
+                    Json.appendString(line, record.name()).append(",\"age\":").append(record.age()).append(",\"gender\":");
+                    Json.appendString(line, record.gender()).append('}');
+                    writer.write(line.toString());
+                } else {
+                    writer.write(record.id() + "," + record.name() + "," + record.age() + "," + record.gender() + "\n");
+                }
+            }
+            writer.write(json ? "\n]\n" : "");
+        }
+        return new ExportProgress(patients.size(), patients.size(), Files.size(file), 1, 0, true);
+    }
+}
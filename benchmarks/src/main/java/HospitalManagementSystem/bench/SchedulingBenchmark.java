@@ -0,0 +1,117 @@
+package HospitalManagementSystem.bench;
+
+import HospitalManagementSystem.AppointmentSlot;
+import HospitalManagementSystem.AvailabilityIndex;
+import HospitalManagementSystem.ConnectionPool;
+import HospitalManagementSystem.Doctor;
+import HospitalManagementSystem.DoctorSchedule;
+import HospitalManagementSystem.SchedulingEngine;
+import HospitalManagementSystem.perf.PerfDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking latency as one doctor's calendar fills. The doctor works 1-minute slots around the clock,
+ * and the first {@code booked} slots from tomorrow on are taken, so whole days are full and the
+ * first free slot lies past all of them. Each operation should cost about the same at every fill.
+ *
+ * <p>Only the scheduling engine is measured; the insert that follows a reservation is a single
+ * unique-key insert whatever the calendar holds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SchedulingBenchmark {
+    private static final int DOCTOR_ID = 1;
+    private static final DoctorSchedule SCHEDULE = new DoctorSchedule(1, LocalTime.MIDNIGHT, LocalTime.of(23, 59));
+
+    @Param({"0", "1000", "10000", "100000"})
+    public int booked;
+
+    private ConnectionPool pool;
+    private SchedulingEngine engine;
+    private LocalDateTime from;
+
+    @Setup(Level.Trial)
+    public void seed() throws Exception {
+        String url = "jdbc:h2:mem:schedule_" + booked + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        pool = PerfDatabase.open(url, 2);
+        PerfDatabase.createSchema(pool);
+        PerfDatabase.seedPatients(pool, 1);
+        PerfDatabase.seedDoctors(pool, 1);
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        int slotsPerDay = SCHEDULE.slotsPerDay();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(
+                     "INSERT INTO appointments(patient_id, doctor_id, appointment_date, appointment_time) VALUES(1, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < booked; i++) {
+                preparedStatement.setInt(1, DOCTOR_ID);
+                preparedStatement.setDate(2, Date.valueOf(firstDay.plusDays(i / slotsPerDay)));
+                preparedStatement.setTime(3, Time.valueOf(SCHEDULE.workStart().plusMinutes(i % slotsPerDay)));
+                preparedStatement.addBatch();
+                if ((i + 1) % 1000 == 0) {
+                    preparedStatement.executeBatch();
+                }
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+        }
+        engine = new SchedulingEngine(pool, new Doctor(pool), new AvailabilityIndex());
+        engine.setSchedule(DOCTOR_ID, SCHEDULE);
+        engine.reload();
+        from = firstDay.atStartOfDay();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        pool.close();
+    }
+
+    @Benchmark
+    public AppointmentSlot firstFreeSlot() {
+        return engine.firstFreeSlot(DOCTOR_ID, from);
+    }
+
+    // Find the earliest open slot, hold it, and give it back so the calendar keeps its size
+    @Benchmark
+    public boolean reserveFirstFree() {
+        AppointmentSlot slot = engine.firstFreeSlot(DOCTOR_ID, from);
+        boolean reserved = engine.reserve(DOCTOR_ID, slot.date(), slot.time());
+        engine.release(DOCTOR_ID, slot.date(), slot.time());
+        return reserved;
+    }
+
+    // Conflict check against a random point of the filled range
+    @Benchmark
+    public boolean isFree() {
+        int minute = ThreadLocalRandom.current().nextInt(Math.max(booked, 1));
+        int slotsPerDay = SCHEDULE.slotsPerDay();
+        return engine.isFree(DOCTOR_ID, from.toLocalDate().plusDays(minute / slotsPerDay),
+                SCHEDULE.workStart().plusMinutes(minute % slotsPerDay));
+    }
+}
@@ -0,0 +1,136 @@
+package HospitalManagementSystem.bench;
+
+import HospitalManagementSystem.ColumnarCellRenderer;
+import HospitalManagementSystem.ColumnarRowSorter;
+import HospitalManagementSystem.ColumnarTableModel;
+import HospitalManagementSystem.PatientRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.JTable;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Patient result tables: {@code columnar} is {@link ColumnarTableModel} with its renderer and
+ * sorter, {@code default} is the DefaultTableModel, default renderer and TableRowSorter they
+ * replaced. Measures filling the model, painting one 700x500 viewport at a random scroll
+ * position, and sorting by a number and by name. Runs headless; painting goes to an offscreen image.
+ *
+ * <p>The columnar model ranks a text column on its first sort and keeps the ranks until rows
+ * change, so {@code sortByName} mostly measures re-sorts; the first one costs about as much as
+ * one TimSort of the names. Painting still allocates in both modes, mostly the Graphics Swing
+ * creates for each cell; the columnar path only removes the boxed values and formatted strings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class TableRenderingBenchmark {
+    private static final int WIDTH = 700;
+    private static final int HEIGHT = 500;
+    private static final String[] GENDERS = {"M", "F"};
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"columnar", "default"})
+    public String model;
+
+    private List<PatientRecord> patients;
+    private TableModel tableModel;
+    private JTable table;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        patients = new ArrayList<>(rows);
+        for (int id = 1; id <= rows; id++) {
+            patients.add(new PatientRecord(id, "Patient " + random.nextInt(rows), random.nextInt(100),
+                    GENDERS[random.nextInt(GENDERS.length)]));
+        }
+        tableModel = fill();
+        table = model.equals("columnar") ? ColumnarCellRenderer.createTable(tableModel) : new JTable(tableModel);
+        table.setRowHeight(30);
+        table.setSize(WIDTH, rows * table.getRowHeight());
+        table.doLayout();
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public TableModel fill() {
+        if (model.equals("columnar")) {
+            ColumnarTableModel<PatientRecord> columnar = new ColumnarTableModel<>(
+                    ColumnarTableModel.intColumn("ID", PatientRecord::id),
+                    ColumnarTableModel.textColumn("Name", PatientRecord::name),
+                    ColumnarTableModel.intColumn("Age", PatientRecord::age),
+                    ColumnarTableModel.dictionaryColumn("Gender", PatientRecord::gender));
+            columnar.append(patients);
+            return columnar;
+        }
+        DefaultTableModel rowModel = new DefaultTableModel(new String[]{"ID", "Name", "Age", "Gender"}, 0);
+        for (PatientRecord patient : patients) {
+            rowModel.addRow(new Object[]{patient.id(), patient.name(), patient.age(), patient.gender()});
+        }
+        return rowModel;
+    }
+
+    @Benchmark
+    public BufferedImage paintViewport() {
+        int top = ThreadLocalRandom.current().nextInt(table.getHeight() - HEIGHT);
+        graphics.setClip(null);
+        graphics.translate(0, -top);
+        graphics.setClip(0, top, WIDTH, HEIGHT);
+        table.paint(graphics);
+        graphics.translate(0, top);
+        return image;
+    }
+
+    @Benchmark
+    public RowSorter<?> sortByAge() {
+        return sort(2);
+    }
+
+    @Benchmark
+    public RowSorter<?> sortByName() {
+        return sort(1);
+    }
+
+    private RowSorter<?> sort(int column) {
+        RowSorter<?> sorter = model.equals("columnar")
+                ? new ColumnarRowSorter((ColumnarTableModel<?>) tableModel)
+                : new TableRowSorter<>(tableModel);
+        sorter.setSortKeys(List.of(new RowSorter.SortKey(column, SortOrder.ASCENDING)));
+        return sorter;
+    }
+}
@@ -0,0 +1,152 @@
+package HospitalManagementSystem;
+
+import HospitalManagementSystem.perf.PerfDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppointmentServiceTest {
+    private static final String URL = "jdbc:h2:mem:appointmentservicetest;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+
+    private static ConnectionPool pool;
+
+    @BeforeAll
+    static void createDatabase() throws SQLException {
+        pool = PerfDatabase.open(URL, 8);
+        PerfDatabase.createSchema(pool);
+        PerfDatabase.seedPatients(pool, 10);
+        PerfDatabase.seedDoctors(pool, 2);
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        pool.close();
+    }
+
+    private static AppointmentService newService() throws SQLException {
+        SchedulingEngine engine = new SchedulingEngine(pool, new Doctor(pool), new AvailabilityIndex());
+        engine.reload();
+        return new AppointmentService(pool, engine);
+    }
+
+    @Test
+    void concurrentBookingsFromTwoServicesNeverShareASlot() throws Exception {
+        // Two services stand in for two processes: their engines do not see each other's holds
+        AppointmentService[] services = {newService(), newService()};
+        LocalDate date = LocalDate.now().plusDays(10);
+        List<LocalTime> slots = new ArrayList<>();
+        for (LocalTime time = NINE; time.isBefore(LocalTime.of(17, 0)); time = time.plusMinutes(15)) {
+            slots.add(time);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Map<BookingResult, Integer>>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                AppointmentService service = services[t % 2];
+                int patientId = 1 + t;
+                futures.add(executor.submit(() -> {
+                    Map<BookingResult, Integer> counts = new EnumMap<>(BookingResult.class);
+                    for (LocalTime time : slots) {
+                        counts.merge(service.bookAppointment(patientId, 1, date, time), 1, Integer::sum);
+                    }
+                    return counts;
+                }));
+            }
+            int booked = 0;
+            int unavailable = 0;
+            for (Future<Map<BookingResult, Integer>> future : futures) {
+                Map<BookingResult, Integer> counts = future.get();
+                booked += counts.getOrDefault(BookingResult.BOOKED, 0);
+                unavailable += counts.getOrDefault(BookingResult.DOCTOR_UNAVAILABLE, 0);
+            }
+            assertEquals(slots.size(), booked);
+            assertEquals(slots.size() * 7, unavailable);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(slots.size(), countAppointments(1, date));
+        assertEquals(0, countDoubleBookings());
+    }
+
+    @Test
+    void firstFreeSlotBookingMovesPastTakenSlots() throws SQLException {
+        AppointmentService first = newService();
+        AppointmentService second = newService();
+        LocalDate date = LocalDate.now().plusDays(11);
+        assertEquals(BookingResult.BOOKED, first.bookAppointment(1, 2, date, NINE));
+        // The second engine still thinks 09:00 is free; the database turns it away and the next slot is booked
+        assertEquals(BookingResult.BOOKED, second.bookAppointment(2, 2, date.toString()));
+        assertEquals(2, countAppointments(2, date));
+        assertEquals(0, countDoubleBookings());
+    }
+
+    @Test
+    void unknownPatientIsRejectedAndTheSlotGivenBack() throws SQLException {
+        AppointmentService service = newService();
+        LocalDate date = LocalDate.now().plusDays(12);
+        assertEquals(BookingResult.UNKNOWN_PATIENT, service.bookAppointment(999, 1, date, NINE));
+        assertTrue(service.isDoctorAvailable(1, date, NINE));
+        assertEquals(BookingResult.BOOKED, service.bookAppointment(1, 1, date, NINE));
+    }
+
+    @Test
+    void unknownDoctorIsRejectedWithoutReservingASlot() throws SQLException {
+        AppointmentService service = newService();
+        LocalDate date = LocalDate.now().plusDays(13);
+        assertEquals(BookingResult.UNKNOWN_DOCTOR, service.bookAppointment(1, 999, date, NINE));
+        assertEquals(BookingResult.UNKNOWN_DOCTOR, service.bookAppointment(1, 999, date.toString()));
+        assertEquals(0, countAppointments(999, date));
+    }
+
+    @Test
+    void timesBetweenSlotStartsAreInvalid() throws SQLException {
+        AppointmentService service = newService();
+        LocalDate date = LocalDate.now().plusDays(14);
+        assertEquals(BookingResult.INVALID_SLOT, service.bookAppointment(1, 1, date, LocalTime.of(9, 7)));
+        assertEquals(BookingResult.INVALID_SLOT, service.bookAppointment(1, 1, date, LocalTime.of(7, 0)));
+        assertEquals(0, countAppointments(1, date));
+    }
+
+    private static int countAppointments(int doctorId, LocalDate date) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT COUNT(*) FROM appointments WHERE doctor_id = ? AND appointment_date = ?")) {
+            statement.setInt(1, doctorId);
+            statement.setDate(2, Date.valueOf(date));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    private static int countDoubleBookings() throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT COUNT(*) FROM (SELECT doctor_id FROM appointments "
+                             + "GROUP BY doctor_id, appointment_date, appointment_time HAVING COUNT(*) > 1) t");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package HospitalManagementSystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityIndexTest {
+    private static final int HORIZON_DAYS = Integer.getInteger("hms.availability.horizonDays", 365);
+
+    private final AvailabilityIndex index = new AvailabilityIndex();
+    private LocalDate today;
+
+    @BeforeEach
+    void reset() {
+        today = LocalDate.now();
+        index.reset(today);
+    }
+
+    @Test
+    void nothingIsCoveredBeforeTheFirstReset() {
+        AvailabilityIndex fresh = new AvailabilityIndex();
+        assertNull(fresh.getFirstDay());
+        assertFalse(fresh.covers(today));
+        assertNull(fresh.nextFreeDate(1, today));
+    }
+
+    @Test
+    void horizonStartsAtTheResetDay() {
+        assertTrue(index.covers(today));
+        assertTrue(index.covers(today.plusDays(HORIZON_DAYS - 1)));
+        assertFalse(index.covers(today.minusDays(1)));
+        assertFalse(index.covers(today.plusDays(HORIZON_DAYS)));
+    }
+
+    @Test
+    void fullDaysOnEitherSideOfAWordBoundary() {
+        for (int day : new int[]{0, 63, 64, 127, 128}) {
+            index.setFull(1, today.plusDays(day), true);
+            assertFalse(isFree(1, day), "day " + day);
+        }
+        assertTrue(isFree(1, 62));
+        assertTrue(isFree(1, 65));
+        assertTrue(isFree(2, 63));
+
+        index.setFull(1, today.plusDays(64), false);
+        assertTrue(isFree(1, 64));
+        assertFalse(isFree(1, 63));
+    }
+
+    @Test
+    void nextFreeDateSkipsFullDaysAcrossWords() {
+        for (int day = 0; day < 70; day++) {
+            index.setFull(1, today.plusDays(day), true);
+        }
+        assertEquals(today.plusDays(70), index.nextFreeDate(1, today));
+        assertEquals(today.plusDays(70), index.nextFreeDate(1, today.plusDays(64)));
+        assertEquals(today.plusDays(71), index.nextFreeDate(1, today.plusDays(71)));
+        assertEquals(today, index.nextFreeDate(2, today));
+        // Dates in the past start from today
+        assertEquals(today.plusDays(70), index.nextFreeDate(1, today.minusDays(10)));
+    }
+
+    @Test
+    void nextFreeDateIsNullWhenTheRestOfTheHorizonIsFull() {
+        for (int day = HORIZON_DAYS - 5; day < HORIZON_DAYS; day++) {
+            index.setFull(1, today.plusDays(day), true);
+        }
+        assertNull(index.nextFreeDate(1, today.plusDays(HORIZON_DAYS - 5)));
+        assertNull(index.nextFreeDate(1, today.plusDays(HORIZON_DAYS)));
+        assertEquals(today.plusDays(HORIZON_DAYS - 6), index.nextFreeDate(1, today.plusDays(HORIZON_DAYS - 6)));
+    }
+
+    @Test
+    void datesOutsideTheHorizonAreIgnored() {
+        index.setFull(1, today.plusDays(HORIZON_DAYS), true);
+        index.setFull(1, today.minusDays(1), true);
+        assertNull(index.nextFreeDate(1, today.plusDays(HORIZON_DAYS)));
+        assertEquals(today, index.nextFreeDate(1, today));
+    }
+
+    private boolean isFree(int doctorId, int day) {
+        return today.plusDays(day).equals(index.nextFreeDate(doctorId, today.plusDays(day)));
+    }
+}
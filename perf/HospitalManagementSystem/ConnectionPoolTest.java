@@ -0,0 +1,96 @@
+package HospitalManagementSystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+    private static final String URL = "jdbc:h2:mem:pooltest;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+
+    private ConnectionPool pool;
+
+    // Called by H2 for link_lost(): a driver reporting a lost link on a connection that still looks open
+    public static final class Functions {
+        public static int linkLost() throws SQLException {
+            throw new SQLException("Communications link failure", "08S01");
+        }
+    }
+
+    @BeforeEach
+    void open() throws SQLException {
+        pool = new ConnectionPool(URL, "sa", "", 1, 1, 200, 300_000, 60_000, 1);
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS IF NOT EXISTS link_lost FOR 'HospitalManagementSystem.ConnectionPoolTest$Functions.linkLost'");
+        }
+    }
+
+    @AfterEach
+    void close() {
+        pool.close();
+    }
+
+    @Test
+    void returnedConnectionsAreReused() throws SQLException {
+        long created = pool.getMetrics().getCreatedCount();
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT 1");
+                 ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next());
+            }
+        }
+        PoolMetrics metrics = pool.getMetrics();
+        assertEquals(created, metrics.getCreatedCount());
+        assertEquals(1, metrics.getIdleConnections());
+        assertEquals(0, metrics.getActiveConnections());
+        assertTrue(metrics.getStatementCacheHits() >= 2);
+    }
+
+    @Test
+    void borrowingFromAnExhaustedPoolTimesOut() throws SQLException {
+        try (Connection held = pool.getConnection()) {
+            assertThrows(SQLTimeoutException.class, pool::getConnection);
+        }
+        assertEquals(1, pool.getMetrics().getBorrowTimeouts());
+        try (Connection connection = pool.getConnection()) {
+            assertTrue(connection.isValid(1));
+        }
+    }
+
+    @Test
+    void connectionLostUnderACachedStatementIsNotReused() throws SQLException {
+        long destroyed = pool.getMetrics().getDestroyedCount();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT link_lost()")) {
+            SQLException error = assertThrows(SQLException.class, statement::executeQuery);
+            assertTrue(ConnectionPool.isConnectionFailure(error), error.toString());
+        }
+        PoolMetrics metrics = pool.getMetrics();
+        assertEquals(destroyed + 1, metrics.getDestroyedCount());
+        assertEquals(0, metrics.getIdleConnections());
+        try (Connection connection = pool.getConnection()) {
+            assertTrue(connection.isValid(1));
+        }
+    }
+
+    @Test
+    void probeDoesNotGrowThePoolPastItsSize() throws SQLException {
+        try (Connection held = pool.getConnection()) {
+            assertTrue(pool.probe());
+            assertEquals(0, pool.getMetrics().getIdleConnections());
+        }
+        assertEquals(1, pool.getMetrics().getIdleConnections());
+    }
+}
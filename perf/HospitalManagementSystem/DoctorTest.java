@@ -0,0 +1,72 @@
+package HospitalManagementSystem;
+
+import HospitalManagementSystem.perf.PerfDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorTest {
+    private static final String URL = "jdbc:h2:mem:doctortest;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+
+    private static ConnectionPool pool;
+
+    @BeforeAll
+    static void createDatabase() throws SQLException {
+        pool = PerfDatabase.open(URL, 4);
+        PerfDatabase.createSchema(pool);
+        // "Doctor i", in Neurology, Orthopedics, Pediatrics, Dermatology, Cardiology for i = 1..5
+        PerfDatabase.seedDoctors(pool, 5);
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        pool.close();
+    }
+
+    @Test
+    void findsDoctorsById() {
+        Doctor doctor = new Doctor(pool);
+        assertEquals(new DoctorRecord(3, "Doctor 3", "Pediatrics"), doctor.findDoctorById(3));
+        assertTrue(doctor.getDoctorById(5));
+        assertNull(doctor.findDoctorById(99));
+    }
+
+    @Test
+    void rosterIsCachedUntilInvalidated() throws SQLException {
+        Doctor doctor = new Doctor(pool);
+        List<DoctorRecord> roster = doctor.viewDoctors();
+        assertTrue(roster.size() >= 5);
+        assertSame(roster, doctor.viewDoctors());
+
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO doctors(name, specialization) VALUES('Zed Added', 'Oncology')");
+        }
+        assertEquals(roster.size(), doctor.viewDoctors().size());
+        doctor.invalidateCache();
+        assertEquals(roster.size() + 1, doctor.viewDoctors().size());
+    }
+
+    @Test
+    void searchMatchesNamePrefixAndSpecializationSubstring() throws SQLException {
+        Doctor doctor = new Doctor(pool);
+        List<DoctorRecord> found = new ArrayList<>();
+        assertEquals(3, doctor.searchDoctors("Doctor", "ology", 2, 100, found::addAll));
+        assertEquals(List.of("Cardiology", "Dermatology", "Neurology"),
+                found.stream().map(DoctorRecord::specialization).sorted().toList());
+
+        assertEquals(1, doctor.searchDoctors("Doctor 2", null, 10, 100, batch -> { }));
+        assertEquals(0, doctor.searchDoctors("Doctor_", null, 10, 100, batch -> { }));
+    }
+}
@@ -0,0 +1,94 @@
+package HospitalManagementSystem;
+
+import HospitalManagementSystem.perf.PerfDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventLogMirrorTest {
+    private static final long WAIT_MILLIS = 10_000;
+    private static final String URL = "jdbc:h2:mem:eventlogmirrortest;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+
+    @TempDir
+    Path first;
+
+    @TempDir
+    Path second;
+
+    @Test
+    void logsSharingATableKeepAllTheirEvents() throws Exception {
+        ConnectionPool pool = PerfDatabase.open(URL, 2);
+        try (EventLog one = EventLog.open(first.resolve("events"));
+             EventLog two = EventLog.open(second.resolve("events"))) {
+            PerfDatabase.createSchema(pool);
+            assertNotEquals(one.getLogId(), two.getLogId());
+            EventLogMirror mirrorOne = new EventLogMirror(pool, one);
+            EventLogMirror mirrorTwo = new EventLogMirror(pool, two);
+
+            // Both logs number their events from 1
+            for (int id = 1; id <= 3; id++) {
+                one.patientAdded(id);
+            }
+            two.patientAdded(100);
+            awaitDurable(one, 3);
+            awaitDurable(two, 1);
+            assertEquals(3, mirrorOne.mirror());
+            assertEquals(1, mirrorTwo.mirror());
+
+            two.patientAdded(101);
+            awaitDurable(two, 2);
+            assertEquals(0, mirrorOne.mirror());
+            assertEquals(1, mirrorTwo.mirror());
+
+            assertEquals(List.of(1, 2, 3), mirroredPatients(pool, one.getLogId()));
+            assertEquals(List.of(100, 101), mirroredPatients(pool, two.getLogId()));
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void logKeepsItsIdWhenReopened() throws Exception {
+        String id;
+        try (EventLog log = EventLog.open(first)) {
+            id = log.getLogId();
+        }
+        try (EventLog log = EventLog.open(first)) {
+            assertEquals(id, log.getLogId());
+        }
+    }
+
+    private static void awaitDurable(EventLog log, long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (log.getDurableSequence() < sequence && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(log.getDurableSequence() >= sequence, "durable up to " + log.getDurableSequence());
+    }
+
+    private static List<Integer> mirroredPatients(ConnectionPool pool, String logId) throws SQLException {
+        List<Integer> patients = new ArrayList<>();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(
+                     "SELECT patient_id FROM audit_events WHERE log_id = ? ORDER BY sequence")) {
+            preparedStatement.setString(1, logId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    patients.add(resultSet.getInt(1));
+                }
+            }
+        }
+        return patients;
+    }
+}
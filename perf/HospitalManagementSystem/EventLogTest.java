@@ -0,0 +1,180 @@
+package HospitalManagementSystem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventLogTest {
+    private static final long WAIT_MILLIS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEveryFieldInOrder() throws IOException {
+        LocalDate date = LocalDate.of(2026, 3, 14);
+        try (EventLog log = EventLog.open(directory)) {
+            log.patientAdded(7);
+            log.appointmentBooked(7, 3, date, LocalTime.of(9, 30));
+            log.appointmentRejected(8, 3, date, null, BookingResult.DOCTOR_UNAVAILABLE);
+        }
+        List<AuditEvent> events = replayAll();
+        assertEquals(3, events.size());
+        assertEquals(List.of(1L, 2L, 3L), events.stream().map(AuditEvent::sequence).toList());
+
+        assertEquals(AuditEvent.Type.PATIENT_CREATED, events.get(0).type());
+        assertEquals(7, events.get(0).patientId());
+        assertNull(events.get(0).appointmentDate());
+
+        AuditEvent booked = events.get(1);
+        assertEquals(AuditEvent.Type.APPOINTMENT_BOOKED, booked.type());
+        assertEquals(3, booked.doctorId());
+        assertEquals(date, booked.appointmentDate());
+        assertEquals(LocalTime.of(9, 30), booked.appointmentTime());
+
+        AuditEvent rejected = events.get(2);
+        assertEquals(AuditEvent.Type.APPOINTMENT_REJECTED, rejected.type());
+        assertNull(rejected.appointmentTime());
+        assertEquals("DOCTOR_UNAVAILABLE", rejected.detail());
+    }
+
+    @Test
+    void replayStartsAtTheRequestedSequence() throws IOException {
+        try (EventLog log = EventLog.open(directory)) {
+            for (int id = 1; id <= 5; id++) {
+                log.patientAdded(id);
+            }
+        }
+        List<Integer> patients = new ArrayList<>();
+        try (EventLog log = EventLog.open(directory)) {
+            assertEquals(5, log.replay(4, event -> patients.add(event.patientId())));
+        }
+        assertEquals(List.of(4, 5), patients);
+    }
+
+    @Test
+    void reopeningCutsOffATornTailAndContinuesTheSequence() throws IOException {
+        try (EventLog log = EventLog.open(directory)) {
+            log.patientAdded(1);
+            log.patientAdded(2);
+        }
+        Path segment = onlySegment();
+        long intact = Files.size(segment);
+        // Half a record, as a crash in the middle of a write leaves it
+        Files.write(segment, new byte[]{60, 0, 0, 0, 1, 2, 3, 4, 5, 6}, StandardOpenOption.APPEND);
+
+        try (EventLog log = EventLog.open(directory)) {
+            assertEquals(intact, Files.size(segment));
+            log.patientAdded(3);
+        }
+        List<AuditEvent> events = replayAll();
+        assertEquals(List.of(1, 2, 3), patientIds(events));
+        assertEquals(List.of(1L, 2L, 3L), events.stream().map(AuditEvent::sequence).toList());
+    }
+
+    @Test
+    void directoryHasOneOwnerAtATime() throws IOException {
+        try (EventLog log = EventLog.open(directory)) {
+            log.patientAdded(1);
+            IOException error = assertThrows(IOException.class, () -> EventLog.open(directory));
+            assertTrue(error.getMessage().contains("in use"), error.getMessage());
+        }
+        // Closing hands the directory on
+        assertEquals(List.of(1), patientIds(replayAll()));
+    }
+
+    @Test
+    void failedFirstWriteOfASegmentIsRetriedWithoutLosingEvents() throws Exception {
+        TornWrite tornWrite = new TornWrite();
+        try (EventLog log = EventLog.open(directory, tornWrite)) {
+            tornWrite.tearNext(20);
+            log.patientAdded(1);
+            log.patientAdded(2);
+            awaitDurable(log, 2);
+        }
+        assertEquals(List.of(1, 2), patientIds(replayAll()));
+    }
+
+    @Test
+    void failedWriteInTheMiddleOfASegmentIsRetriedWithoutLosingEvents() throws Exception {
+        TornWrite tornWrite = new TornWrite();
+        try (EventLog log = EventLog.open(directory, tornWrite)) {
+            log.patientAdded(1);
+            awaitDurable(log, 1);
+            tornWrite.tearNext(30);
+            log.patientAdded(2);
+            log.patientAdded(3);
+            awaitDurable(log, 3);
+            log.patientAdded(4);
+        }
+        assertEquals(List.of(1, 2, 3, 4), patientIds(replayAll()));
+    }
+
+    private List<AuditEvent> replayAll() throws IOException {
+        try (EventLog log = EventLog.open(directory)) {
+            List<AuditEvent> events = new ArrayList<>();
+            log.replay(1, events::add);
+            return events;
+        }
+    }
+
+    private static List<Integer> patientIds(List<AuditEvent> events) {
+        return events.stream().map(AuditEvent::patientId).toList();
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(path -> path.getFileName().toString().endsWith(".log")).toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    // Writes only the first bytes of the next flush and then fails, like a write torn by a full disk
+    private static final class TornWrite implements EventLog.SegmentWriter {
+        private final AtomicInteger tearAfter = new AtomicInteger(-1);
+
+        void tearNext(int bytes) {
+            tearAfter.set(bytes);
+        }
+
+        @Override
+        public int write(FileChannel segment, ByteBuffer source) throws IOException {
+            int torn = tearAfter.getAndSet(-1);
+            if (torn < 0) {
+                return segment.write(source);
+            }
+            source.limit(Math.min(source.limit(), source.position() + torn));
+            while (source.hasRemaining()) {
+                segment.write(source);
+            }
+            throw new IOException("Injected torn write");
+        }
+    }
+
+    // The writer retries a failed group after a pause
+    private static void awaitDurable(EventLog log, long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (log.getDurableSequence() < sequence && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(log.getDurableSequence() >= sequence, "durable up to " + log.getDurableSequence());
+    }
+}
@@ -0,0 +1,113 @@
+package HospitalManagementSystem;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntKeyCacheTest {
+
+    @Test
+    void returnsWhatWasPut() {
+        IntKeyCache<String> cache = new IntKeyCache<>(100, 1, TimeUnit.HOURS);
+        cache.put(7, "seven");
+        cache.put(-3, "minus three");
+        assertEquals("seven", cache.get(7));
+        assertEquals("minus three", cache.get(-3));
+        assertNull(cache.get(8));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void fullSetEvictsLeastRecentlyUsed() throws InterruptedException {
+        // Four entries is a single 4-way set, so every key competes for it
+        IntKeyCache<String> cache = new IntKeyCache<>(4, 1, TimeUnit.HOURS);
+        for (int key = 1; key <= 4; key++) {
+            cache.put(key, "v" + key);
+            Thread.sleep(1);
+        }
+        assertEquals("v1", cache.get(1));
+        cache.put(5, "v5");
+
+        assertNull(cache.get(2));
+        assertEquals("v1", cache.get(1));
+        assertEquals("v5", cache.get(5));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void replacingAKeyDoesNotEvict() {
+        IntKeyCache<String> cache = new IntKeyCache<>(4, 1, TimeUnit.HOURS);
+        for (int key = 1; key <= 4; key++) {
+            cache.put(key, "v" + key);
+        }
+        cache.put(3, "three");
+        assertEquals("three", cache.get(3));
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    void expiredEntriesAreMisses() {
+        IntKeyCache<String> cache = new IntKeyCache<>(100, 0, TimeUnit.SECONDS);
+        cache.put(1, "gone");
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test
+    void invalidateAndClearDropEntries() {
+        IntKeyCache<String> cache = new IntKeyCache<>(100, 1, TimeUnit.HOURS);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.invalidate(1);
+        assertNull(cache.get(1));
+        assertEquals("two", cache.get(2));
+        cache.clear();
+        assertNull(cache.get(2));
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsNotCached() {
+        IntKeyCache<String> cache = new IntKeyCache<>(100, 1, TimeUnit.HOURS);
+        long generation = cache.generation(42);
+        // The row is added and invalidated while the lookup that found nothing is in flight
+        cache.invalidate(42);
+        cache.putIfUnchanged(42, "missing", generation);
+        assertNull(cache.get(42));
+
+        cache.putIfUnchanged(42, "found", cache.generation(42));
+        assertEquals("found", cache.get(42));
+    }
+
+    @Test
+    void entriesCanExpireBeforeTheCacheTtl() throws InterruptedException {
+        IntKeyCache<String> cache = new IntKeyCache<>(100, 1, TimeUnit.HOURS);
+        cache.putIfUnchanged(1, "missing", cache.generation(1), 1, TimeUnit.MILLISECONDS);
+        cache.putIfUnchanged(2, "found", cache.generation(2));
+        Thread.sleep(5);
+        assertNull(cache.get(1));
+        assertEquals("found", cache.get(2));
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test
+    void zeroSizeDisablesTheCache() {
+        IntKeyCache<String> cache = new IntKeyCache<>(0, 1, TimeUnit.HOURS);
+        cache.put(1, "one");
+        cache.putIfUnchanged(2, "two", cache.generation(2));
+        cache.invalidate(1);
+        assertNull(cache.get(1));
+        assertNull(cache.get(2));
+    }
+
+    @Test
+    void rejectsNegativeSizeAndNullValues() {
+        assertThrows(IllegalArgumentException.class, () -> new IntKeyCache<String>(-1, 1, TimeUnit.HOURS));
+        IntKeyCache<String> cache = new IntKeyCache<>(4, 1, TimeUnit.HOURS);
+        assertThrows(IllegalArgumentException.class, () -> cache.put(1, null));
+    }
+}
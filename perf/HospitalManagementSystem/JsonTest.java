@@ -0,0 +1,68 @@
+package HospitalManagementSystem;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonTest {
+
+    @Test
+    void parsesEveryValueType() {
+        Map<String, Object> object = Json.parseObject(
+                " {\"name\": \"Ann\", \"age\": 30, \"score\": -1.5e2, \"active\": true, \"banned\": false, \"note\": null} ");
+        assertEquals("Ann", object.get("name"));
+        assertEquals(30L, object.get("age"));
+        assertEquals(-150.0, object.get("score"));
+        assertEquals(Boolean.TRUE, object.get("active"));
+        assertEquals(Boolean.FALSE, object.get("banned"));
+        assertTrue(object.containsKey("note"));
+        assertNull(object.get("note"));
+        assertEquals(Map.of(), Json.parseObject("{}"));
+    }
+
+    @Test
+    void decodesEscapes() {
+        Map<String, Object> object = Json.parseObject("{\"text\": \"a\\\"b\\\\c\\/d\\n\\t\\u00e9\\u20AC\"}");
+        assertEquals("a\"b\\c/d\n\t\u00e9\u20ac", object.get("text"));
+    }
+
+    @Test
+    void appendedStringsParseBack() {
+        String value = "quote \" backslash \\ newline \n tab \t bell \u0007 unicode \u00e9";
+        String json = Json.appendString(new StringBuilder("{\"v\":"), value).append('}').toString();
+        assertEquals(value, Json.parseObject(json).get("v"));
+        assertEquals("null", Json.appendString(new StringBuilder(), null).toString());
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        String[] malformed = {
+                "",
+                "[]",
+                "{",
+                "{\"a\" 1}",
+                "{\"a\": 1,}",
+                "{\"a\": 1} trailing",
+                "{a: 1}",
+                "{\"a\": \"unterminated}",
+                "{\"a\": \"bad \\q escape\"}",
+                "{\"a\": \"\\u12\"}",
+                "{\"a\": \"\\u+041\"}",
+                "{\"a\": \"\\uzzzz\"}",
+                "{\"a\": 1.2.3}",
+                "{\"a\": -}",
+                "{\"a\": tru}",
+                "{\"a\": {\"nested\": 1}}",
+                "{\"a\": [1, 2]}",
+        };
+        for (String text : malformed) {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> Json.parseObject(text), text);
+            assertTrue(error.getMessage().contains("at position"), error.getMessage());
+        }
+    }
+}
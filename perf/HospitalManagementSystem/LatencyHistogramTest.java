@@ -0,0 +1,92 @@
+package HospitalManagementSystem;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    // The upper bound of the bucket holding the value, read back through the median with a
+    // clamped maximum recorded alongside so the bound is not capped
+    private static long bucketUpperMicros(long micros) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(micros * 1000);
+        histogram.recordNanos(Long.MAX_VALUE);
+        return Math.round(histogram.snapshot().getPercentileMillis(50) * 1000);
+    }
+
+    @Test
+    void valuesBelowSixtyFourMicrosAreExact() {
+        for (long micros = 0; micros < 64; micros++) {
+            assertEquals(micros, bucketUpperMicros(micros));
+        }
+    }
+
+    @Test
+    void bucketsAroundEachPowerOfTwoStayWithinTheStatedError() {
+        for (int power = 6; power < 36; power++) {
+            long edge = 1L << power;
+            for (long micros : new long[]{edge - 1, edge, edge + 1, edge + edge / 2, 2 * edge - 1}) {
+                long upper = bucketUpperMicros(micros);
+                assertTrue(upper >= micros, micros + " reported as " + upper);
+                assertTrue(upper - micros <= micros / 32, micros + " reported as " + upper);
+            }
+        }
+    }
+
+    @Test
+    void neighbouringBucketsMeetWithoutGaps() {
+        assertEquals(65, bucketUpperMicros(64));
+        assertEquals(65, bucketUpperMicros(65));
+        assertEquals(67, bucketUpperMicros(66));
+        assertEquals(127, bucketUpperMicros(126));
+        assertEquals(131, bucketUpperMicros(128));
+        assertEquals(131, bucketUpperMicros(131));
+        assertEquals(135, bucketUpperMicros(132));
+    }
+
+    @Test
+    void percentilesAreCappedAtTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(100_000); // 100 us, in the bucket up to 101 us
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0.1, snapshot.getPercentileMillis(99), 1e-9);
+        assertEquals(0.1, snapshot.getMaxMillis(), 1e-9);
+    }
+
+    @Test
+    void negativeAndHugeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(-5);
+        histogram.recordNanos(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getPercentileMillis(50));
+        assertEquals(((1L << 36) - 1) / 1000.0, snapshot.getMaxMillis(), 1e-9);
+    }
+
+    @Test
+    void emptySnapshotReportsZero() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMeanMillis());
+        assertEquals(0, snapshot.getPercentileMillis(99));
+    }
+
+    @Test
+    void minusKeepsOnlyTheValuesRecordedInBetween() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(50_000_000); // 50 ms
+        LatencyHistogram.Snapshot earlier = histogram.snapshot();
+        histogram.recordNanos(1_000_000);
+        histogram.recordNanos(3_000_000);
+
+        LatencyHistogram.Snapshot window = histogram.snapshot().minus(earlier);
+        assertEquals(2, window.getCount());
+        assertEquals(2.0, window.getMeanMillis(), 1e-9);
+        // The window's maximum is bounded by its top bucket, not the 50 ms outside it
+        assertTrue(window.getMaxMillis() >= 3.0 && window.getMaxMillis() <= 3.0 * 33 / 32);
+        assertTrue(window.getPercentileMillis(100) <= window.getMaxMillis());
+    }
+}
@@ -0,0 +1,121 @@
+package HospitalManagementSystem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfflineJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesSurviveReopeningInOrder() throws IOException {
+        LocalDate date = LocalDate.of(2026, 3, 14);
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            journal.appendPatient("Ann Lee", 30, "F");
+            journal.appendBooking(7, 3, date, LocalTime.of(9, 30));
+        }
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            assertEquals(2, journal.getPendingCount());
+            List<OfflineJournal.Entry> entries = journal.readPending(10);
+            assertEquals(OfflineJournal.Kind.PATIENT, entries.get(0).kind());
+            assertEquals("Ann Lee", entries.get(0).name());
+            assertEquals(30, entries.get(0).age());
+            assertEquals("F", entries.get(0).gender());
+
+            OfflineJournal.Entry booking = entries.get(1);
+            assertEquals(OfflineJournal.Kind.BOOKING, booking.kind());
+            assertEquals(7, booking.patientId());
+            assertEquals(3, booking.doctorId());
+            assertEquals(date, booking.date());
+            assertEquals(LocalTime.of(9, 30), booking.time());
+            assertNotEquals(entries.get(0).ref(), booking.ref());
+        }
+    }
+
+    @Test
+    void reopeningCutsOffATornEntry() throws IOException {
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            journal.appendPatient("Ann Lee", 30, "F");
+        }
+        Path file = directory.resolve("journal.log");
+        long intact = Files.size(file);
+        // Half an entry, as a crash in the middle of an append leaves it
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2, 3, 4, 5}));
+        }
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            assertEquals(1, journal.getPendingCount());
+            assertEquals(intact, Files.size(file));
+            journal.appendPatient("Bo Park", 41, "M");
+        }
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            assertEquals(List.of("Ann Lee", "Bo Park"),
+                    journal.readPending(10).stream().map(OfflineJournal.Entry::name).toList());
+        }
+    }
+
+    @Test
+    void checkpointSkipsAppliedEntriesAndEmptiesTheFileAtTheEnd() throws IOException {
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            for (int i = 1; i <= 3; i++) {
+                journal.appendPatient("Patient " + i, i, "F");
+            }
+            List<OfflineJournal.Entry> first = journal.readPending(2);
+            journal.markApplied(first.get(1).endOffset(), first.size());
+            assertEquals(1, journal.getPendingCount());
+        }
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            List<OfflineJournal.Entry> rest = journal.readPending(10);
+            assertEquals(List.of("Patient 3"), rest.stream().map(OfflineJournal.Entry::name).toList());
+            journal.markApplied(rest.get(0).endOffset(), rest.size());
+            assertEquals(0, journal.getPendingCount());
+        }
+        assertEquals(0, Files.size(directory.resolve("journal.log")));
+        assertEquals("0", Files.readString(directory.resolve("journal.state")));
+    }
+
+    @Test
+    void checkpointLeftPastTheEndIsIgnored() throws IOException {
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            journal.appendPatient("Ann Lee", 30, "F");
+        }
+        // A crash after the journal was emptied but before its checkpoint was reset
+        long applied = Files.size(directory.resolve("journal.log"));
+        Files.write(directory.resolve("journal.log"), new byte[0]);
+        Files.writeString(directory.resolve("journal.state"), Long.toString(applied));
+
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            assertEquals(0, journal.getPendingCount());
+            journal.appendPatient("Bo Park", 41, "M");
+            assertEquals(List.of("Bo Park"), journal.readPending(10).stream().map(OfflineJournal.Entry::name).toList());
+        }
+    }
+
+    @Test
+    void directoryHasOneOwnerAtATime() throws IOException {
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            IOException e = assertThrows(IOException.class, () -> OfflineJournal.open(directory));
+            assertTrue(e.getMessage().contains("in use"), e.getMessage());
+            journal.appendPatient("Ann Lee", 30, "F");
+        }
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            assertEquals(1, journal.getPendingCount());
+        }
+    }
+}
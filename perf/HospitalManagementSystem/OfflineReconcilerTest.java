@@ -0,0 +1,152 @@
+package HospitalManagementSystem;
+
+import HospitalManagementSystem.perf.PerfDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfflineReconcilerTest {
+    private static final String URL = "jdbc:h2:mem:offlinereconcilertest;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+    private static final LocalTime NINE = LocalTime.of(9, 0);
+
+    private static ConnectionPool pool;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void createDatabase() throws SQLException {
+        pool = PerfDatabase.open(URL, 4);
+        PerfDatabase.createSchema(pool);
+        PerfDatabase.seedPatients(pool, 10);
+        PerfDatabase.seedDoctors(pool, 2);
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        pool.close();
+    }
+
+    private static AppointmentService newService() throws SQLException {
+        SchedulingEngine engine = new SchedulingEngine(pool, new Doctor(pool), new AvailabilityIndex());
+        engine.reload();
+        return new AppointmentService(pool, engine);
+    }
+
+    @Test
+    void entriesReplayedAfterACrashAreNotAppliedTwice() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(20);
+        Path queued = directory.resolve("queued");
+        try (OfflineJournal journal = OfflineJournal.open(queued)) {
+            journal.appendPatient("Queued Quinn", 33, "F");
+            journal.appendBooking(4, 1, date, NINE);
+        }
+        // The journal as a crash after the commit but before the checkpoint leaves it
+        Path crashed = Files.createDirectories(directory.resolve("crashed"));
+        Files.copy(queued.resolve("journal.log"), crashed.resolve("journal.log"));
+
+        Patient patient = new Patient(pool);
+        AppointmentService service = newService();
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        patient.addListener(new HospitalEventListener() {
+            @Override
+            public void patientAdded(int patientId) {
+                events.add("added " + patientId);
+            }
+        });
+        service.addListener(new HospitalEventListener() {
+            @Override
+            public void appointmentBooked(int patientId, int doctorId, LocalDate appointmentDate) {
+                events.add("booked " + patientId);
+            }
+        });
+
+        try (OfflineJournal journal = OfflineJournal.open(queued)) {
+            OfflineReconciler reconciler = new OfflineReconciler(pool, journal, patient, service);
+            assertEquals(2, reconciler.reconcile());
+            assertEquals(0, reconciler.getPendingCount());
+        }
+        try (OfflineJournal journal = OfflineJournal.open(crashed)) {
+            OfflineReconciler reconciler = new OfflineReconciler(pool, journal, patient, service);
+            assertEquals(2, reconciler.reconcile());
+            assertEquals(List.of(), reconciler.takeConflicts());
+        }
+
+        assertEquals(1, count("SELECT COUNT(*) FROM patients WHERE name = 'Queued Quinn'"));
+        assertEquals(1, countSlot(1, date, NINE));
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).startsWith("added "), events.toString());
+        assertEquals("booked 4", events.get(1));
+    }
+
+    @Test
+    void queuedBookingForASlotTakenOnlineIsReportedAsAConflict() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(21);
+        AppointmentService service = newService();
+        List<BookingResult> rejected = Collections.synchronizedList(new ArrayList<>());
+        service.addListener(new HospitalEventListener() {
+            @Override
+            public void appointmentRejected(int patientId, int doctorId, LocalDate appointmentDate, LocalTime appointmentTime,
+                                            BookingResult reason) {
+                rejected.add(reason);
+            }
+        });
+
+        try (OfflineJournal journal = OfflineJournal.open(directory)) {
+            // Queued by an instance that was offline while another booked the same slot online
+            journal.appendBooking(5, 2, date, NINE);
+            assertEquals(BookingResult.BOOKED, service.bookAppointment(6, 2, date, NINE));
+
+            OfflineReconciler reconciler = new OfflineReconciler(pool, journal, new Patient(pool), service);
+            assertEquals(1, reconciler.reconcile());
+            List<String> conflicts = reconciler.takeConflicts();
+            assertEquals(1, conflicts.size());
+            assertTrue(conflicts.get(0).startsWith("Patient 5 with doctor 2"), conflicts.get(0));
+            assertEquals(List.of(), reconciler.takeConflicts());
+            assertEquals(0, reconciler.getPendingCount());
+        }
+        assertEquals(List.of(BookingResult.DOCTOR_UNAVAILABLE), rejected);
+        assertEquals(1, countSlot(2, date, NINE));
+    }
+
+    private static int count(String query) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static int countSlot(int doctorId, LocalDate date, LocalTime time) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement("SELECT COUNT(*) FROM appointments "
+                     + "WHERE doctor_id = ? AND appointment_date = ? AND appointment_time = ?")) {
+            preparedStatement.setInt(1, doctorId);
+            preparedStatement.setDate(2, Date.valueOf(date));
+            preparedStatement.setTime(3, Time.valueOf(time));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package HospitalManagementSystem;
+
+import HospitalManagementSystem.perf.PerfDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PatientImporterTest {
+    private static final String URL = "jdbc:h2:mem:patientimportertest;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void parsesQuotedFields() {
+        assertEquals(List.of("Smith, Jane \"JJ\"", "41", "F"),
+                PatientImporter.parseCsvLine("\"Smith, Jane \"\"JJ\"\"\",41,F"));
+        assertEquals(List.of("a", "", "c"), PatientImporter.parseCsvLine("a,,c"));
+    }
+
+    @Test
+    void rejectedRowsParseBackToTheSameFields() {
+        String[][] rows = {
+                {"Jane Smith", "41", "F"},
+                {"Smith, Jane", "41", "F"},
+                {"Jane \"JJ\" Smith", "41", "F"},
+                {"\"", "0", ","},
+        };
+        for (String[] row : rows) {
+            assertEquals(List.of(row), PatientImporter.parseCsvLine(PatientImporter.toCsvLine(row)));
+        }
+        assertEquals("Jane Smith,41,F", PatientImporter.toCsvLine(rows[0]));
+    }
+
+    @Test
+    void onlyTheColumnHeaderIsSkipped() {
+        assertTrue(PatientImporter.isHeader("name,age,gender"));
+        assertTrue(PatientImporter.isHeader("Name, Age, Gender"));
+        assertTrue(PatientImporter.isHeader("\"name\",\"age\",\"gender\""));
+        assertFalse(PatientImporter.isHeader("Namesh,30,M"));
+        assertFalse(PatientImporter.isHeader("name,30,M"));
+    }
+
+    @Test
+    void everyCommittedRowIsAnnounced() throws Exception {
+        ConnectionPool pool = PerfDatabase.open(URL, 2);
+        try {
+            PerfDatabase.createSchema(pool);
+            Patient patient = new Patient(pool);
+            List<Integer> added = Collections.synchronizedList(new ArrayList<>());
+            patient.addListener(new HospitalEventListener() {
+                @Override
+                public void patientAdded(int patientId) {
+                    added.add(patientId);
+                }
+            });
+            Path csv = directory.resolve("patients.csv");
+            Files.writeString(csv, "name,age,gender\nNamesh,30,M\nAnn,41,F\nBad,abc,F\nBo,7,M\nCy,55,F\nDee,19,F\n");
+
+            ImportProgress result = new PatientImporter(pool, patient, 2, 4)
+                    .importFile(csv, directory.resolve("rejected.csv"), progress -> { });
+
+            assertEquals(5, result.getRowsImported());
+            assertEquals(1, result.getRowsRejected());
+            assertEquals(5, added.size());
+            assertEquals(5, added.stream().distinct().count());
+            for (int id : added) {
+                assertNotNull(patient.findPatientById(id));
+            }
+            assertEquals("Namesh", patient.findPatientById(added.get(0)).name());
+        } finally {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package HospitalManagementSystem;
+
+import HospitalManagementSystem.perf.PerfDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PatientTest {
+    private static final String URL = "jdbc:h2:mem:patienttest;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+    private static final int SEEDED = 25;
+
+    private static ConnectionPool pool;
+
+    @BeforeAll
+    static void createDatabase() throws SQLException {
+        pool = PerfDatabase.open(URL, 4);
+        PerfDatabase.createSchema(pool);
+        PerfDatabase.seedPatients(pool, SEEDED);
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        pool.close();
+    }
+
+    @Test
+    void createdPatientIsAnnouncedAndFound() throws SQLException {
+        Patient patient = new Patient(pool);
+        List<Integer> added = new ArrayList<>();
+        patient.addListener(new HospitalEventListener() {
+            @Override
+            public void patientAdded(int patientId) {
+                added.add(patientId);
+            }
+        });
+        int before = patient.countPatients();
+        int id = patient.createPatient("Ann Lee", 30, "F");
+        assertTrue(id > 0);
+        assertEquals(List.of(id), added);
+        assertEquals(before + 1, patient.countPatients());
+        assertEquals(new PatientRecord(id, "Ann Lee", 30, "F"), patient.findPatientById(id));
+    }
+
+    @Test
+    void lookupThatMissedSeesThePatientOnceAdded() throws SQLException {
+        Patient patient = new Patient(pool);
+        int next = patient.getPatientIdAtOffset(patient.countPatients() - 1) + 1;
+        assertNull(patient.findPatientById(next));
+        assertEquals(next, patient.createPatient("Bo Park", 41, "M"));
+        assertNotNull(patient.findPatientById(next));
+    }
+
+    @Test
+    void pagesFollowEachOtherInIdOrder() throws SQLException {
+        Patient patient = new Patient(pool);
+        List<PatientRecord> first = patient.viewPatientsPage(0, 10);
+        List<PatientRecord> second = patient.viewPatientsPage(first.get(9).id(), 10);
+        assertEquals(10, first.size());
+        assertEquals(10, second.size());
+        List<PatientRecord> all = new ArrayList<>(first);
+        all.addAll(second);
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).id() < all.get(i).id());
+        }
+        assertEquals(second.get(0).id(), patient.getPatientIdAtOffset(10));
+        assertEquals(-1, patient.getPatientIdAtOffset(patient.countPatients()));
+    }
+
+    @Test
+    void searchCombinesFiltersAndStreamsInBatches() throws SQLException {
+        Patient patient = new Patient(pool);
+        List<List<PatientRecord>> batches = new ArrayList<>();
+        // Seeded as "Patient i", aged i % 90, male when i is even
+        int found = patient.searchPatients("Patient 1", null, 15, "M", 2, 100, batches::add);
+        assertEquals(3, found);
+        assertEquals(List.of(2, 1), batches.stream().map(List::size).toList());
+        assertEquals(List.of("Patient 10", "Patient 12", "Patient 14"),
+                batches.stream().flatMap(List::stream).map(PatientRecord::name).sorted().toList());
+
+        assertEquals(0, patient.searchPatients("100%", null, null, null, 10, 100, batch -> { }));
+        assertEquals(5, patient.searchPatients("Patient", null, null, null, 10, 5, batch -> { }));
+    }
+}
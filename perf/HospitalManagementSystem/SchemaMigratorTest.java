@@ -0,0 +1,120 @@
+package HospitalManagementSystem;
+
+import HospitalManagementSystem.perf.PerfDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaMigratorTest {
+
+    private static String url(String name) {
+        return "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+    }
+
+    @Test
+    void migratingTwiceAppliesNothingTheSecondTime() throws SQLException {
+        ConnectionPool pool = PerfDatabase.open(url("migrator_twice"), 2);
+        try {
+            SchemaMigrator migrator = new SchemaMigrator(pool);
+            int applied = migrator.migrate();
+            assertTrue(applied > 0);
+            assertEquals(applied, countHistory(pool));
+            assertEquals(0, migrator.migrate());
+            assertEquals(0, new SchemaMigrator(pool).migrate());
+            assertEquals(applied, countHistory(pool));
+            migrator.validate();
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void concurrentStartsApplyEachScriptOnce() throws Exception {
+        int instances = 4;
+        List<ConnectionPool> pools = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(instances);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < instances; i++) {
+                ConnectionPool pool = PerfDatabase.open(url("migrator_concurrent"), 1);
+                pools.add(pool);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return new SchemaMigrator(pool).migrate();
+                }));
+            }
+            start.countDown();
+            int applied = 0;
+            for (Future<Integer> result : results) {
+                applied += result.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(countHistory(pools.get(0)), applied);
+            assertEquals(0, new SchemaMigrator(pools.get(0)).migrate());
+        } finally {
+            executor.shutdownNow();
+            pools.forEach(ConnectionPool::close);
+        }
+    }
+
+    @Test
+    void waitsForTheHolderAndTakesOverAStaleLock() throws Exception {
+        ConnectionPool pool = PerfDatabase.open(url("migrator_lock"), 2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            SchemaMigrator migrator = new SchemaMigrator(pool);
+            migrator.migrate();
+
+            execute(pool, "UPDATE schema_lock SET locked_by = 'other', locked_at = CURRENT_TIMESTAMP");
+            Future<Integer> waiting = executor.submit(migrator::migrate);
+            Thread.sleep(500);
+            assertFalse(waiting.isDone());
+            execute(pool, "UPDATE schema_lock SET locked_by = NULL, locked_at = NULL");
+            assertEquals(0, waiting.get(10, TimeUnit.SECONDS));
+
+            // Left behind by an instance that crashed long ago
+            execute(pool, "UPDATE schema_lock SET locked_by = 'crashed', "
+                    + "locked_at = TIMESTAMPADD(SECOND, -86400, CURRENT_TIMESTAMP)");
+            assertEquals(0, executor.submit(migrator::migrate).get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+            pool.close();
+        }
+    }
+
+    @Test
+    void commentsCannotEndAStatement() {
+        assertEquals(List.of("CREATE TABLE t (a INT)", "CREATE INDEX i ON t (a)"), SchemaMigrator.splitStatements(
+                "-- a comment; with a semicolon\nCREATE TABLE t (a INT);\n\n  -- another\nCREATE INDEX i ON t (a);\n"));
+    }
+
+    private static int countHistory(ConnectionPool pool) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM schema_history")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static void execute(ConnectionPool pool, String sql) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+}
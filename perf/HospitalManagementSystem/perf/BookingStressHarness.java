@@ -0,0 +1,108 @@
+package HospitalManagementSystem.perf;
+
+import HospitalManagementSystem.AppointmentService;
+import HospitalManagementSystem.AvailabilityIndex;
+import HospitalManagementSystem.BookingResult;
+import HospitalManagementSystem.ConnectionPool;
+import HospitalManagementSystem.Doctor;
+import HospitalManagementSystem.SchedulingEngine;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fires concurrent bookings at a small set of doctors and days so most attempts collide, then
+ * checks that no slot ended up booked twice. Two services with their own scheduling engines share
+ * the database, standing in for two application instances, so collisions the in-memory calendars
+ * cannot see are left to the unique key. Half the bookings ask for a given slot, half for the
+ * first free slot of the day.
+ *
+ * <p>Usage: {@code BookingStressHarness [bookings] [threads]}. Exits with status 1 on a double booking.
+ */
+public class BookingStressHarness {
+    private static final int DOCTORS = 20;
+    private static final int DAYS = 3;
+    private static final int PATIENTS = 500;
+
+    public static void main(String[] args) throws Exception {
+        int bookings = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+
+        try (ConnectionPool pool = PerfDatabase.open(threads)) {
+            PerfDatabase.createSchema(pool);
+            PerfDatabase.seedPatients(pool, PATIENTS);
+            PerfDatabase.seedDoctors(pool, DOCTORS);
+            AppointmentService[] services = new AppointmentService[2];
+            for (int i = 0; i < services.length; i++) {
+                SchedulingEngine engine = new SchedulingEngine(pool, new Doctor(pool), new AvailabilityIndex());
+                engine.reload();
+                services[i] = new AppointmentService(pool, engine);
+            }
+            int slots = services[0].getSchedulingEngine().getSchedule(1).slotsPerDay();
+            int slotMinutes = services[0].getSchedulingEngine().getSchedule(1).slotMinutes();
+            LocalTime workStart = services[0].getSchedulingEngine().getSchedule(1).workStart();
+            LocalDate firstDay = LocalDate.now();
+
+            AtomicLongArray outcomes = new AtomicLongArray(BookingResult.values().length);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long start = System.nanoTime();
+            for (int i = 0; i < bookings; i++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    // A few ids past the seeded range exercise the unknown-patient/doctor paths
+                    int patientId = 1 + random.nextInt(PATIENTS + 5);
+                    int doctorId = 1 + random.nextInt(DOCTORS + 1);
+                    LocalDate date = firstDay.plusDays(1 + random.nextInt(DAYS));
+                    AppointmentService service = services[random.nextInt(services.length)];
+                    try {
+                        BookingResult result = random.nextBoolean()
+                                ? service.bookAppointment(patientId, doctorId, date.toString())
+                                : service.bookAppointment(patientId, doctorId, date, workStart.plusMinutes((long) slotMinutes * random.nextInt(slots)));
+                        outcomes.incrementAndGet(result.ordinal());
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.MINUTES);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Map<BookingResult, Long> counts = new EnumMap<>(BookingResult.class);
+            for (BookingResult result : BookingResult.values()) {
+                counts.put(result, outcomes.get(result.ordinal()));
+            }
+            System.out.println(bookings + " bookings on " + threads + " threads in " + elapsedMillis + " ms: " + counts);
+            System.out.println(pool.getMetrics());
+
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement duplicates = connection.prepareStatement(
+                         "SELECT COUNT(*) FROM (SELECT doctor_id, appointment_date, appointment_time FROM appointments "
+                                 + "GROUP BY doctor_id, appointment_date, appointment_time HAVING COUNT(*) > 1) d");
+                 PreparedStatement total = connection.prepareStatement("SELECT COUNT(*) FROM appointments")) {
+                ResultSet duplicateRows = duplicates.executeQuery();
+                duplicateRows.next();
+                ResultSet totalRows = total.executeQuery();
+                totalRows.next();
+                long doubleBooked = duplicateRows.getLong(1);
+                long stored = totalRows.getLong(1);
+                System.out.println("Stored appointments: " + stored + ", double-booked slots: " + doubleBooked);
+                if (doubleBooked != 0 || stored != counts.get(BookingResult.BOOKED)) {
+                    System.err.println("FAILED: bookings reported and stored do not agree.");
+                    System.exit(1);
+                }
+            }
+        }
+        System.out.println("OK: no double bookings.");
+    }
+}
@@ -0,0 +1,143 @@
+package HospitalManagementSystem.perf;
+
+import HospitalManagementSystem.AuditEvent;
+import HospitalManagementSystem.BookingResult;
+import HospitalManagementSystem.ConnectionPool;
+import HospitalManagementSystem.EventLog;
+import HospitalManagementSystem.EventLogMirror;
+import HospitalManagementSystem.LatencyHistogram;
+import HospitalManagementSystem.Metrics;
+import HospitalManagementSystem.OperationMetrics;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends audit events from many threads and reports what the caller pays per event against a
+ * synchronous audit INSERT, how many events each fsync carried, and how long until all of them
+ * were durable. Then replays the log and mirrors it into {@code audit_events}, checking that
+ * every event arrives exactly once and in order.
+ *
+ * <p>Usage: {@code EventLogHarness [events] [threads]}. Exits with status 1 if an event is missing.
+ */
+public class EventLogHarness {
+    private static final int SYNC_SAMPLES = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        // Small segments so the run rolls over several files
+        System.setProperty("hms.eventlog.segmentBytes", String.valueOf(4 << 20));
+        Path directory = Files.createTempDirectory("hms-eventlog");
+
+        LatencyHistogram append = new LatencyHistogram();
+        EventLog eventLog = EventLog.open(directory);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int share = events / threads + (t < events % threads ? 1 : 0);
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                LocalDate date = LocalDate.now().plusDays(1);
+                for (int i = 0; i < share; i++) {
+                    int patientId = 1 + random.nextInt(100_000);
+                    long before = System.nanoTime();
+                    switch (i % 3) {
+                        case 0 -> eventLog.patientAdded(patientId);
+                        case 1 -> eventLog.appointmentBooked(patientId, 1 + random.nextInt(50), date, LocalTime.of(9, 15));
+                        default -> eventLog.appointmentRejected(patientId, 1 + random.nextInt(50), date, null,
+                                BookingResult.DOCTOR_UNAVAILABLE);
+                    }
+                    append.recordNanos(System.nanoTime() - before);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        long appendedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        while (eventLog.getDurableSequence() < events) {
+            Thread.sleep(1);
+        }
+        long durableMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        eventLog.close();
+
+        LatencyHistogram.Snapshot appendLatency = append.snapshot();
+        OperationMetrics flush = Metrics.operations().stream()
+                .filter(operation -> operation.getName().equals("eventlog.flush")).findFirst().orElseThrow();
+        System.out.printf("%d events on %d threads appended in %d ms, all durable after %d ms%n",
+                events, threads, appendedMillis, durableMillis);
+        System.out.printf("Append latency: p50 %.0f us, p99 %.0f us, max %.3f ms%n", appendLatency.getPercentileMillis(50) * 1000,
+                appendLatency.getPercentileMillis(99) * 1000, appendLatency.getMaxMillis());
+        System.out.printf("Group commits: %d fsyncs, %.1f events per fsync, p50 %.3f ms per group%n",
+                flush.getCount(), (double) flush.getRows() / flush.getCount(), flush.getP50Millis());
+        try (var files = Files.list(directory)) {
+            System.out.println("Segments: " + files.filter(path -> path.getFileName().toString().endsWith(".log")).count());
+        }
+
+        // Replay: sequence numbers must run 1..events without gaps or repeats
+        Map<AuditEvent.Type, Long> byType = new EnumMap<>(AuditEvent.Type.class);
+        long[] expected = {1};
+        boolean[] ordered = {true};
+        long replayStart = System.nanoTime();
+        EventLog reopened = EventLog.open(directory);
+        long last = reopened.replay(1, event -> {
+            ordered[0] &= event.sequence() == expected[0]++;
+            byType.merge(event.type(), 1L, Long::sum);
+        });
+        System.out.printf("Replayed %d events in %d ms: %s%n", last,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - replayStart), byType);
+
+        try (ConnectionPool pool = PerfDatabase.open(2)) {
+            PerfDatabase.createSchema(pool);
+            LatencyHistogram sync = new LatencyHistogram();
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement insert = connection.prepareStatement(
+                         "INSERT INTO audit_events(sequence, recorded_at, event_type, actor) VALUES(?, ?, ?, ?)");
+                 PreparedStatement delete = connection.prepareStatement("DELETE FROM audit_events")) {
+                for (int i = 1; i <= SYNC_SAMPLES; i++) {
+                    long before = System.nanoTime();
+                    insert.setLong(1, i);
+                    insert.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+                    insert.setString(3, AuditEvent.Type.PATIENT_CREATED.name());
+                    insert.setString(4, "harness");
+                    insert.executeUpdate();
+                    sync.recordNanos(System.nanoTime() - before);
+                }
+                delete.executeUpdate();
+            }
+            System.out.printf("Synchronous audit INSERT for comparison: p50 %.0f us, p99 %.0f us%n",
+                    sync.snapshot().getPercentileMillis(50) * 1000, sync.snapshot().getPercentileMillis(99) * 1000);
+
+            long mirrorStart = System.nanoTime();
+            int copied = new EventLogMirror(pool, reopened).mirror();
+            System.out.printf("Mirrored %d events in %d ms%n", copied,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mirrorStart));
+            long stored;
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement count = connection.prepareStatement("SELECT COUNT(*), MAX(sequence) FROM audit_events");
+                 ResultSet resultSet = count.executeQuery()) {
+                resultSet.next();
+                stored = resultSet.getLong(1) == resultSet.getLong(2) ? resultSet.getLong(1) : -1;
+            }
+            reopened.close();
+            if (last != events || !ordered[0] || stored != events) {
+                System.err.println("FAILED: replayed " + last + ", in order " + ordered[0] + ", mirrored " + stored
+                        + " of " + events + " events.");
+                System.exit(1);
+            }
+        }
+        System.out.println("OK: every event logged, replayed and mirrored once.");
+    }
+}
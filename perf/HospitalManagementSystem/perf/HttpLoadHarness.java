@@ -0,0 +1,181 @@
+package HospitalManagementSystem.perf;
+
+import HospitalManagementSystem.AppointmentService;
+import HospitalManagementSystem.AvailabilityIndex;
+import HospitalManagementSystem.ConnectionPool;
+import HospitalManagementSystem.Doctor;
+import HospitalManagementSystem.HospitalServer;
+import HospitalManagementSystem.LatencyHistogram;
+import HospitalManagementSystem.Patient;
+import HospitalManagementSystem.SchedulingEngine;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the HTTP server with a mix of patient searches, doctor listings, availability checks,
+ * bookings and registrations from closed-loop client threads, and reports requests per second and
+ * latency per endpoint. Then streams one large patient search to compare the time to the first
+ * byte with the time to the last, and checks that no slot was booked twice.
+ *
+ * <p>Usage: {@code HttpLoadHarness [seconds] [threads]}. Exits with status 1 on a double booking
+ * or a server error.
+ */
+public class HttpLoadHarness {
+    private static final int PATIENTS = 200_000;
+    private static final int DOCTORS = 50;
+    private static final int DAYS = 5;
+    private static final int STREAMED_ROWS = 100_000;
+    private static final String[] ENDPOINTS = {"searchPatients", "searchDoctors", "availability", "book", "addPatient"};
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        try (ConnectionPool pool = PerfDatabase.open(16)) {
+            PerfDatabase.createSchema(pool);
+            PerfDatabase.seedPatients(pool, PATIENTS);
+            PerfDatabase.seedDoctors(pool, DOCTORS);
+            Patient patient = new Patient(pool);
+            Doctor doctor = new Doctor(pool);
+            SchedulingEngine engine = new SchedulingEngine(pool, doctor, new AvailabilityIndex());
+            engine.reload();
+            AppointmentService appointmentService = new AppointmentService(pool, engine);
+
+            try (HospitalServer server = new HospitalServer(new InetSocketAddress("localhost", 0), patient, doctor,
+                    appointmentService, threads)) {
+                server.start();
+                String base = "http://localhost:" + server.getPort();
+                HttpClient client = HttpClient.newHttpClient();
+
+                LatencyHistogram[] latencies = new LatencyHistogram[ENDPOINTS.length];
+                for (int i = 0; i < latencies.length; i++) {
+                    latencies[i] = new LatencyHistogram();
+                }
+                AtomicLong serverErrors = new AtomicLong();
+                AtomicLong booked = new AtomicLong();
+                LocalDate firstDay = LocalDate.now().plusDays(1);
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+                ExecutorService executor = Executors.newFixedThreadPool(threads);
+                for (int t = 0; t < threads; t++) {
+                    executor.execute(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        while (System.nanoTime() < deadline) {
+                            int endpoint = pick(random.nextInt(100));
+                            HttpRequest request = switch (endpoint) {
+                                case 0 -> get(base + "/patients?name=Patient+" + (1 + random.nextInt(PATIENTS)) + "&limit=20");
+                                case 1 -> get(base + "/doctors?specialization=Cardiology");
+                                case 2 -> get(base + "/doctors/" + (1 + random.nextInt(DOCTORS)) + "/availability?date="
+                                        + firstDay.plusDays(random.nextInt(DAYS)));
+                                case 3 -> post(base + "/appointments", "{\"patientId\":" + (1 + random.nextInt(PATIENTS))
+                                        + ",\"doctorId\":" + (1 + random.nextInt(DOCTORS))
+                                        + ",\"date\":\"" + firstDay.plusDays(random.nextInt(DAYS)) + "\"}");
+                                default -> post(base + "/patients", "{\"name\":\"Load " + random.nextInt(1_000_000)
+                                        + "\",\"age\":" + random.nextInt(90) + ",\"gender\":\"F\"}");
+                            };
+                            long start = System.nanoTime();
+                            try {
+                                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                                latencies[endpoint].recordNanos(System.nanoTime() - start);
+                                if (response.statusCode() >= 500) {
+                                    serverErrors.incrementAndGet();
+                                } else if (endpoint == 3 && response.statusCode() == 201) {
+                                    booked.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                serverErrors.incrementAndGet();
+                                e.printStackTrace();
+                            }
+                        }
+                    });
+                }
+                executor.shutdown();
+                executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+
+                long total = 0;
+                System.out.println(threads + " client threads for " + seconds + " s:");
+                for (int i = 0; i < ENDPOINTS.length; i++) {
+                    LatencyHistogram.Snapshot snapshot = latencies[i].snapshot();
+                    total += snapshot.getCount();
+                    System.out.printf("  %-15s %8d req %9.1f req/s  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms%n",
+                            ENDPOINTS[i], snapshot.getCount(), snapshot.getCount() / (double) seconds,
+                            snapshot.getPercentileMillis(50), snapshot.getPercentileMillis(99), snapshot.getMaxMillis());
+                }
+                System.out.printf("  %-15s %8d req %9.1f req/s, %d server errors%n", "total", total, total / (double) seconds,
+                        serverErrors.get());
+
+                // Rows are written as they are read, so the first byte should not wait for the last row
+                long start = System.nanoTime();
+                HttpResponse<InputStream> response = client.send(get(base + "/patients?limit=" + STREAMED_ROWS),
+                        HttpResponse.BodyHandlers.ofInputStream());
+                long bytes = 0;
+                long firstByteNanos = 0;
+                byte[] buffer = new byte[64 * 1024];
+                try (InputStream body = response.body()) {
+                    for (int read; (read = body.read(buffer)) >= 0; ) {
+                        if (bytes == 0 && read > 0) {
+                            firstByteNanos = System.nanoTime() - start;
+                        }
+                        bytes += read;
+                    }
+                }
+                long totalNanos = System.nanoTime() - start;
+                System.out.printf("Streamed %d patients (%d KB): first byte %.1f ms, last byte %.1f ms%n",
+                        STREAMED_ROWS, bytes / 1024, firstByteNanos / 1e6, totalNanos / 1e6);
+                System.out.println(pool.getMetrics());
+
+                try (Connection connection = pool.getConnection();
+                     PreparedStatement duplicates = connection.prepareStatement(
+                             "SELECT COUNT(*) FROM (SELECT doctor_id, appointment_date, appointment_time FROM appointments "
+                                     + "GROUP BY doctor_id, appointment_date, appointment_time HAVING COUNT(*) > 1) d")) {
+                    ResultSet duplicateRows = duplicates.executeQuery();
+                    duplicateRows.next();
+                    long doubleBooked = duplicateRows.getLong(1);
+                    System.out.println("Booked appointments: " + booked.get() + ", double-booked slots: " + doubleBooked);
+                    if (doubleBooked != 0 || serverErrors.get() != 0) {
+                        System.err.println("FAILED: double bookings or server errors.");
+                        System.exit(1);
+                    }
+                }
+            }
+        }
+        System.out.println("OK: no double bookings or server errors.");
+    }
+
+    // 40% patient search, 20% doctors, 20% availability, 15% booking, 5% registration
+    private static int pick(int percent) {
+        if (percent < 40) {
+            return 0;
+        }
+        if (percent < 60) {
+            return 1;
+        }
+        if (percent < 80) {
+            return 2;
+        }
+        return percent < 95 ? 3 : 4;
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    private static HttpRequest post(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri)).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+}
@@ -0,0 +1,195 @@
+package HospitalManagementSystem.perf;
+
+import HospitalManagementSystem.AppointmentService;
+import HospitalManagementSystem.AvailabilityIndex;
+import HospitalManagementSystem.BookingResult;
+import HospitalManagementSystem.ConnectionPool;
+import HospitalManagementSystem.Doctor;
+import HospitalManagementSystem.HospitalEventListener;
+import HospitalManagementSystem.LatencyHistogram;
+import HospitalManagementSystem.OfflineJournal;
+import HospitalManagementSystem.OfflineReconciler;
+import HospitalManagementSystem.Patient;
+import HospitalManagementSystem.SchedulingEngine;
+import org.h2.tools.Server;
+
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Registers patients against an H2 server, stops the server and keeps registering and booking,
+ * then restarts it and lets the {@link OfflineReconciler} catch up. Reports what a write costs
+ * online and offline and how long the sync took, and checks that every queued write arrived
+ * exactly once. Meanwhile a second application instance takes one of the queued slots directly,
+ * which must come back as the one conflict. Finally a stale copy of the journal is replayed, as
+ * after a crash before the checkpoint, and must add nothing.
+ *
+ * <p>Usage: {@code OfflineHarness [patientsPerPhase] [threads]}. Exits with status 1 if a write is
+ * lost, duplicated, or the conflict is not reported.
+ */
+public class OfflineHarness {
+    private static final int DOCTORS = 5;
+    private static final int SEED_PATIENTS = 100;
+
+    public static void main(String[] args) throws Exception {
+        int perPhase = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String url = "jdbc:h2:tcp://localhost:" + port + "/mem:offline;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        Server server = Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifNotExists").start();
+        Path directory = Files.createTempDirectory("hms-offline");
+
+        try (ConnectionPool pool = PerfDatabase.open(url, threads);
+             ConnectionPool otherPool = PerfDatabase.open(url, 2)) {
+            PerfDatabase.createSchema(pool);
+            PerfDatabase.seedPatients(pool, SEED_PATIENTS);
+            PerfDatabase.seedDoctors(pool, DOCTORS);
+            Patient patient = new Patient(pool);
+            SchedulingEngine engine = new SchedulingEngine(pool, new Doctor(pool), new AvailabilityIndex());
+            engine.reload();
+            AppointmentService appointmentService = new AppointmentService(pool, engine);
+            OfflineJournal journal = OfflineJournal.open(directory);
+            patient.setOfflineJournal(journal);
+            appointmentService.setOfflineJournal(journal);
+            OfflineReconciler reconciler = new OfflineReconciler(pool, journal, patient, appointmentService);
+
+            AtomicInteger added = new AtomicInteger();
+            AtomicInteger booked = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            patient.addListener(new HospitalEventListener() {
+                @Override
+                public void patientAdded(int patientId) {
+                    added.incrementAndGet();
+                }
+            });
+            appointmentService.addListener(new HospitalEventListener() {
+                @Override
+                public void appointmentBooked(int patientId, int doctorId, LocalDate date, LocalTime time) {
+                    booked.incrementAndGet();
+                }
+
+                @Override
+                public void appointmentRejected(int patientId, int doctorId, LocalDate date, LocalTime time, BookingResult result) {
+                    rejected.incrementAndGet();
+                }
+            });
+
+            addPatients("Online", patient, perPhase, threads);
+            int addedOnline = added.get();
+
+            server.stop();
+            addPatients("Offline", patient, perPhase, threads);
+            // Every slot of tomorrow's first hour for each doctor
+            LocalDate tomorrow = LocalDate.now().plusDays(1);
+            int queuedBookings = 0;
+            for (int doctorId = 1; doctorId <= DOCTORS; doctorId++) {
+                for (LocalTime time = LocalTime.of(9, 0); time.isBefore(LocalTime.of(10, 0)); time = time.plusMinutes(15)) {
+                    BookingResult result = appointmentService.bookAppointment(1 + queuedBookings, doctorId, tomorrow, time);
+                    if (result != BookingResult.QUEUED) {
+                        throw new IllegalStateException("Offline booking was " + result);
+                    }
+                    queuedBookings++;
+                }
+            }
+            Files.createDirectories(directory.resolve("stale"));
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    Files.copy(file, directory.resolve("stale").resolve(file.getFileName()));
+                }
+            }
+            System.out.printf("Queued offline: %d writes, pool offline %b%n", journal.getPendingCount(), pool.isOffline());
+
+            server = Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifNotExists").start();
+            // Another instance, online all along, takes doctor 1's 09:00 slot first
+            SchedulingEngine otherEngine = new SchedulingEngine(otherPool, new Doctor(otherPool), new AvailabilityIndex());
+            otherEngine.reload();
+            BookingResult other = new AppointmentService(otherPool, otherEngine)
+                    .bookAppointment(SEED_PATIENTS, 1, tomorrow, LocalTime.of(9, 0));
+
+            long start = System.nanoTime();
+            int applied = reconciler.reconcile();
+            long syncMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            List<String> conflicts = reconciler.takeConflicts();
+            System.out.printf("Reconciled %d entries in %d ms (%.0f entries/s), %d conflict(s)%n", applied, syncMillis,
+                    applied * 1000.0 / Math.max(1, syncMillis), conflicts.size());
+            conflicts.forEach(conflict -> System.out.println("  " + conflict));
+
+            int patientsBefore = count(pool, "SELECT COUNT(*) FROM patients");
+            int appointmentsBefore = count(pool, "SELECT COUNT(*) FROM appointments");
+            OfflineJournal stale = OfflineJournal.open(directory.resolve("stale"));
+            int replayed = new OfflineReconciler(pool, stale, new Patient(pool), new AppointmentService(pool, engine)).reconcile();
+            stale.close();
+            int patients = count(pool, "SELECT COUNT(*) FROM patients");
+            int appointments = count(pool, "SELECT COUNT(*) FROM appointments");
+            int doubleBooked = count(pool, "SELECT COUNT(*) FROM (SELECT doctor_id FROM appointments "
+                    + "GROUP BY doctor_id, appointment_date, appointment_time HAVING COUNT(*) > 1) d");
+            System.out.printf("Stale journal replay: %d entries, %d patients and %d appointments added%n", replayed,
+                    patients - patientsBefore, appointments - appointmentsBefore);
+            System.out.printf("Listeners: %d patients added, %d booked, %d rejected%n", added.get(), booked.get(), rejected.get());
+
+            int expectedPatients = SEED_PATIENTS + addedOnline + perPhase;
+            boolean ok = addedOnline == perPhase && patients == expectedPatients && added.get() == 2 * perPhase
+                    && other == BookingResult.BOOKED && appointments == queuedBookings && booked.get() == queuedBookings - 1
+                    && rejected.get() == 1 && conflicts.size() == 1 && doubleBooked == 0 && journal.getPendingCount() == 0
+                    && patients == patientsBefore && appointments == appointmentsBefore;
+            journal.close();
+            if (!ok) {
+                System.err.printf("FAILED: %d patients (expected %d), %d appointments (expected %d), %d conflicts, "
+                                + "%d double bookings, %d still queued%n", patients, expectedPatients, appointments,
+                        queuedBookings, conflicts.size(), doubleBooked, journal.getPendingCount());
+                System.exit(1);
+            }
+        } finally {
+            server.stop();
+        }
+        System.out.println("OK: every offline write applied once, the taken slot reported as a conflict.");
+    }
+
+    private static void addPatients(String phase, Patient patient, int count, int threads) throws InterruptedException {
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int n = i;
+            executor.execute(() -> {
+                long before = System.nanoTime();
+                if (!patient.addPatient(phase + " patient " + n, n % 90, n % 2 == 0 ? "M" : "F")) {
+                    failed.incrementAndGet();
+                }
+                latency.recordNanos(System.nanoTime() - before);
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        System.out.printf("%s: %d patients in %d ms (%.0f/s), p50 %.0f us, p99 %.0f us, %d failed%n", phase, count, millis,
+                count * 1000.0 / millis, snapshot.getPercentileMillis(50) * 1000, snapshot.getPercentileMillis(99) * 1000,
+                failed.get());
+    }
+
+    private static int count(ConnectionPool pool, String query) throws Exception {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
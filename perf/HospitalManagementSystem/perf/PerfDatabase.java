@@ -0,0 +1,92 @@
+package HospitalManagementSystem.perf;
+
+import HospitalManagementSystem.ConnectionPool;
+import HospitalManagementSystem.SchemaMigrator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Shared setup for the performance harnesses and benchmarks: an embedded H2 database in MySQL
+ * mode unless {@code hms.jdbc.url} points somewhere else.
+ */
+public final class PerfDatabase {
+    public static final String DEFAULT_URL = "jdbc:h2:mem:hospital;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+
+    private PerfDatabase() {
+    }
+
+    public static ConnectionPool open(int poolSize) {
+        return open(System.getProperty("hms.jdbc.url", DEFAULT_URL), poolSize);
+    }
+
+    public static ConnectionPool open(String url, int poolSize) {
+        String username = System.getProperty("hms.jdbc.username", "sa");
+        String password = System.getProperty("hms.jdbc.password", "");
+        return new ConnectionPool(url, username, password, poolSize);
+    }
+
+    public static void createSchema(ConnectionPool pool) throws SQLException {
+        new SchemaMigrator(pool).migrate();
+    }
+
+    public static void seedPatients(ConnectionPool pool, int count) throws SQLException {
+        String query = "INSERT INTO patients(name, age, gender) VALUES(?, ?, ?)";
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            connection.setAutoCommit(false);
+            for (int i = 1; i <= count; i++) {
+                preparedStatement.setString(1, "Patient " + i);
+                preparedStatement.setInt(2, i % 90);
+                preparedStatement.setString(3, i % 2 == 0 ? "M" : "F");
+                preparedStatement.addBatch();
+                if (i % 1000 == 0) {
+                    preparedStatement.executeBatch();
+                    connection.commit();
+                }
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    public static void seedDoctors(ConnectionPool pool, int count) throws SQLException {
+        String[] specializations = {"Cardiology", "Neurology", "Orthopedics", "Pediatrics", "Dermatology"};
+        String query = "INSERT INTO doctors(name, specialization) VALUES(?, ?)";
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            connection.setAutoCommit(false);
+            for (int i = 1; i <= count; i++) {
+                preparedStatement.setString(1, "Doctor " + i);
+                preparedStatement.setString(2, specializations[i % specializations.length]);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    // Appointments spread over the doctors, one per doctor per day starting today
+    public static void seedAppointments(ConnectionPool pool, int count, int doctors, int patients) throws SQLException {
+        String query = "INSERT INTO appointments(patient_id, doctor_id, appointment_date) VALUES(?, ?, ?)";
+        LocalDate today = LocalDate.now();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                preparedStatement.setInt(1, 1 + i % patients);
+                preparedStatement.setInt(2, 1 + i % doctors);
+                preparedStatement.setString(3, today.plusDays(i / doctors).toString());
+                preparedStatement.addBatch();
+                if ((i + 1) % 1000 == 0) {
+                    preparedStatement.executeBatch();
+                    connection.commit();
+                }
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package HospitalManagementSystem.perf;
+
+import HospitalManagementSystem.HospitalManagementSystem;
+import HospitalManagementSystem.Metrics;
+import HospitalManagementSystem.OperationMetrics;
+
+import java.awt.GraphicsEnvironment;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-starts the application in fresh JVMs and reports, from process start, when the main frame
+ * was shown, when the database was connected, migrated and validated, and when the dashboard's
+ * first query landed. Staged startup (the default) is compared with {@code hms.startup.staged=false},
+ * which connects before showing the frame. Runs against an H2 file database in a temporary
+ * directory unless {@code hms.jdbc.url} is set; the first run of each mode is a discarded warm-up
+ * (it also creates the schema).
+ *
+ * <p>Usage: {@code StartupHarness [runs]}. Needs a display.
+ */
+public class StartupHarness {
+    private static final String CHILD = "--child";
+    private static final String[] STAGES = {"startup.firstFrame", "startup.databaseReady", "startup.firstQuery"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals(CHILD)) {
+            runChild();
+            return;
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("StartupHarness shows the application window and needs a display.");
+            System.exit(2);
+        }
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path directory = Files.createTempDirectory("hms-startup");
+        String url = System.getProperty("hms.jdbc.url",
+                "jdbc:h2:file:" + directory.resolve("hospital") + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+
+        Map<String, double[]> medians = new TreeMap<>();
+        for (String staged : new String[]{"true", "false"}) {
+            launch(url, directory, staged);
+            double[][] samples = new double[STAGES.length][runs];
+            for (int run = 0; run < runs; run++) {
+                double[] timings = launch(url, directory, staged);
+                for (int stage = 0; stage < STAGES.length; stage++) {
+                    samples[stage][run] = timings[stage];
+                }
+            }
+            double[] median = new double[STAGES.length];
+            for (int stage = 0; stage < STAGES.length; stage++) {
+                Arrays.sort(samples[stage]);
+                median[stage] = samples[stage][runs / 2];
+            }
+            medians.put(staged.equals("true") ? "staged" : "blocking", median);
+        }
+        System.out.printf("Median of %d cold starts, ms from process start:%n", runs);
+        System.out.printf("%-10s %12s %12s %12s%n", "mode", "first frame", "db ready", "first query");
+        medians.forEach((mode, median) ->
+                System.out.printf("%-10s %12.0f %12.0f %12.0f%n", mode, median[0], median[1], median[2]));
+    }
+
+    // One timed start: the child prints its stage timings and exits
+    private static double[] launch(String url, Path directory, String staged) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", classPath(),
+                "-Dhms.jdbc.url=" + url,
+                "-Dhms.eventlog.dir=" + directory.resolve("eventlog"),
+                "-Dhms.offline.dir=" + directory.resolve("offline"),
+                "-Dhms.startup.staged=" + staged));
+        for (String property : new String[]{"hms.jdbc.username", "hms.jdbc.password"}) {
+            if (System.getProperty(property) != null) {
+                command.add("-D" + property + "=" + System.getProperty(property));
+            }
+        }
+        command.add(StartupHarness.class.getName());
+        command.add(CHILD);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        double[] timings = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("STARTUP ")) {
+                    timings = Arrays.stream(line.substring(8).split(" ")).mapToDouble(Double::parseDouble).toArray();
+                }
+            }
+        }
+        if (!process.waitFor(2, TimeUnit.MINUTES) || process.exitValue() != 0 || timings == null) {
+            throw new IllegalStateException("Startup run failed (staged=" + staged + ")");
+        }
+        return timings;
+    }
+
+    // Locations of this harness, the application and both JDBC drivers
+    private static String classPath() {
+        List<String> entries = new ArrayList<>();
+        for (String className : new String[]{StartupHarness.class.getName(), HospitalManagementSystem.class.getName(),
+                "org.h2.Driver", "com.mysql.cj.jdbc.Driver"}) {
+            try {
+                String entry = Path.of(Class.forName(className).getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+                if (!entries.contains(entry)) {
+                    entries.add(entry);
+                }
+            } catch (ReflectiveOperationException | java.net.URISyntaxException e) {
+                throw new IllegalStateException("Cannot locate " + className, e);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static void runChild() throws InterruptedException {
+        HospitalManagementSystem.main(new String[0]);
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (System.nanoTime() < deadline) {
+            double[] timings = new double[STAGES.length];
+            boolean complete = true;
+            for (int stage = 0; stage < STAGES.length; stage++) {
+                OperationMetrics operation = Metrics.action(STAGES[stage], "");
+                complete &= operation.getCount() > 0;
+                timings[stage] = operation.getMaxMillis();
+            }
+            if (complete) {
+                System.out.printf("STARTUP %.1f %.1f %.1f%n", timings[0], timings[1], timings[2]);
+                System.exit(0);
+            }
+            Thread.sleep(5);
+        }
+        System.exit(1);
+    }
+}
@@ -0,0 +1,112 @@
+package HospitalManagementSystem.perf;
+
+import HospitalManagementSystem.AppointmentService;
+import HospitalManagementSystem.AvailabilityIndex;
+import HospitalManagementSystem.ConnectionPool;
+import HospitalManagementSystem.Doctor;
+import HospitalManagementSystem.Patient;
+import HospitalManagementSystem.PoolMetrics;
+import HospitalManagementSystem.SchedulingEngine;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the Patient, Doctor and AppointmentService read paths for a long run and checks that
+ * open statements and process file handles stay flat, i.e. that nothing leaks per call.
+ *
+ * <p>Usage: {@code StatementSoakHarness [calls] [threads]}. Exits with status 1 if either count grows.
+ */
+public class StatementSoakHarness {
+    private static final int PATIENTS = 10_000;
+    private static final int DOCTORS = 50;
+    private static final long WARMUP_CALLS = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        long calls = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        // Every lookup has to reach the database, otherwise the caches would hide a leak
+        System.setProperty("hms.cache.ttlSeconds", "0");
+
+        try (ConnectionPool pool = PerfDatabase.open(threads)) {
+            PerfDatabase.createSchema(pool);
+            PerfDatabase.seedPatients(pool, PATIENTS);
+            PerfDatabase.seedDoctors(pool, DOCTORS);
+            Patient patient = new Patient(pool);
+            Doctor doctor = new Doctor(pool);
+            SchedulingEngine engine = new SchedulingEngine(pool, doctor, new AvailabilityIndex());
+            engine.reload();
+            AppointmentService appointments = new AppointmentService(pool, engine);
+            String today = LocalDate.now().toString();
+
+            AtomicLong completed = new AtomicLong();
+            long[] baseline = new long[2];
+            long reportEvery = Math.max(1, calls / 10);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            Future<?>[] workers = new Future<?>[threads];
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                workers[t] = executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long done;
+                    while ((done = completed.incrementAndGet()) <= calls) {
+                        int id = 1 + random.nextInt(PATIENTS);
+                        switch ((int) (done % 5)) {
+                            case 0 -> patient.getPatientById(id);
+                            case 1 -> doctor.getDoctorById(1 + id % DOCTORS);
+                            case 2 -> patient.viewPatientsPage(id, 10);
+                            case 3 -> patient.searchPatients("Patient " + id, null, null, null, 10, 10, batch -> { });
+                            default -> appointments.isDoctorAvailable(1 + id % DOCTORS, today);
+                        }
+                        if (done == WARMUP_CALLS) {
+                            baseline[0] = pool.getMetrics().getOpenStatements();
+                            baseline[1] = openFileDescriptors();
+                        }
+                        if (done % reportEvery == 0) {
+                            report(done, pool.getMetrics());
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            executor.shutdown();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d calls in %.1f s (%.0f calls/s)%n", calls, seconds, calls / seconds);
+
+            PoolMetrics metrics = pool.getMetrics();
+            long fds = openFileDescriptors();
+            System.out.println(metrics);
+            System.out.println("Open statements: " + baseline[0] + " after warm-up, " + metrics.getOpenStatements() + " at end");
+            System.out.println("Open file descriptors: " + baseline[1] + " after warm-up, " + fds + " at end");
+            if (calls > WARMUP_CALLS && (metrics.getOpenStatements() > baseline[0] || (fds >= 0 && fds > baseline[1] + 5))) {
+                System.err.println("FAILED: resource counts grew during the run.");
+                System.exit(1);
+            }
+        }
+        System.out.println("OK: statement and handle counts stayed flat.");
+    }
+
+    private static void report(long done, PoolMetrics metrics) {
+        System.out.printf("%,d calls: openStatements=%d, stmtCacheHits=%d, stmtCacheMisses=%d, fds=%d%n", done,
+                metrics.getOpenStatements(), metrics.getStatementCacheHits(), metrics.getStatementCacheMisses(),
+                openFileDescriptors());
+    }
+
+    // -1 where the platform does not expose it
+    private static long openFileDescriptors() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.UnixOperatingSystemMXBean) {
+            return ((com.sun.management.UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,24 @@
+-- Base schema. IF NOT EXISTS lets the first migration run against a database whose tables were
+-- created by hand before migrations existed.
+
+CREATE TABLE IF NOT EXISTS patients (
+    id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    age INT NOT NULL,
+    gender VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS doctors (
+    id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    specialization VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS appointments (
+    id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    patient_id INT NOT NULL,
+    doctor_id INT NOT NULL,
+    appointment_date DATE NOT NULL,
+    CONSTRAINT fk_appointments_patient FOREIGN KEY (patient_id) REFERENCES patients (id),
+    CONSTRAINT fk_appointments_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id)
+);
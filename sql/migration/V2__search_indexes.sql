@@ -0,0 +1,14 @@
+-- Indexes backing Patient.searchPatients and Doctor.searchDoctors.
+
+-- Name prefix search (name LIKE 'abc%') is an index range scan.
+CREATE INDEX idx_patients_name ON patients (name);
+
+-- Gender equality plus an age range, and age-only ranges via idx_patients_age.
+CREATE INDEX idx_patients_gender_age ON patients (gender, age);
+CREATE INDEX idx_patients_age ON patients (age);
+
+CREATE INDEX idx_doctors_name ON doctors (name);
+
+-- Specialization is matched with LIKE '%text%', which cannot seek a B-tree. The doctor roster is
+-- small, so a scan of this narrow index is cheaper than a scan of the table.
+CREATE INDEX idx_doctors_specialization ON doctors (specialization);
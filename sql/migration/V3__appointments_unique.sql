@@ -0,0 +1,7 @@
+-- One appointment per doctor per day, enforced by the database (AppointmentService relies on it).
+
+-- Existing double bookings must be resolved before the constraint can be added:
+-- SELECT doctor_id, appointment_date, COUNT(*) FROM appointments
+--  GROUP BY doctor_id, appointment_date HAVING COUNT(*) > 1
+
+ALTER TABLE appointments ADD CONSTRAINT uq_appointments_doctor_date UNIQUE (doctor_id, appointment_date);
@@ -0,0 +1,8 @@
+-- Registration time, so the dashboard can count patients registered today.
+-- Patients that existed before this migration have no known registration time.
+ALTER TABLE patients ADD COLUMN created_at TIMESTAMP NULL DEFAULT CURRENT_TIMESTAMP;
+UPDATE patients SET created_at = NULL;
+CREATE INDEX idx_patients_created_at ON patients (created_at);
+
+-- The dashboard seeds its per-day booking counts with a range scan over the coming week.
+CREATE INDEX idx_appointments_date ON appointments (appointment_date);
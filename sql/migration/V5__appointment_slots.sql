@@ -0,0 +1,17 @@
+-- Appointments become time slots: a doctor can be booked once per slot instead of once per day.
+-- Existing rows get the first slot of the default working day.
+
+ALTER TABLE appointments ADD COLUMN appointment_time TIME NOT NULL DEFAULT '09:00:00';
+
+-- The new key is added before the old one is dropped so MySQL always has an index for the doctor foreign key
+ALTER TABLE appointments ADD CONSTRAINT uq_appointments_doctor_slot UNIQUE (doctor_id, appointment_date, appointment_time);
+ALTER TABLE appointments DROP CONSTRAINT uq_appointments_doctor_date;
+
+-- Per-doctor slot length and working hours; doctors without a row use the hms.schedule.* defaults
+CREATE TABLE IF NOT EXISTS doctor_schedules (
+    doctor_id INT NOT NULL PRIMARY KEY,
+    slot_minutes INT NOT NULL,
+    work_start TIME NOT NULL,
+    work_end TIME NOT NULL,
+    CONSTRAINT fk_doctor_schedules_doctor FOREIGN KEY (doctor_id) REFERENCES doctors(id)
+);
@@ -0,0 +1,17 @@
+-- Database copy of the audit event log (see EventLog), filled in batches by EventLogMirror.
+-- No foreign keys: the audit trail must outlive the rows it describes.
+
+CREATE TABLE IF NOT EXISTS audit_events (
+    sequence BIGINT NOT NULL PRIMARY KEY,
+    recorded_at TIMESTAMP(3) NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    actor VARCHAR(255) NOT NULL,
+    patient_id INT NULL,
+    doctor_id INT NULL,
+    appointment_date DATE NULL,
+    appointment_time TIME NULL,
+    detail VARCHAR(255) NULL
+);
+
+-- "Who touched this patient" lookups
+CREATE INDEX idx_audit_events_patient ON audit_events (patient_id);
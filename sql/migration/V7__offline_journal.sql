@@ -0,0 +1,8 @@
+-- Reference of the offline journal entry (see OfflineJournal) that created the row, so an entry
+-- replayed twice is recognised instead of inserted again. NULL for rows written online.
+
+ALTER TABLE patients ADD COLUMN offline_ref CHAR(36) NULL;
+CREATE UNIQUE INDEX uq_patients_offline_ref ON patients (offline_ref);
+
+ALTER TABLE appointments ADD COLUMN offline_ref CHAR(36) NULL;
+CREATE UNIQUE INDEX uq_appointments_offline_ref ON appointments (offline_ref);
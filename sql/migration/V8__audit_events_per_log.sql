@@ -0,0 +1,8 @@
+-- Every EventLog numbers its events from 1, so events mirrored from different logs (e.g. two
+-- instances) collided on the sequence key. Rows are now keyed by the log they came from (see
+-- EventLog.getLogId). Rows mirrored before this migration keep an empty log id; their logs get an
+-- id on next open and are mirrored again from the start under it.
+
+ALTER TABLE audit_events ADD COLUMN log_id CHAR(36) NOT NULL DEFAULT '';
+ALTER TABLE audit_events DROP PRIMARY KEY;
+ALTER TABLE audit_events ADD PRIMARY KEY (log_id, sequence);
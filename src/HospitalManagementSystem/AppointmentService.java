@@ -0,0 +1,204 @@
+package HospitalManagementSystem;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Appointment booking in time slots. The {@link SchedulingEngine} picks and holds a slot in memory,
+ * but double-booking is prevented by the database, not by that check: the unique key on
+ * {@code appointments(doctor_id, appointment_date, appointment_time)} (see sql/migration/V5__appointment_slots.sql)
+ * rejects the second insert for the same doctor and slot, including one made by another process.
+ */
+public class AppointmentService {
+    private static final String BOOK_QUERY =
+            "INSERT INTO appointments(patient_id, doctor_id, appointment_date, appointment_time) "
+                    + "SELECT p.id, d.id, ?, ? FROM patients p, doctors d WHERE p.id = ? AND d.id = ?";
+    private static final String EXISTS_QUERY =
+            "SELECT (SELECT COUNT(*) FROM patients WHERE id = ?), (SELECT COUNT(*) FROM doctors WHERE id = ?)";
+
+    private static final OperationMetrics BOOK = Metrics.query("appointment.book", BOOK_QUERY);
+
+    private ConnectionPool pool;
+    private final SchedulingEngine schedulingEngine;
+    private volatile OfflineJournal offlineJournal;
+    private final List<HospitalEventListener> listeners = new CopyOnWriteArrayList<>();
+
+    public AppointmentService(ConnectionPool pool, SchedulingEngine schedulingEngine) {
+        this.pool = pool;
+        this.schedulingEngine = schedulingEngine;
+    }
+
+    // Queues bookings in the journal while the database is unreachable; they hold their slot meanwhile
+    public void setOfflineJournal(OfflineJournal offlineJournal) {
+        this.offlineJournal = offlineJournal;
+    }
+
+    public SchedulingEngine getSchedulingEngine() {
+        return schedulingEngine;
+    }
+
+    // Books the doctor's first free slot on the date
+    public BookingResult bookAppointment(int patientId, int doctorId, String appointmentDate) throws SQLException {
+        LocalDate date = LocalDate.parse(appointmentDate);
+        while (true) {
+            AppointmentSlot slot = schedulingEngine.firstFreeSlot(doctorId, date.atStartOfDay());
+            if (slot == null || !slot.date().equals(date)) {
+                return notifyListeners(patientId, doctorId, date, null, BookingResult.DOCTOR_UNAVAILABLE);
+            }
+            // Lost the slot to another booking; it is marked taken now, so the next search moves on
+            BookingResult result = bookSlot(patientId, doctorId, date, slot.time());
+            if (result != BookingResult.DOCTOR_UNAVAILABLE) {
+                return notifyListeners(patientId, doctorId, date, slot.time(), result);
+            }
+        }
+    }
+
+    /**
+     * Books one slot. The slot is held in the scheduling engine first, so concurrent bookings in
+     * this process do not race to the database for it, and is given back if the insert fails for
+     * any reason other than the slot being taken.
+     */
+    public BookingResult bookAppointment(int patientId, int doctorId, LocalDate date, LocalTime time) throws SQLException {
+        return notifyListeners(patientId, doctorId, date, time, bookSlot(patientId, doctorId, date, time));
+    }
+
+    private BookingResult bookSlot(int patientId, int doctorId, LocalDate date, LocalTime time) throws SQLException {
+        // Before reserving, so made-up doctor ids do not leave calendars behind
+        if (!schedulingEngine.isKnownDoctor(doctorId)) {
+            return BookingResult.UNKNOWN_DOCTOR;
+        }
+        if (!schedulingEngine.isSlotStart(doctorId, time)) {
+            return BookingResult.INVALID_SLOT;
+        }
+        if (!schedulingEngine.reserve(doctorId, date, time)) {
+            return BookingResult.DOCTOR_UNAVAILABLE;
+        }
+        OfflineJournal journal = offlineJournal;
+        if (journal != null && pool.isOffline()) {
+            return queue(journal, patientId, doctorId, date, time);
+        }
+        BookingResult result;
+        try {
+            result = insert(patientId, doctorId, date, time);
+        } catch (SQLException e) {
+            if (journal != null && ConnectionPool.isConnectionFailure(e)) {
+                pool.markOffline();
+                return queue(journal, patientId, doctorId, date, time);
+            }
+            schedulingEngine.release(doctorId, date, time);
+            throw e;
+        } catch (RuntimeException e) {
+            schedulingEngine.release(doctorId, date, time);
+            throw e;
+        }
+        if (result == BookingResult.UNKNOWN_PATIENT || result == BookingResult.UNKNOWN_DOCTOR) {
+            schedulingEngine.release(doctorId, date, time);
+        }
+        return result;
+    }
+
+    // Keeps the reserved slot for the queued booking; the OfflineReconciler reports how it ends
+    private BookingResult queue(OfflineJournal journal, int patientId, int doctorId, LocalDate date, LocalTime time)
+            throws SQLException {
+        try {
+            journal.appendBooking(patientId, doctorId, date, time);
+            return BookingResult.QUEUED;
+        } catch (IOException e) {
+            schedulingEngine.release(doctorId, date, time);
+            throw new SQLException("The database is unreachable and the booking could not be queued.", e);
+        }
+    }
+
+    /**
+     * Inserts in a single auto-committed statement. The insert only produces a row when both the
+     * patient and the doctor exist, and a duplicate key means the slot is already taken. A second
+     * round trip is made only when nothing was inserted, to say which id was unknown.
+     */
+    private BookingResult insert(int patientId, int doctorId, LocalDate date, LocalTime time) throws SQLException {
+        long start = BOOK.start();
+        try (Connection connection = pool.getConnection()) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(BOOK_QUERY)) {
+                preparedStatement.setDate(1, Date.valueOf(date));
+                preparedStatement.setTime(2, Time.valueOf(time));
+                preparedStatement.setInt(3, patientId);
+                preparedStatement.setInt(4, doctorId);
+                if (preparedStatement.executeUpdate() > 0) {
+                    BOOK.success(start, 1);
+                    return BookingResult.BOOKED;
+                }
+            } catch (SQLException e) {
+                if (isUniqueViolation(e)) {
+                    BOOK.success(start, 0);
+                    return BookingResult.DOCTOR_UNAVAILABLE;
+                }
+                throw e;
+            }
+            try (PreparedStatement preparedStatement = connection.prepareStatement(EXISTS_QUERY)) {
+                preparedStatement.setInt(1, patientId);
+                preparedStatement.setInt(2, doctorId);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    resultSet.next();
+                    BOOK.success(start, 0);
+                    return resultSet.getInt(1) == 0 ? BookingResult.UNKNOWN_PATIENT : BookingResult.UNKNOWN_DOCTOR;
+                }
+            }
+        } catch (SQLException e) {
+            BOOK.failure(start);
+            throw e;
+        }
+    }
+
+    public void addListener(HospitalEventListener listener) {
+        listeners.add(listener);
+    }
+
+    // Whether the doctor has a free slot left on the date
+    public boolean isDoctorAvailable(int doctorId, String appointmentDate) {
+        LocalDate date = LocalDate.parse(appointmentDate);
+        AppointmentSlot slot = schedulingEngine.firstFreeSlot(doctorId, date.atStartOfDay());
+        return slot != null && slot.date().equals(date);
+    }
+
+    public boolean isDoctorAvailable(int doctorId, LocalDate date, LocalTime time) {
+        return schedulingEngine.isSlotStart(doctorId, time) && schedulingEngine.isFree(doctorId, date, time);
+    }
+
+    // Outcome of a queued booking once the OfflineReconciler has replayed it
+    void completeQueued(int patientId, int doctorId, LocalDate date, LocalTime time, BookingResult result) {
+        if (result == BookingResult.UNKNOWN_PATIENT || result == BookingResult.UNKNOWN_DOCTOR) {
+            schedulingEngine.release(doctorId, date, time);
+        }
+        notifyListeners(patientId, doctorId, date, time, result);
+    }
+
+    // Reports the final outcome of a booking request once, not each slot tried on the way; a queued
+    // booking is reported when it is replayed
+    private BookingResult notifyListeners(int patientId, int doctorId, LocalDate date, LocalTime time, BookingResult result) {
+        if (result == BookingResult.QUEUED) {
+            return result;
+        }
+        for (HospitalEventListener listener : listeners) {
+            if (result == BookingResult.BOOKED) {
+                listener.appointmentBooked(patientId, doctorId, date, time);
+                continue;
+            }
+            listener.appointmentRejected(patientId, doctorId, date, time, result);
+        }
+        return result;
+    }
+
+    // SQLState class 23 is an integrity constraint violation; MySQL reports 23000, H2 reports 23505
+    private static boolean isUniqueViolation(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("23");
+    }
+}
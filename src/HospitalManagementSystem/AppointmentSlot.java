@@ -0,0 +1,10 @@
+package HospitalManagementSystem;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A bookable slot: the doctor and the date and start time of the appointment.
+ */
+public record AppointmentSlot(int doctorId, LocalDate date, LocalTime time) {
+}
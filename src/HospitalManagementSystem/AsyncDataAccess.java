@@ -0,0 +1,89 @@
+package HospitalManagementSystem;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link Patient} and {@link Doctor} queries off the Swing EDT. Cancelling a returned
+ * future interrupts the worker running it.
+ */
+public class AsyncDataAccess implements AutoCloseable {
+    private final Patient patient;
+    private final Doctor doctor;
+    private final ExecutorService executor;
+
+    public AsyncDataAccess(Patient patient, Doctor doctor, int fallbackThreads) {
+        this.patient = patient;
+        this.doctor = doctor;
+        this.executor = createExecutor("data-access", fallbackThreads);
+    }
+
+    public CompletableFuture<List<PatientRecord>> viewPatients() {
+        return submit(patient::viewPatients);
+    }
+
+    public CompletableFuture<List<DoctorRecord>> viewDoctors() {
+        return submit(doctor::viewDoctors);
+    }
+
+    // Completes with the new id, 0 if the patient was queued offline, or -1 on failure
+    public CompletableFuture<Integer> createPatient(String name, int age, String gender) {
+        return submit(() -> patient.createPatient(name, age, gender));
+    }
+
+    public CompletableFuture<Integer> searchPatients(String namePrefix, Integer minAge, Integer maxAge, String gender,
+                                                     int batchSize, int maxResults, Consumer<List<PatientRecord>> batchConsumer) {
+        return submit(() -> patient.searchPatients(namePrefix, minAge, maxAge, gender, batchSize, maxResults, batchConsumer));
+    }
+
+    public CompletableFuture<Integer> searchDoctors(String namePrefix, String specialization, int batchSize,
+                                                    int maxResults, Consumer<List<DoctorRecord>> batchConsumer) {
+        return submit(() -> doctor.searchDoctors(namePrefix, specialization, batchSize, maxResults, batchConsumer));
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = executor.submit(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // Virtual threads when the runtime has them, otherwise a small pool of daemon threads
+    static ExecutorService createExecutor(String threadName, int fallbackThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory threadFactory = r -> {
+                Thread t = new Thread(r, threadName + "-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+            return Executors.newFixedThreadPool(Math.max(1, fallbackThreads), threadFactory);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package HospitalManagementSystem;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One entry of the {@link EventLog}: what happened, when, and which user of the application did it.
+ * Fields an event type does not use are 0 or null; {@code detail} holds the {@link BookingResult}
+ * of a rejected booking.
+ */
+public record AuditEvent(long sequence, long recordedAtMillis, Type type, String actor, int patientId, int doctorId,
+                         LocalDate appointmentDate, LocalTime appointmentTime, String detail) {
+    public enum Type {
+        PATIENT_CREATED,
+        APPOINTMENT_BOOKED,
+        APPOINTMENT_REJECTED
+    }
+
+    AuditEvent withSequence(long newSequence) {
+        return new AuditEvent(newSequence, recordedAtMillis, type, actor, patientId, doctorId, appointmentDate,
+                appointmentTime, detail);
+    }
+
+    // Feeds the event back through the listener callbacks, e.g. to rebuild in-memory state on replay
+    public void dispatch(HospitalEventListener listener) {
+        switch (type) {
+            case PATIENT_CREATED -> listener.patientAdded(patientId);
+            case APPOINTMENT_BOOKED -> listener.appointmentBooked(patientId, doctorId, appointmentDate, appointmentTime);
+            case APPOINTMENT_REJECTED -> listener.appointmentRejected(patientId, doctorId, appointmentDate, appointmentTime,
+                    BookingResult.valueOf(detail));
+        }
+    }
+}
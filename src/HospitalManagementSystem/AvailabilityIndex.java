@@ -0,0 +1,88 @@
+package HospitalManagementSystem;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Which days each doctor is fully booked, one bit per day over a horizon of
+ * {@code hms.availability.horizonDays} (default 365) days starting at the day it was reset.
+ * Maintained by the {@link SchedulingEngine}, which sets a day's bit when its last slot is taken
+ * and clears it when a slot is released, so first-fit searches skip full days without touching the
+ * calendars.
+ *
+ * <p>The index is only a hint: the unique key on {@code appointments} still decides every
+ * booking. Dates outside the horizon, or any date before the first reset, are reported as not
+ * covered so callers can ask the database.
+ */
+public class AvailabilityIndex {
+    private static final int HORIZON_DAYS = Integer.getInteger("hms.availability.horizonDays", 365);
+    private static final int WORDS = (HORIZON_DAYS + 63) / 64;
+
+    // Guarded by this. Bit d of a doctor's set is firstDay + d.
+    private long firstDay = Long.MAX_VALUE;
+    private Map<Integer, long[]> fullDays = new HashMap<>();
+
+    // Clears every bit and starts the horizon at the given day
+    public synchronized void reset(LocalDate start) {
+        firstDay = start.toEpochDay();
+        fullDays = new HashMap<>();
+    }
+
+    public synchronized void setFull(int doctorId, LocalDate date, boolean full) {
+        int day = dayOf(date);
+        if (day < 0) {
+            return;
+        }
+        if (full) {
+            fullDays.computeIfAbsent(doctorId, id -> new long[WORDS])[day >>> 6] |= 1L << day;
+        } else {
+            long[] bits = fullDays.get(doctorId);
+            if (bits != null) {
+                bits[day >>> 6] &= ~(1L << day);
+            }
+        }
+    }
+
+    public synchronized LocalDate getFirstDay() {
+        return firstDay == Long.MAX_VALUE ? null : LocalDate.ofEpochDay(firstDay);
+    }
+
+    // Whether the index can answer for this date
+    public synchronized boolean covers(LocalDate date) {
+        return dayOf(date) >= 0;
+    }
+
+    // The first date on or after from (and not before today) that is not fully booked, or null if none is left in the horizon
+    public synchronized LocalDate nextFreeDate(int doctorId, LocalDate from) {
+        if (firstDay == Long.MAX_VALUE) {
+            return null;
+        }
+        long fromDay = Math.max(from.toEpochDay(), LocalDate.now().toEpochDay());
+        int day = (int) Math.max(0, fromDay - firstDay);
+        if (day >= HORIZON_DAYS) {
+            return null;
+        }
+        long[] bits = fullDays.get(doctorId);
+        if (bits == null) {
+            return LocalDate.ofEpochDay(firstDay + day);
+        }
+        // Scan a word at a time: the lowest clear bit at or above day is the next free day
+        int word = day >>> 6;
+        long free = ~bits[word] & (-1L << day);
+        while (free == 0 && ++word < WORDS) {
+            free = ~bits[word];
+        }
+        if (free == 0) {
+            return null;
+        }
+        int freeDay = (word << 6) + Long.numberOfTrailingZeros(free);
+        return freeDay < HORIZON_DAYS ? LocalDate.ofEpochDay(firstDay + freeDay) : null;
+    }
+
+    // Bit position of the date, or -1 if it is outside the horizon
+    private int dayOf(LocalDate date) {
+        long day = date.toEpochDay() - firstDay;
+        return day >= 0 && day < HORIZON_DAYS ? (int) day : -1;
+    }
+}
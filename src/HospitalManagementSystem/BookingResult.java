@@ -0,0 +1,24 @@
+package HospitalManagementSystem;
+
+/**
+ * Outcome of {@link AppointmentService#bookAppointment(int, int, java.time.LocalDate, java.time.LocalTime)}.
+ */
+public enum BookingResult {
+    BOOKED("Appointment Booked!"),
+    DOCTOR_UNAVAILABLE("Doctor not available at this time."),
+    INVALID_SLOT("Time is not one of the doctor's appointment slots."),
+    UNKNOWN_PATIENT("Patient doesn't exist."),
+    UNKNOWN_DOCTOR("Doctor doesn't exist."),
+    // Saved in the OfflineJournal; booked or rejected once the database is reachable again
+    QUEUED("The database is unreachable. The booking was saved and will be made when it is back.");
+
+    private final String message;
+
+    BookingResult(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,109 @@
+package HospitalManagementSystem;
+
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableModel;
+import java.awt.Component;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.Toolkit;
+import java.util.Map;
+
+/**
+ * Cell renderer for a {@link ColumnarTableModel}. Cells are read from the model's arrays rather
+ * than from the value JTable passes in, and numbers are formatted into a reused char buffer and
+ * drawn directly, so repainting allocates nothing. Other models render as with the default renderer.
+ *
+ * <p>A plain JTable still boxes every value it fetches for the renderer, so build tables with
+ * {@link #createTable}, which leaves that fetch out.
+ */
+public class ColumnarCellRenderer extends DefaultTableCellRenderer {
+    // The hints Swing itself uses for text, so numbers and names look alike
+    private static final Map<?, ?> DESKTOP_TEXT_HINTS =
+            (Map<?, ?>) Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+
+    // Long enough for Integer.MIN_VALUE
+    private final char[] digits = new char[11];
+    private final Insets insets = new Insets(0, 0, 0, 0);
+    private int digitsStart = digits.length;
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus,
+                                                   int row, int column) {
+        super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+        digitsStart = digits.length;
+        if (table.getModel() instanceof ColumnarTableModel<?> model) {
+            int modelRow = table.convertRowIndexToModel(row);
+            int modelColumn = table.convertColumnIndexToModel(column);
+            if (model.isIntColumn(modelColumn)) {
+                setText("");
+                format(model.getInt(modelRow, modelColumn));
+            } else {
+                setText(model.getText(modelRow, modelColumn));
+            }
+        }
+        return this;
+    }
+
+    // A table rendering with this renderer, which for a ColumnarTableModel skips fetching the value
+    public static JTable createTable(TableModel model) {
+        JTable table = new JTable(model) {
+            @Override
+            public Component prepareRenderer(TableCellRenderer renderer, int row, int column) {
+                if (renderer instanceof ColumnarCellRenderer columnar && getModel() instanceof ColumnarTableModel) {
+                    return prepare(this, columnar, row, column);
+                }
+                return super.prepareRenderer(renderer, row, column);
+            }
+        };
+        table.setDefaultRenderer(Object.class, new ColumnarCellRenderer());
+        return table;
+    }
+
+    // JTable.prepareRenderer, less the getValueAt call
+    private static Component prepare(JTable table, ColumnarCellRenderer renderer, int row, int column) {
+        boolean isSelected = false;
+        boolean hasFocus = false;
+        if (!table.isPaintingForPrint()) {
+            isSelected = table.isCellSelected(row, column);
+            hasFocus = table.getSelectionModel().getLeadSelectionIndex() == row
+                    && table.getColumnModel().getSelectionModel().getLeadSelectionIndex() == column
+                    && table.isFocusOwner();
+        }
+        return renderer.getTableCellRendererComponent(table, null, isSelected, hasFocus, row, column);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (digitsStart == digits.length) {
+            return;
+        }
+        if (DESKTOP_TEXT_HINTS != null && g instanceof Graphics2D graphics) {
+            graphics.addRenderingHints(DESKTOP_TEXT_HINTS);
+        }
+        g.setColor(getForeground());
+        g.setFont(getFont());
+        FontMetrics metrics = g.getFontMetrics();
+        getInsets(insets);
+        int baseline = insets.top + (getHeight() - insets.top - insets.bottom - metrics.getHeight()) / 2 + metrics.getAscent();
+        g.drawChars(digits, digitsStart, digits.length - digitsStart, insets.left, baseline);
+    }
+
+    // Writes the decimal digits right-aligned into the buffer
+    private void format(int value) {
+        long remaining = Math.abs((long) value);
+        int position = digits.length;
+        do {
+            digits[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        if (value < 0) {
+            digits[--position] = '-';
+        }
+        digitsStart = position;
+    }
+}
@@ -0,0 +1,239 @@
+package HospitalManagementSystem;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorts a {@link ColumnarTableModel} on its arrays. TableRowSorter wraps every row in an object
+ * and boxes every value it compares, which makes a click on a header of a large table stall the
+ * EDT. This sorter turns each key into an int per row (text is ranked once by the model) and sorts
+ * those as primitive longs, and merges appended rows into the existing order instead of sorting
+ * again. Ties keep model order.
+ */
+public class ColumnarRowSorter extends RowSorter<ColumnarTableModel<?>> {
+    private static final int MAX_SORT_KEYS = 3;
+
+    private final ColumnarTableModel<?> model;
+    private List<SortKey> sortKeys = List.of();
+    // The keys that order rows, as parallel arrays so comparing allocates nothing
+    private int[] keyColumns = new int[0];
+    private boolean[] keyDescending = new boolean[0];
+    // Model row of each view row, or null while unsorted
+    private int[] viewToModel;
+    // Inverse of viewToModel, built when first asked for
+    private int[] modelToView;
+
+    public ColumnarRowSorter(ColumnarTableModel<?> model) {
+        this.model = model;
+    }
+
+    @Override
+    public ColumnarTableModel<?> getModel() {
+        return model;
+    }
+
+    // The clicked column becomes the primary key; clicking it again flips its order
+    @Override
+    public void toggleSortOrder(int column) {
+        checkColumn(column);
+        List<SortKey> keys = new ArrayList<>(sortKeys);
+        if (!keys.isEmpty() && keys.get(0).getColumn() == column) {
+            SortOrder order = keys.get(0).getSortOrder() == SortOrder.ASCENDING ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+            keys.set(0, new SortKey(column, order));
+        } else {
+            keys.removeIf(key -> key.getColumn() == column);
+            keys.add(0, new SortKey(column, SortOrder.ASCENDING));
+            if (keys.size() > MAX_SORT_KEYS) {
+                keys = keys.subList(0, MAX_SORT_KEYS);
+            }
+        }
+        setSortKeys(keys);
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> newKeys = keys == null ? List.of() : List.copyOf(keys);
+        for (SortKey key : newKeys) {
+            checkColumn(key.getColumn());
+        }
+        if (newKeys.equals(sortKeys)) {
+            return;
+        }
+        sortKeys = newKeys;
+        List<SortKey> ordering = new ArrayList<>();
+        for (SortKey key : newKeys) {
+            if (key.getSortOrder() != SortOrder.UNSORTED) {
+                ordering.add(key);
+            }
+        }
+        keyColumns = new int[ordering.size()];
+        keyDescending = new boolean[ordering.size()];
+        for (int i = 0; i < ordering.size(); i++) {
+            keyColumns[i] = ordering.get(i).getColumn();
+            keyDescending[i] = ordering.get(i).getSortOrder() == SortOrder.DESCENDING;
+        }
+        fireSortOrderChanged();
+        sort();
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (viewToModel == null) {
+            checkRow(index);
+            return index;
+        }
+        return viewToModel[index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (viewToModel == null) {
+            checkRow(index);
+            return index;
+        }
+        if (modelToView == null) {
+            modelToView = new int[viewToModel.length];
+            for (int view = 0; view < viewToModel.length; view++) {
+                modelToView[viewToModel[view]] = view;
+            }
+        }
+        return modelToView[index];
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return viewToModel == null ? model.getRowCount() : viewToModel.length;
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return model.getRowCount();
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        resort();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        resort();
+    }
+
+    // Rows appended at the end are sorted on their own and merged in, which is linear in the table size
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        if (viewToModel == null) {
+            return;
+        }
+        if (firstRow != viewToModel.length || endRow != model.getRowCount() - 1) {
+            sort();
+            return;
+        }
+        int[] added = new int[endRow - firstRow + 1];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = firstRow + i;
+        }
+        ColumnarTableModel.sortRows(added, this::compare);
+        int[] merged = new int[viewToModel.length + added.length];
+        merge(viewToModel, added, merged);
+        int[] previous = viewToModel;
+        viewToModel = merged;
+        modelToView = null;
+        fireRowSorterChanged(previous);
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        resort();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        resort();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        resort();
+    }
+
+    private void resort() {
+        if (viewToModel != null) {
+            sort();
+        }
+    }
+
+    // One pass per key, least significant first. Each pass packs the key and the row's current
+    // position into a long and sorts those, so ties keep the order of the previous pass
+    private void sort() {
+        int[] previous = viewToModel;
+        if (keyColumns.length == 0) {
+            viewToModel = null;
+        } else {
+            int rowCount = model.getRowCount();
+            int[] rows = new int[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                rows[i] = i;
+            }
+            long[] packed = new long[rowCount];
+            for (int key = keyColumns.length - 1; key >= 0; key--) {
+                for (int i = 0; i < rowCount; i++) {
+                    int sortKey = model.sortKey(keyColumns[key], rows[i]);
+                    packed[i] = (long) (keyDescending[key] ? ~sortKey : sortKey) << 32 | i;
+                }
+                Arrays.parallelSort(packed);
+                int[] sorted = new int[rowCount];
+                for (int i = 0; i < rowCount; i++) {
+                    sorted[i] = rows[(int) packed[i]];
+                }
+                rows = sorted;
+            }
+            viewToModel = rows;
+        }
+        modelToView = null;
+        fireRowSorterChanged(previous);
+    }
+
+    // On ties the left run goes first, which keeps model order
+    private void merge(int[] left, int[] right, int[] target) {
+        int l = 0;
+        int r = 0;
+        int t = 0;
+        while (l < left.length && r < right.length) {
+            target[t++] = compare(right[r], left[l]) < 0 ? right[r++] : left[l++];
+        }
+        System.arraycopy(left, l, target, t, left.length - l);
+        System.arraycopy(right, r, target, t + left.length - l, right.length - r);
+    }
+
+    private int compare(int row1, int row2) {
+        for (int key = 0; key < keyColumns.length; key++) {
+            int result = model.compare(keyColumns[key], row1, row2);
+            if (result != 0) {
+                return keyDescending[key] ? -result : result;
+            }
+        }
+        return 0;
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= model.getColumnCount()) {
+            throw new IndexOutOfBoundsException("Column " + column + " is not in the model");
+        }
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= model.getRowCount()) {
+            throw new IndexOutOfBoundsException("Row " + row + " is not in the model");
+        }
+    }
+}
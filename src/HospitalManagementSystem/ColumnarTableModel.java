@@ -0,0 +1,313 @@
+package HospitalManagementSystem;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Read-only table model that stores each column in its own array instead of a row object per
+ * row. Numeric columns are {@code int[]}, and low-cardinality text (gender, specialization) is
+ * dictionary-encoded, so equal values share one String and a row costs four bytes per such column.
+ * Rows are appended on the EDT and announced with {@code fireTableRowsInserted}.
+ *
+ * <p>Use {@link ColumnarCellRenderer} to paint numbers without boxing them and
+ * {@link ColumnarRowSorter} to sort on the arrays directly.
+ */
+public class ColumnarTableModel<T> extends AbstractTableModel {
+    private static final int INITIAL_CAPACITY = 64;
+    // Runs this short are insertion-sorted
+    private static final int INSERTION_SORT_LIMIT = 16;
+
+    private final Column<T>[] columns;
+    // Per column: values of INT columns and codes of DICTIONARY columns, otherwise null
+    private final int[][] ints;
+    // Per column: values of TEXT columns, otherwise null
+    private final String[][] texts;
+    private final Dictionary[] dictionaries;
+    // Per TEXT column: sort position of each row's value, built on the first sort and dropped on any change
+    private final int[][] textRanks;
+    private int rowCount;
+
+    @SafeVarargs
+    public ColumnarTableModel(Column<T>... columns) {
+        this.columns = columns.clone();
+        this.ints = new int[columns.length][];
+        this.texts = new String[columns.length][];
+        this.dictionaries = new Dictionary[columns.length];
+        this.textRanks = new int[columns.length][];
+        for (int column = 0; column < columns.length; column++) {
+            switch (columns[column].kind) {
+                case INT -> ints[column] = new int[INITIAL_CAPACITY];
+                case TEXT -> texts[column] = new String[INITIAL_CAPACITY];
+                case DICTIONARY -> {
+                    ints[column] = new int[INITIAL_CAPACITY];
+                    dictionaries[column] = new Dictionary();
+                }
+            }
+        }
+    }
+
+    public static <T> Column<T> intColumn(String name, ToIntFunction<T> value) {
+        return new Column<>(name, Kind.INT, value, null);
+    }
+
+    public static <T> Column<T> textColumn(String name, Function<T, String> value) {
+        return new Column<>(name, Kind.TEXT, null, value);
+    }
+
+    // For columns with few distinct values; each value is stored once and rows keep its code
+    public static <T> Column<T> dictionaryColumn(String name, Function<T, String> value) {
+        return new Column<>(name, Kind.DICTIONARY, null, value);
+    }
+
+    public void append(List<T> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int first = rowCount;
+        ensureCapacity(first + rows.size());
+        for (int column = 0; column < columns.length; column++) {
+            Column<T> definition = columns[column];
+            int row = first;
+            switch (definition.kind) {
+                case INT -> {
+                    int[] values = ints[column];
+                    for (T value : rows) {
+                        values[row++] = definition.intValue.applyAsInt(value);
+                    }
+                }
+                case TEXT -> {
+                    String[] values = texts[column];
+                    for (T value : rows) {
+                        values[row++] = definition.textValue.apply(value);
+                    }
+                }
+                case DICTIONARY -> {
+                    int[] codes = ints[column];
+                    Dictionary dictionary = dictionaries[column];
+                    for (T value : rows) {
+                        codes[row++] = dictionary.encode(definition.textValue.apply(value));
+                    }
+                }
+            }
+        }
+        rowCount = first + rows.size();
+        Arrays.fill(textRanks, null);
+        fireTableRowsInserted(first, rowCount - 1);
+    }
+
+    // Keeps the arrays and dictionaries for the next fill
+    public void clear() {
+        if (rowCount == 0) {
+            return;
+        }
+        for (String[] values : texts) {
+            if (values != null) {
+                Arrays.fill(values, 0, rowCount, null);
+            }
+        }
+        rowCount = 0;
+        Arrays.fill(textRanks, null);
+        fireTableDataChanged();
+    }
+
+    public boolean isIntColumn(int column) {
+        return columns[column].kind == Kind.INT;
+    }
+
+    public int getInt(int row, int column) {
+        return ints[column][row];
+    }
+
+    public String getText(int row, int column) {
+        Column<T> definition = columns[column];
+        switch (definition.kind) {
+            case INT:
+                return String.valueOf(ints[column][row]);
+            case TEXT:
+                return texts[column][row];
+            default:
+                return dictionaries[column].values.get(ints[column][row]);
+        }
+    }
+
+    // Orders two rows by one column: numbers numerically, text case-insensitively with nulls first
+    int compare(int column, int row1, int row2) {
+        switch (columns[column].kind) {
+            case INT:
+                return Integer.compare(ints[column][row1], ints[column][row2]);
+            case TEXT:
+                return compareText(texts[column][row1], texts[column][row2]);
+            default:
+                int[] ranks = dictionaries[column].ranks();
+                return Integer.compare(ranks[ints[column][row1]], ranks[ints[column][row2]]);
+        }
+    }
+
+    // A number that orders rows as compare() does; text columns are ranked once and then reuse the ranks
+    int sortKey(int column, int row) {
+        switch (columns[column].kind) {
+            case INT:
+                return ints[column][row];
+            case TEXT:
+                if (textRanks[column] == null) {
+                    textRanks[column] = rankText(column);
+                }
+                return textRanks[column][row];
+            default:
+                return dictionaries[column].ranks()[ints[column][row]];
+        }
+    }
+
+    // Stable sort of row numbers by the given order; ties keep their current order
+    static void sortRows(int[] rows, IntBinaryOperator order) {
+        mergeSort(rows, rows.clone(), 0, rows.length, order);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column].name;
+    }
+
+    // Boxes numbers; ColumnarCellRenderer and ColumnarRowSorter read the arrays instead
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return isIntColumn(columnIndex) ? Integer.valueOf(ints[columnIndex][rowIndex]) : getText(rowIndex, columnIndex);
+    }
+
+    private void ensureCapacity(int capacity) {
+        for (int column = 0; column < columns.length; column++) {
+            if (ints[column] != null && ints[column].length < capacity) {
+                ints[column] = Arrays.copyOf(ints[column], Math.max(capacity, ints[column].length * 2));
+            }
+            if (texts[column] != null && texts[column].length < capacity) {
+                texts[column] = Arrays.copyOf(texts[column], Math.max(capacity, texts[column].length * 2));
+            }
+        }
+    }
+
+    // Equal values share a rank
+    private int[] rankText(int column) {
+        String[] values = texts[column];
+        int[] rows = new int[rowCount];
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = row;
+        }
+        sortRows(rows, (row1, row2) -> compareText(values[row1], values[row2]));
+        int[] ranks = new int[rowCount];
+        int rank = 0;
+        for (int i = 1; i < rows.length; i++) {
+            if (compareText(values[rows[i - 1]], values[rows[i]]) != 0) {
+                rank++;
+            }
+            ranks[rows[i]] = rank;
+        }
+        return ranks;
+    }
+
+    // Sorts rows[from, to) into rows using buffer, which must hold the same values in that range
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, IntBinaryOperator order) {
+        if (to - from <= INSERTION_SORT_LIMIT) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i;
+                while (j > from && order.applyAsInt(rows[j - 1], row) > 0) {
+                    rows[j] = rows[j - 1];
+                    j--;
+                }
+                rows[j] = row;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        // Sort each half of buffer, then merge them back into rows
+        mergeSort(buffer, rows, from, middle, order);
+        mergeSort(buffer, rows, middle, to, order);
+        if (order.applyAsInt(buffer[middle - 1], buffer[middle]) <= 0) {
+            System.arraycopy(buffer, from, rows, from, to - from);
+            return;
+        }
+        int left = from;
+        int right = middle;
+        int target = from;
+        while (left < middle && right < to) {
+            rows[target++] = order.applyAsInt(buffer[right], buffer[left]) < 0 ? buffer[right++] : buffer[left++];
+        }
+        System.arraycopy(buffer, left, rows, target, middle - left);
+        System.arraycopy(buffer, right, rows, target + middle - left, to - right);
+    }
+
+    private static int compareText(String text1, String text2) {
+        if (text1 == null || text2 == null) {
+            return text1 == null ? (text2 == null ? 0 : -1) : 1;
+        }
+        return String.CASE_INSENSITIVE_ORDER.compare(text1, text2);
+    }
+
+    private enum Kind {
+        INT, TEXT, DICTIONARY
+    }
+
+    public static final class Column<T> {
+        private final String name;
+        private final Kind kind;
+        private final ToIntFunction<T> intValue;
+        private final Function<T, String> textValue;
+
+        private Column(String name, Kind kind, ToIntFunction<T> intValue, Function<T, String> textValue) {
+            this.name = name;
+            this.kind = kind;
+            this.intValue = intValue;
+            this.textValue = textValue;
+        }
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        // Sort position of each code, rebuilt when a value is added
+        private int[] ranks;
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                ranks = null;
+            }
+            return code;
+        }
+
+        int[] ranks() {
+            if (ranks == null) {
+                Integer[] byValue = new Integer[values.size()];
+                for (int code = 0; code < byValue.length; code++) {
+                    byValue[code] = code;
+                }
+                Arrays.sort(byValue, (code1, code2) -> compareText(values.get(code1), values.get(code2)));
+                ranks = new int[byValue.length];
+                for (int rank = 0; rank < byValue.length; rank++) {
+                    ranks[byValue[rank]] = rank;
+                }
+            }
+            return ranks;
+        }
+    }
+}
@@ -0,0 +1,579 @@
+package HospitalManagementSystem;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool. Connections handed out by {@link #getConnection()} are
+ * proxies whose {@code close()} returns the physical connection to the pool, so callers
+ * simply use try-with-resources.
+ *
+ * <p>Each physical connection also keeps an LRU of prepared statements. Closing a statement
+ * obtained through {@code prepareStatement(sql)} or {@code prepareStatement(sql, autoGeneratedKeys)}
+ * parks it for the next caller with the same SQL instead of closing it on the server.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final long VALIDATION_SKIP_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 15_000;
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("hms.pool.statementCacheSize", 64);
+    // Capturing a stack trace per borrow is too slow to leave on; leaks are still reported without one
+    private static final boolean LEAK_TRACES = Boolean.getBoolean("hms.pool.leakTraces");
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int reconnectAttempts;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledEntry> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+    // Set by callers that can work without the database; borrowing then fails fast until probe() succeeds
+    private volatile boolean offline;
+
+    // Metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder reconnectCount = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final AtomicInteger openStatements = new AtomicInteger();
+
+    public ConnectionPool(String url, String username, String password, int maxSize) {
+        this(url, username, password, maxSize, 1, 5_000, 300_000, 60_000, 3);
+    }
+
+    public ConnectionPool(String url, String username, String password, int maxSize, int minIdle,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          int reconnectAttempts) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive.");
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.reconnectAttempts = Math.max(1, reconnectAttempts);
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_PERIOD_MILLIS,
+                HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        if (offline) {
+            throw new SQLTransientConnectionException("The database is unreachable; working offline.", "08001");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.increment();
+                throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledEntry entry;
+            // LIFO so the warmest connection is reused first and cold ones can age out
+            while ((entry = idle.pollFirst()) != null) {
+                if (isUsable(entry)) {
+                    break;
+                }
+                validationFailures.increment();
+                destroy(entry);
+            }
+            if (entry == null) {
+                entry = create();
+            }
+            entry.borrowedAt = System.currentTimeMillis();
+            entry.borrowSite = LEAK_TRACES ? new Throwable("Connection borrowed here") : null;
+            entry.leakReported = false;
+            active.add(entry);
+            borrowCount.increment();
+            return entry.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    // Stops handing out connections so callers switch to their offline path instead of waiting on timeouts
+    public void markOffline() {
+        if (offline) {
+            return;
+        }
+        offline = true;
+        System.err.println("Database unreachable, working offline.");
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    // One connection attempt past the offline gate; if it succeeds the pool is back online
+    public boolean probe() {
+        if (closed) {
+            return false;
+        }
+        try {
+            Connection physical = DriverManager.getConnection(url, username, password);
+            if (!physical.isValid(2)) {
+                physical.close();
+                return false;
+            }
+            createdCount.increment();
+            reconnectCount.increment();
+            PooledEntry entry = new PooledEntry(physical);
+            // Keep it for the next borrow unless the pool is already at its size
+            if (idle.size() + active.size() < maxSize) {
+                idle.offerFirst(entry);
+            } else {
+                destroy(entry);
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+        if (offline) {
+            offline = false;
+            System.err.println("Database reachable again, back online.");
+        }
+        return true;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public PoolMetrics getMetrics() {
+        long borrows = borrowCount.sum();
+        return new PoolMetrics(maxSize, active.size(), idle.size(), borrows, borrowTimeouts.sum(),
+                borrows == 0 ? 0 : totalWaitNanos.sum() / borrows, maxWaitNanos.get(),
+                createdCount.sum(), destroyedCount.sum(), validationFailures.sum(),
+                reconnectCount.sum(), leaksDetected.sum(), statementCacheHits.sum(), statementCacheMisses.sum(),
+                openStatements.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+        for (PooledEntry busy : active) {
+            busy.broken = true; // closed when it is returned
+        }
+    }
+
+    private boolean isUsable(PooledEntry entry) {
+        try {
+            if (entry.physical.isClosed()) {
+                return false;
+            }
+            // Skip the round trip for connections that were in use a moment ago
+            if (System.nanoTime() - entry.lastUsedNanos < VALIDATION_SKIP_NANOS) {
+                return true;
+            }
+            return entry.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledEntry create() throws SQLException {
+        SQLException last = null;
+        long backoff = 100;
+        for (int attempt = 1; attempt <= reconnectAttempts; attempt++) {
+            try {
+                Connection physical = DriverManager.getConnection(url, username, password);
+                createdCount.increment();
+                if (attempt > 1) {
+                    reconnectCount.increment();
+                }
+                return new PooledEntry(physical);
+            } catch (SQLException e) {
+                last = e;
+                if (attempt < reconnectAttempts) {
+                    try {
+                        Thread.sleep(backoff);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    backoff *= 2;
+                }
+            }
+        }
+        throw last;
+    }
+
+    private void release(PooledEntry entry) {
+        active.remove(entry);
+        try {
+            if (closed || entry.broken || entry.physical.isClosed()) {
+                destroy(entry);
+                return;
+            }
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            entry.lastUsedNanos = System.nanoTime();
+            entry.idleSince = System.currentTimeMillis();
+            entry.borrowSite = null;
+            idle.offerFirst(entry);
+        } catch (SQLException e) {
+            destroy(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledEntry entry) {
+        destroyedCount.increment();
+        for (CachedStatement statement : entry.statements.values()) {
+            statement.closePhysical();
+        }
+        entry.statements.clear();
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            // Already gone; nothing else to release
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        // Idle eviction from the cold end of the deque, keeping minIdle around
+        Iterator<PooledEntry> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > minIdle) {
+            PooledEntry entry = it.next();
+            if (now - entry.idleSince > idleTimeoutMillis && idle.remove(entry)) {
+                destroy(entry);
+            }
+        }
+        // Leak detection
+        for (PooledEntry entry : active) {
+            if (!entry.leakReported && now - entry.borrowedAt > leakThresholdMillis) {
+                entry.leakReported = true;
+                leaksDetected.increment();
+                System.err.println("Possible connection leak: connection held for "
+                        + (now - entry.borrowedAt) + " ms.");
+                Throwable site = entry.borrowSite;
+                if (site != null) {
+                    site.printStackTrace();
+                } else {
+                    System.err.println("Run with -Dhms.pool.leakTraces=true to see where it was borrowed.");
+                }
+            }
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    // SQLState class 08 is a connection exception; drivers also flag lost connections by type
+    // (MySQL's CommunicationsException is recoverable, H2's is a non-transient connection exception)
+    public static boolean isConnectionFailure(SQLException e) {
+        String state = e.getSQLState();
+        return (state != null && state.startsWith("08")) || e instanceof SQLTransientConnectionException
+                || e instanceof SQLNonTransientConnectionException || e instanceof SQLRecoverableException;
+    }
+
+    private final class PooledEntry {
+        final Connection physical;
+        volatile long borrowedAt;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+        volatile boolean broken;
+        volatile long lastUsedNanos = System.nanoTime();
+        volatile long idleSince = System.currentTimeMillis();
+        // Only touched by the thread currently holding this connection
+        final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= STATEMENT_CACHE_SIZE) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    private final class CachedStatement {
+        final PooledEntry entry;
+        final PreparedStatement physical;
+        boolean inUse;
+        boolean evicted;
+        boolean closed;
+
+        CachedStatement(PooledEntry entry, PreparedStatement physical) {
+            this.entry = entry;
+            this.physical = physical;
+            openStatements.incrementAndGet();
+        }
+
+        PreparedStatement checkOut(Connection owner) {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new StatementLease(this, owner));
+        }
+
+        void checkIn() {
+            inUse = false;
+            if (evicted) {
+                closePhysical();
+                return;
+            }
+            try {
+                physical.clearParameters();
+                physical.clearBatch();
+            } catch (SQLException e) {
+                closePhysical();
+            }
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closePhysical();
+            }
+        }
+
+        void closePhysical() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            openStatements.decrementAndGet();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                // The connection is probably gone already
+            }
+        }
+    }
+
+    // One lease per checkout, so a statement closed by one caller cannot be used through a stale reference
+    private final class StatementLease implements InvocationHandler {
+        private final CachedStatement statement;
+        private final Connection owner;
+        private boolean returned;
+
+        StatementLease(CachedStatement statement, Connection owner) {
+            this.statement = statement;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        statement.checkIn();
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || statement.closed;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement.physical + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Statement has already been closed.");
+            }
+            try {
+                return method.invoke(statement.physical, args);
+            } catch (InvocationTargetException e) {
+                // Most queries run here, so a lost link must keep the connection out of the idle deque
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException && isConnectionFailure((SQLException) cause)) {
+                    statement.entry.broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+
+    // A fresh handle per borrow, so a stale reference cannot touch a connection someone else now holds
+    private final class Handle implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned;
+        // Uncached statements opened through this handle, closed when the connection is returned
+        private List<Statement> openedStatements;
+
+        Handle(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        closeOpenedStatements();
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            try {
+                if (isCacheablePrepare(method)) {
+                    String key = args.length == 1 ? (String) args[0] : args[1] + ":" + args[0];
+                    CachedStatement cached = entry.statements.get(key);
+                    if (cached != null && !cached.inUse) {
+                        if (!cached.closed && !cached.physical.isClosed()) {
+                            statementCacheHits.increment();
+                            return cached.checkOut((Connection) proxy);
+                        }
+                        // Closed behind our back (e.g. through ResultSet.getStatement()); replace it
+                        cached.closePhysical();
+                        cached = null;
+                    }
+                    statementCacheMisses.increment();
+                    PreparedStatement physical = (PreparedStatement) method.invoke(entry.physical, args);
+                    if (cached != null && cached.inUse) {
+                        // Same SQL already checked out by this caller; hand out a one-off statement
+                        track(physical);
+                        return physical;
+                    }
+                    CachedStatement created = new CachedStatement(entry, physical);
+                    entry.statements.put(key, created);
+                    return created.checkOut((Connection) proxy);
+                }
+                Object result = method.invoke(entry.physical, args);
+                if (result instanceof Statement) {
+                    track((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException && isConnectionFailure((SQLException) cause)) {
+                    entry.broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        private void track(Statement statement) {
+            if (openedStatements == null) {
+                openedStatements = new ArrayList<>();
+            }
+            openedStatements.add(statement);
+        }
+
+        private void closeOpenedStatements() {
+            if (openedStatements == null) {
+                return;
+            }
+            for (Statement statement : openedStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    entry.broken = true;
+                }
+            }
+            openedStatements = null;
+        }
+    }
+
+    private static boolean isCacheablePrepare(Method method) {
+        if (!method.getName().equals("prepareStatement")) {
+            return false;
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        return parameterTypes.length == 1 || (parameterTypes.length == 2 && parameterTypes[1] == int.class);
+    }
+}
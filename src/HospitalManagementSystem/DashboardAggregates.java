@@ -0,0 +1,200 @@
+package HospitalManagementSystem;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counters behind the dashboard: patients registered today and bookings per doctor for each of the
+ * next {@link #DAYS} days. {@link #reload()} seeds them with grouped queries; after that they are
+ * kept current in memory from {@link HospitalEventListener} callbacks, so refreshing the view never
+ * touches the database. Changes made by other applications are picked up on the next reload.
+ */
+public class DashboardAggregates implements HospitalEventListener {
+    public static final int DAYS = 7;
+
+    private static final String PATIENTS_TODAY_QUERY = "SELECT COUNT(*) FROM patients WHERE created_at >= ?";
+    private static final String BOOKINGS_QUERY = "SELECT doctor_id, appointment_date, COUNT(*) FROM appointments "
+            + "WHERE appointment_date >= ? AND appointment_date < ? GROUP BY doctor_id, appointment_date";
+    private static final OperationMetrics PATIENTS_TODAY = Metrics.query("dashboard.patientsToday", PATIENTS_TODAY_QUERY);
+    private static final OperationMetrics BOOKINGS = Metrics.query("dashboard.bookings", BOOKINGS_QUERY);
+
+    private final ConnectionPool pool;
+    private final Doctor doctor;
+
+    // Guarded by this
+    private LocalDate firstDay = LocalDate.MIN;
+    private int patientsToday;
+    private final Map<Integer, int[]> bookingsByDoctor = new HashMap<>();
+    private final Map<Integer, DoctorRecord> doctors = new LinkedHashMap<>();
+    private long version;
+
+    public DashboardAggregates(ConnectionPool pool, Doctor doctor) {
+        this.pool = pool;
+        this.doctor = doctor;
+    }
+
+    /**
+     * Re-seeds every counter, starting the window at today. Called at startup, after bulk changes
+     * such as an import, and when the date rolls over. An event that lands while the seed queries
+     * run may be counted twice; the next reload corrects it.
+     */
+    public void reload() throws SQLException {
+        LocalDate today = LocalDate.now();
+        List<DoctorRecord> roster = doctor.viewDoctors();
+        int registeredToday;
+        Map<Integer, int[]> bookings = new HashMap<>();
+        try (Connection connection = pool.getConnection()) {
+            long start = PATIENTS_TODAY.start();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(PATIENTS_TODAY_QUERY)) {
+                preparedStatement.setTimestamp(1, Timestamp.valueOf(today.atStartOfDay()));
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    registeredToday = resultSet.next() ? resultSet.getInt(1) : 0;
+                }
+                PATIENTS_TODAY.success(start, 1);
+            } catch (SQLException e) {
+                PATIENTS_TODAY.failure(start);
+                throw e;
+            }
+            start = BOOKINGS.start();
+            int groups = 0;
+            try (PreparedStatement preparedStatement = connection.prepareStatement(BOOKINGS_QUERY)) {
+                preparedStatement.setDate(1, Date.valueOf(today));
+                preparedStatement.setDate(2, Date.valueOf(today.plusDays(DAYS)));
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        int day = (int) ChronoUnit.DAYS.between(today, resultSet.getDate(2).toLocalDate());
+                        bookings.computeIfAbsent(resultSet.getInt(1), id -> new int[DAYS])[day] += resultSet.getInt(3);
+                        groups++;
+                    }
+                }
+                BOOKINGS.success(start, groups);
+            } catch (SQLException e) {
+                BOOKINGS.failure(start);
+                throw e;
+            }
+        }
+        synchronized (this) {
+            firstDay = today;
+            patientsToday = registeredToday;
+            bookingsByDoctor.clear();
+            bookingsByDoctor.putAll(bookings);
+            doctors.clear();
+            for (DoctorRecord record : roster) {
+                doctors.put(record.id(), record);
+            }
+            version++;
+        }
+    }
+
+    @Override
+    public synchronized void patientAdded(int patientId) {
+        if (firstDay.equals(LocalDate.now())) {
+            patientsToday++;
+            version++;
+        }
+    }
+
+    @Override
+    public void appointmentBooked(int patientId, int doctorId, LocalDate appointmentDate) {
+        DoctorRecord known;
+        synchronized (this) {
+            known = doctors.get(doctorId);
+        }
+        // A doctor added since the last reload; looked up outside the lock (it is usually cached)
+        DoctorRecord added = known == null ? doctor.findDoctorById(doctorId) : null;
+        synchronized (this) {
+            int day = (int) ChronoUnit.DAYS.between(firstDay, appointmentDate);
+            if (day < 0 || day >= DAYS) {
+                return;
+            }
+            if (added != null) {
+                doctors.putIfAbsent(doctorId, added);
+            }
+            bookingsByDoctor.computeIfAbsent(doctorId, id -> new int[DAYS])[day]++;
+            version++;
+        }
+    }
+
+    // Bumped on every change, so a view can skip repainting when nothing happened
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized Snapshot snapshot() {
+        List<DoctorRecord> roster = new ArrayList<>(doctors.values());
+        int[][] bookings = new int[roster.size()][];
+        int[] perDay = new int[DAYS];
+        Map<String, Integer> bySpecialization = new TreeMap<>();
+        for (int i = 0; i < roster.size(); i++) {
+            int[] counts = bookingsByDoctor.get(roster.get(i).id());
+            bookings[i] = counts == null ? new int[DAYS] : counts.clone();
+            int total = 0;
+            for (int day = 0; day < DAYS; day++) {
+                perDay[day] += bookings[i][day];
+                total += bookings[i][day];
+            }
+            bySpecialization.merge(roster.get(i).specialization(), total, Integer::sum);
+        }
+        return new Snapshot(firstDay, patientsToday, roster, bookings, perDay, bySpecialization);
+    }
+
+    /**
+     * Consistent copy of the counters. {@code getBookings()[i][d]} is the number of bookings for
+     * {@code getDoctors().get(i)} on {@code getFirstDay().plusDays(d)}.
+     */
+    public static class Snapshot {
+        private final LocalDate firstDay;
+        private final int patientsToday;
+        private final List<DoctorRecord> doctors;
+        private final int[][] bookings;
+        private final int[] bookingsPerDay;
+        private final Map<String, Integer> bookingsBySpecialization;
+
+        private Snapshot(LocalDate firstDay, int patientsToday, List<DoctorRecord> doctors, int[][] bookings,
+                         int[] bookingsPerDay, Map<String, Integer> bookingsBySpecialization) {
+            this.firstDay = firstDay;
+            this.patientsToday = patientsToday;
+            this.doctors = Collections.unmodifiableList(doctors);
+            this.bookings = bookings;
+            this.bookingsPerDay = bookingsPerDay;
+            this.bookingsBySpecialization = Collections.unmodifiableMap(bookingsBySpecialization);
+        }
+
+        public LocalDate getFirstDay() {
+            return firstDay;
+        }
+
+        public int getPatientsToday() {
+            return patientsToday;
+        }
+
+        public List<DoctorRecord> getDoctors() {
+            return doctors;
+        }
+
+        public int[][] getBookings() {
+            return bookings;
+        }
+
+        public int[] getBookingsPerDay() {
+            return bookingsPerDay;
+        }
+
+        public Map<String, Integer> getBookingsBySpecialization() {
+            return bookingsBySpecialization;
+        }
+    }
+}
@@ -2,63 +2,130 @@ package HospitalManagementSystem;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class Doctor {
-    private Connection connection;
+    private static final int CACHE_SIZE = Integer.getInteger("hms.cache.size", 10_000);
+    private static final int CACHE_TTL_SECONDS = Integer.getInteger("hms.cache.ttlSeconds", 300);
+    // Misses expire sooner, since another process may insert the id at any time
+    private static final int MISS_TTL_SECONDS = Integer.getInteger("hms.cache.missTtlSeconds", 5);
+    // Cached marker for ids that were looked up and do not exist
+    private static final DoctorRecord NOT_FOUND = new DoctorRecord(0, "", "");
+    private static final int DIRECTORY_KEY = 0;
+    // Every query selects these columns in this order, so rows are read by index
+    private static final String COLUMNS = "id, name, specialization";
 
-    public Doctor(Connection connection) {
-        this.connection = connection;
-        validateConnection();
-    }
+    private static final String VIEW_QUERY = "SELECT " + COLUMNS + " FROM doctors";
+    private static final String FIND_QUERY = "SELECT " + COLUMNS + " FROM doctors WHERE id = ?";
 
-    private void validateConnection() {
-        if (connection == null) {
-            throw new IllegalStateException("Database connection is null. Cannot proceed.");
-        }
-        try {
-            if (connection.isClosed()) {
-                throw new IllegalStateException("Database connection is closed. Cannot proceed.");
-            }
-            DatabaseMetaData metaData = connection.getMetaData();
-            ResultSet tables = metaData.getTables(null, null, "doctors", null);
-            if (!tables.next()) {
-                throw new IllegalStateException("The 'doctors' table does not exist in the database.");
-            }
-        } catch (SQLException e) {
-            throw new IllegalStateException("Failed to validate database connection: " + e.getMessage(), e);
+    private static final OperationMetrics VIEW = Metrics.query("doctor.viewAll", VIEW_QUERY);
+    private static final OperationMetrics SEARCH = Metrics.query("doctor.search",
+            "SELECT " + COLUMNS + " FROM doctors WHERE <name and specialization filters> ORDER BY id LIMIT ?");
+    private static final OperationMetrics FIND = Metrics.query("doctor.findById", FIND_QUERY);
+
+    private ConnectionPool pool;
+    private final IntKeyCache<DoctorRecord> cache = new IntKeyCache<>(CACHE_SIZE, CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+    // The whole roster as a single entry; it changes rarely and is read on every dialog open
+    private final IntKeyCache<List<DoctorRecord>> directory = new IntKeyCache<>(1, CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+
+    // Connects lazily; the schema is checked once at startup by SchemaMigrator.validate()
+    public Doctor(ConnectionPool pool) {
+        if (pool == null) {
+            throw new IllegalStateException("Connection pool is null. Cannot proceed.");
         }
+        this.pool = pool;
     }
 
-    public List<String[]> viewDoctors() {
-        List<String[]> doctors = new ArrayList<>();
-        String query = "SELECT * FROM doctors";
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(query);
-            ResultSet resultSet = preparedStatement.executeQuery();
+    public List<DoctorRecord> viewDoctors() {
+        List<DoctorRecord> cached = directory.get(DIRECTORY_KEY);
+        if (cached != null) {
+            return cached;
+        }
+        List<DoctorRecord> doctors = new ArrayList<>();
+        long start = VIEW.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(VIEW_QUERY);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
             while (resultSet.next()) {
-                String[] doctor = new String[3];
-                doctor[0] = String.valueOf(resultSet.getInt("id"));
-                doctor[1] = resultSet.getString("name");
-                doctor[2] = resultSet.getString("specialization");
+                DoctorRecord doctor = read(resultSet);
                 doctors.add(doctor);
+                cache.put(doctor.id(), doctor);
             }
+            VIEW.success(start, doctors.size());
+            doctors = Collections.unmodifiableList(doctors);
+            directory.put(DIRECTORY_KEY, doctors);
         } catch (SQLException e) {
+            VIEW.failure(start);
             e.printStackTrace();
         }
         return doctors;
     }
 
+    /**
+     * Streams doctors whose name starts with {@code namePrefix} and whose specialization contains
+     * {@code specialization} to {@code batchConsumer}, in batches of at most {@code batchSize}.
+     * Null or empty filters are ignored.
+     */
+    public int searchDoctors(String namePrefix, String specialization, int batchSize, int maxResults,
+                             Consumer<List<DoctorRecord>> batchConsumer) throws SQLException {
+        SearchQuery query = new SearchQuery("SELECT " + COLUMNS + " FROM doctors");
+        if (namePrefix != null && !namePrefix.isEmpty()) {
+            query.and("name LIKE ? ESCAPE '!'", LikePatterns.prefix(namePrefix));
+        }
+        if (specialization != null && !specialization.isEmpty()) {
+            query.and("specialization LIKE ? ESCAPE '!'", LikePatterns.contains(specialization));
+        }
+        return query.stream(pool, SEARCH, batchSize, maxResults, Doctor::read, batchConsumer);
+    }
+
     public boolean getDoctorById(int id) {
-        String query = "SELECT * FROM doctors WHERE id = ?";
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(query);
+        return findDoctorById(id) != null;
+    }
+
+    // The doctor with this id, or null if there is none (or the lookup failed)
+    public DoctorRecord findDoctorById(int id) {
+        DoctorRecord cached = cache.get(id);
+        if (cached != null) {
+            return cached == NOT_FOUND ? null : cached;
+        }
+        // Read before querying, so an invalidation meanwhile keeps the stale result out of the cache
+        long generation = cache.generation(id);
+        long start = FIND.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(FIND_QUERY)) {
             preparedStatement.setInt(1, id);
-            ResultSet resultSet = preparedStatement.executeQuery();
-            return resultSet.next();
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    FIND.success(start, 0);
+                    cache.putIfUnchanged(id, NOT_FOUND, generation, MISS_TTL_SECONDS, TimeUnit.SECONDS);
+                    return null;
+                }
+                DoctorRecord doctor = read(resultSet);
+                FIND.success(start, 1);
+                cache.putIfUnchanged(id, doctor, generation);
+                return doctor;
+            }
         } catch (SQLException e) {
+            FIND.failure(start);
             e.printStackTrace();
-            return false;
+            return null;
         }
     }
-}
\ No newline at end of file
+
+    // For roster changes made outside this application
+    public void invalidateCache() {
+        directory.clear();
+        cache.clear();
+    }
+
+    public IntKeyCache<DoctorRecord> getCache() {
+        return cache;
+    }
+
+    private static DoctorRecord read(ResultSet resultSet) throws SQLException {
+        return new DoctorRecord(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3));
+    }
+}
@@ -0,0 +1,148 @@
+package HospitalManagementSystem;
+
+import java.util.Arrays;
+
+/**
+ * One doctor's booked slots as a sorted array of start times, each a minute key
+ * ({@code epochDay * 1440 + minuteOfDay}). Conflict checks and inserts find their position by
+ * binary search; inserting shifts the tail with a single array copy. Not thread-safe; the
+ * {@link SchedulingEngine} locks each calendar.
+ */
+class DoctorCalendar {
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private DoctorSchedule schedule;
+    private long[] starts = new long[16];
+    private int size;
+
+    DoctorCalendar(DoctorSchedule schedule) {
+        this.schedule = schedule;
+    }
+
+    DoctorSchedule getSchedule() {
+        return schedule;
+    }
+
+    void setSchedule(DoctorSchedule schedule) {
+        this.schedule = schedule;
+    }
+
+    int size() {
+        return size;
+    }
+
+    static long key(long epochDay, int minuteOfDay) {
+        return epochDay * MINUTES_PER_DAY + minuteOfDay;
+    }
+
+    // Whether [key, key + slot length) overlaps a booked slot
+    boolean conflicts(long key) {
+        int index = Arrays.binarySearch(starts, 0, size, key);
+        if (index >= 0) {
+            return true;
+        }
+        int insertAt = -index - 1;
+        int length = schedule.slotMinutes();
+        return (insertAt > 0 && starts[insertAt - 1] + length > key)
+                || (insertAt < size && starts[insertAt] < key + length);
+    }
+
+    // Adds the slot unless it overlaps one already booked
+    boolean book(long key) {
+        if (conflicts(key)) {
+            return false;
+        }
+        insert(key);
+        return true;
+    }
+
+    // Adds a slot loaded from the database, even if it overlaps (e.g. after a slot length change)
+    void insert(long key) {
+        int index = Arrays.binarySearch(starts, 0, size, key);
+        int insertAt = index >= 0 ? index : -index - 1;
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+        }
+        System.arraycopy(starts, insertAt, starts, insertAt + 1, size - insertAt);
+        starts[insertAt] = key;
+        size++;
+    }
+
+    boolean release(long key) {
+        int index = Arrays.binarySearch(starts, 0, size, key);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(starts, index + 1, starts, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    // Booked slots on the day
+    int countOnDay(long epochDay) {
+        return lowerBound(key(epochDay + 1, 0)) - lowerBound(key(epochDay, 0));
+    }
+
+    /**
+     * The earliest free slot start on the day at or after {@code fromMinute}, as a minute of the
+     * day, or -1 if the rest of the day is booked. Walks only the booked slots it has to step over.
+     */
+    int firstFreeOnDay(long epochDay, int fromMinute) {
+        int length = schedule.slotMinutes();
+        int first = schedule.startMinute();
+        int slot = fromMinute <= first ? 0 : (fromMinute - first + length - 1) / length;
+        int slots = schedule.slotsPerDay();
+        // Start one slot length back so a booking that began earlier but runs into the candidate is seen
+        int index = lowerBound(key(epochDay, first + slot * length) - length + 1);
+        while (slot < slots) {
+            long candidate = key(epochDay, first + slot * length);
+            // Skip bookings that end before the candidate starts; they cannot overlap it
+            while (index < size && starts[index] + length <= candidate) {
+                index++;
+            }
+            if (index >= size || starts[index] >= candidate + length) {
+                return first + slot * length;
+            }
+            index += contiguousRun(index, length);
+            long next = (starts[index] + length - key(epochDay, first) + length - 1) / length;
+            slot = (int) Math.max(slot + 1, Math.min(next, slots));
+        }
+        return -1;
+    }
+
+    /**
+     * How many bookings follow {@code starts[from]} back to back, found by galloping so a fully booked
+     * stretch costs O(log n). Bookings are normally slot-aligned and disjoint, so
+     * {@code starts[from + j] - starts[from]} only exceeds {@code j * length} once a gap has appeared.
+     */
+    private int contiguousRun(int from, int length) {
+        int low = 0;
+        int step = 1;
+        while (from + step < size && starts[from + step] - starts[from] == (long) step * length) {
+            low = step;
+            step <<= 1;
+        }
+        int high = Math.min(step, size - from);
+        // starts[from + low] is back to back; the first gap lies before from + high
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (starts[from + mid] - starts[from] == (long) mid * length) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int lowerBound(long key) {
+        int index = Arrays.binarySearch(starts, 0, size, key);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && starts[index - 1] == key) {
+            index--;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,7 @@
+package HospitalManagementSystem;
+
+/**
+ * A row of the {@code doctors} table.
+ */
+public record DoctorRecord(int id, String name, String specialization) {
+}
@@ -0,0 +1,30 @@
+package HospitalManagementSystem;
+
+import java.time.LocalTime;
+
+/**
+ * A doctor's working day: bookable slots of {@code slotMinutes} each, starting at {@code workStart}
+ * and ending no later than {@code workEnd}.
+ */
+public record DoctorSchedule(int slotMinutes, LocalTime workStart, LocalTime workEnd) {
+    public DoctorSchedule {
+        if (slotMinutes <= 0 || !workStart.isBefore(workEnd)) {
+            throw new IllegalArgumentException("Slot length must be positive and the working day must not be empty.");
+        }
+    }
+
+    public int slotsPerDay() {
+        return (workEnd.toSecondOfDay() / 60 - startMinute()) / slotMinutes;
+    }
+
+    // Minute of the day the first slot starts
+    public int startMinute() {
+        return workStart.toSecondOfDay() / 60;
+    }
+
+    // Whether a booking may start at this minute of the day
+    public boolean isSlotStart(int minuteOfDay) {
+        int offset = minuteOfDay - startMinute();
+        return offset >= 0 && offset % slotMinutes == 0 && offset / slotMinutes < slotsPerDay();
+    }
+}
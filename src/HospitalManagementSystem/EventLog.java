@@ -0,0 +1,464 @@
+package HospitalManagementSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only audit log of patient and booking events, written behind the caller. The listener
+ * callbacks only put the event on a lock-free queue; one writer thread drains it, appends the
+ * records to the current segment file and fsyncs once per drained group, so every event that
+ * arrived while the previous fsync ran shares the next one. A segment is closed once it passes
+ * {@code hms.eventlog.segmentBytes} (default 64 MB) and the next group starts a new file named
+ * after its first sequence number.
+ *
+ * <p>Each record is {@code [payload length][CRC32C][payload]}. A record torn by a crash fails its
+ * checksum: reopening the log cuts it off, and replay stops at it.
+ *
+ * <p>One log owns its directory: open takes an exclusive lock on {@code events.lock} and fails if
+ * another process holds it, since two writers would interleave records in the same segment. The
+ * directory also keeps a random id in {@code log.id}, which tells its events apart from those of
+ * other logs once they are copied into one table.
+ */
+public class EventLog implements HospitalEventListener, AutoCloseable {
+    private static final long SEGMENT_BYTES = Long.getLong("hms.eventlog.segmentBytes", 64L << 20);
+    private static final String ACTOR = truncate(System.getProperty("hms.user", System.getProperty("user.name", "unknown")));
+    private static final String PREFIX = "events-";
+    private static final String SUFFIX = ".log";
+    private static final String LOCK_FILE = "events.lock";
+    private static final String ID_FILE = "log.id";
+    private static final int HEADER_BYTES = 8;
+    // sequence, time, type, patient, doctor, date, time of day, and the two text lengths
+    private static final int FIXED_PAYLOAD_BYTES = 8 + 8 + 1 + 4 + 4 + 8 + 4 + 2 + 2;
+    private static final int MAX_TEXT = 255;
+    private static final int MAX_GROUP = 10_000;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final AuditEvent.Type[] TYPES = AuditEvent.Type.values();
+    private static final OperationMetrics FLUSH = Metrics.action("eventlog.flush", "Writing and fsyncing one group of audit events");
+
+    private final Path directory;
+    private final String logId;
+    // Open, and locked, until close
+    private final FileChannel lockChannel;
+    private final SegmentWriter segmentWriter;
+    private final ConcurrentLinkedQueue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean writerParked = new AtomicBoolean();
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile long durableSequence;
+
+    // Writer thread only
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private final CRC32C checksum = new CRC32C();
+    private FileChannel segment;
+    private long segmentSize;
+    private long nextSequence;
+
+    // How flushed bytes reach the segment; tests supply one that fails part way, like a full disk
+    interface SegmentWriter {
+        int write(FileChannel segment, ByteBuffer source) throws IOException;
+    }
+
+    private EventLog(Path directory, String logId, FileChannel lockChannel, SegmentWriter segmentWriter, long nextSequence) {
+        this.directory = directory;
+        this.logId = logId;
+        this.lockChannel = lockChannel;
+        this.segmentWriter = segmentWriter;
+        this.nextSequence = nextSequence;
+        this.durableSequence = nextSequence - 1;
+        writer = new Thread(this::writeLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Opens the log in the directory, cutting off a record torn by a crash at the end of the last segment
+    public static EventLog open(Path directory) throws IOException {
+        return open(directory, FileChannel::write);
+    }
+
+    static EventLog open(Path directory, SegmentWriter segmentWriter) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = lock(directory);
+        try {
+            String logId = readOrCreateId(directory);
+            List<Path> segments = segments(directory);
+            long next = 1;
+            if (!segments.isEmpty()) {
+                Path last = segments.get(segments.size() - 1);
+                long[] end = scan(last, Long.MIN_VALUE, null);
+                if (end[1] < Files.size(last)) {
+                    System.err.println("Event log: dropping a torn record at the end of " + last.getFileName());
+                    try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+                        channel.truncate(end[1]);
+                        channel.force(true);
+                    }
+                }
+                next = Math.max(end[0], firstSequence(last) - 1) + 1;
+            }
+            return new EventLog(directory, logId, lockChannel, segmentWriter, next);
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    // Caller holds the directory lock
+    private static String readOrCreateId(Path directory) throws IOException {
+        Path file = directory.resolve(ID_FILE);
+        if (Files.exists(file)) {
+            return Files.readString(file, StandardCharsets.US_ASCII).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Path temporary = directory.resolve(ID_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(id.getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        return id;
+    }
+
+    private static FileChannel lock(Path directory) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (channel.tryLock() != null) {
+                return channel;
+            }
+        } catch (OverlappingFileLockException e) {
+            // Another EventLog in this process has the directory
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        channel.close();
+        throw new IOException("The event log in " + directory + " is in use by another process; "
+                + "give each instance its own hms.eventlog.dir.");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Stays the same across reopens of the directory; sequence numbers are only unique within one log
+    public String getLogId() {
+        return logId;
+    }
+
+    // Highest sequence number known to be on disk
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    @Override
+    public void patientAdded(int patientId) {
+        append(AuditEvent.Type.PATIENT_CREATED, patientId, 0, null, null, null);
+    }
+
+    @Override
+    public void appointmentBooked(int patientId, int doctorId, LocalDate appointmentDate, LocalTime appointmentTime) {
+        append(AuditEvent.Type.APPOINTMENT_BOOKED, patientId, doctorId, appointmentDate, appointmentTime, null);
+    }
+
+    @Override
+    public void appointmentRejected(int patientId, int doctorId, LocalDate appointmentDate, LocalTime appointmentTime,
+                                    BookingResult reason) {
+        append(AuditEvent.Type.APPOINTMENT_REJECTED, patientId, doctorId, appointmentDate, appointmentTime, reason.name());
+    }
+
+    private void append(AuditEvent.Type type, int patientId, int doctorId, LocalDate date, LocalTime time, String detail) {
+        if (closed) {
+            System.err.println("Event log is closed, dropping " + type + " for patient " + patientId);
+            return;
+        }
+        // The writer numbers events as it drains them, so sequence order is file order
+        queue.offer(new AuditEvent(0, System.currentTimeMillis(), type, ACTOR, patientId, doctorId, date, time, detail));
+        if (writerParked.get() && writerParked.compareAndSet(true, false)) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Passes every event with a sequence number of at least {@code fromSequence} to the consumer, in
+     * order, and returns the last sequence number passed (or {@code fromSequence - 1}). Safe to call
+     * while the log is being written; events still in the writer's hands are not seen.
+     */
+    public long replay(long fromSequence, Consumer<AuditEvent> consumer) throws IOException {
+        List<Path> segments = segments(directory);
+        long last = fromSequence - 1;
+        for (int i = 0; i < segments.size(); i++) {
+            // Everything from fromSequence on starts in a later segment
+            if (i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+            last = scan(segments.get(i), last, consumer)[0];
+        }
+        return last;
+    }
+
+    // Replays into listener callbacks, e.g. to rebuild in-memory aggregates after a restart
+    public long replay(long fromSequence, HospitalEventListener listener) throws IOException {
+        return replay(fromSequence, event -> event.dispatch(listener));
+    }
+
+    // Writes out everything queued before returning; events appended after close are dropped
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            System.err.println("Event log: " + queue.size() + " events arrived during close and were not written");
+        }
+        try {
+            lockChannel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> group = new ArrayList<>();
+        while (true) {
+            if (group.isEmpty()) {
+                AuditEvent event;
+                while (group.size() < MAX_GROUP && (event = queue.poll()) != null) {
+                    group.add(event.withSequence(nextSequence++));
+                }
+            }
+            if (group.isEmpty()) {
+                if (closed) {
+                    break;
+                }
+                writerParked.set(true);
+                if (queue.isEmpty() && !closed) {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+                writerParked.set(false);
+                continue;
+            }
+            long start = FLUSH.start();
+            try {
+                write(group);
+                FLUSH.success(start, group.size());
+                group.clear();
+            } catch (IOException e) {
+                FLUSH.failure(start);
+                e.printStackTrace();
+                // write() cut the segment back to before the group; retry the whole group on a fresh channel
+                closeSegment();
+                if (closed) {
+                    System.err.println("Event log: " + (group.size() + queue.size()) + " events lost on close");
+                    break;
+                }
+                LockSupport.parkNanos(this, RETRY_NANOS);
+            }
+        }
+        closeSegment();
+    }
+
+    private void write(List<AuditEvent> group) throws IOException {
+        if (segment == null) {
+            openSegment(group.get(0).sequence());
+        }
+        long sizeBefore = segmentSize;
+        try {
+            for (AuditEvent event : group) {
+                encode(event);
+            }
+            flushBuffer();
+            segment.force(false);
+        } catch (IOException e) {
+            // Records after torn bytes would never be read back, so the retry must not land behind them
+            try {
+                segment.truncate(sizeBefore);
+                segmentSize = sizeBefore;
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        } finally {
+            buffer.clear();
+        }
+        durableSequence = group.get(group.size() - 1).sequence();
+        if (segmentSize >= SEGMENT_BYTES) {
+            closeSegment();
+        }
+    }
+
+    private void encode(AuditEvent event) throws IOException {
+        byte[] actor = event.actor().getBytes(StandardCharsets.UTF_8);
+        byte[] detail = event.detail() == null ? null : truncate(event.detail()).getBytes(StandardCharsets.UTF_8);
+        int length = FIXED_PAYLOAD_BYTES + actor.length + (detail == null ? 0 : detail.length);
+        if (buffer.remaining() < HEADER_BYTES + length) {
+            flushBuffer();
+        }
+        int recordStart = buffer.position();
+        buffer.position(recordStart + HEADER_BYTES);
+        buffer.putLong(event.sequence())
+                .putLong(event.recordedAtMillis())
+                .put((byte) event.type().ordinal())
+                .putInt(event.patientId())
+                .putInt(event.doctorId())
+                .putLong(event.appointmentDate() == null ? Long.MIN_VALUE : event.appointmentDate().toEpochDay())
+                .putInt(event.appointmentTime() == null ? -1 : event.appointmentTime().toSecondOfDay());
+        putText(actor);
+        putText(detail);
+        checksum.reset();
+        checksum.update(buffer.slice(recordStart + HEADER_BYTES, length));
+        buffer.putInt(recordStart, length).putInt(recordStart + 4, (int) checksum.getValue());
+    }
+
+    private void putText(byte[] text) {
+        if (text == null) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) text.length).put(text);
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segmentSize += segmentWriter.write(segment, buffer);
+        }
+        buffer.clear();
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(PREFIX + String.format("%020d", firstSequence) + SUFFIX);
+        // Only a retry reopens an existing segment. If cutting back a failed write did not work
+        // either, drop its torn bytes now so the retried records are not appended behind them
+        long valid = Files.exists(path) ? scan(path, Long.MIN_VALUE, null)[1] : 0;
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (segment.size() > valid) {
+            segment.truncate(valid);
+        }
+        segmentSize = segment.size();
+        // Make the new file's directory entry durable too; not every platform can open a directory
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (IOException e) {
+            // Left to the file system's own flush
+        }
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        segment = null;
+    }
+
+    /**
+     * Reads a segment up to its first bad record, passing events numbered above {@code after} to the
+     * consumer (if any). Returns the last sequence number seen and the number of valid bytes.
+     */
+    private static long[] scan(Path path, long after, Consumer<AuditEvent> consumer) throws IOException {
+        long last = after;
+        int valid = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return new long[]{last, 0};
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C crc = new CRC32C();
+            while (map.limit() - valid >= HEADER_BYTES) {
+                int length = map.getInt(valid);
+                if (length < FIXED_PAYLOAD_BYTES || length > map.limit() - valid - HEADER_BYTES) {
+                    break;
+                }
+                crc.reset();
+                crc.update(map.slice(valid + HEADER_BYTES, length));
+                if ((int) crc.getValue() != map.getInt(valid + 4)) {
+                    break;
+                }
+                long sequence = map.getLong(valid + HEADER_BYTES);
+                if (sequence > last) {
+                    if (consumer != null) {
+                        consumer.accept(decode(map.position(valid + HEADER_BYTES)));
+                    }
+                    last = sequence;
+                }
+                valid += HEADER_BYTES + length;
+            }
+        }
+        return new long[]{last, valid};
+    }
+
+    private static AuditEvent decode(ByteBuffer record) {
+        long sequence = record.getLong();
+        long recordedAt = record.getLong();
+        AuditEvent.Type type = TYPES[record.get()];
+        int patientId = record.getInt();
+        int doctorId = record.getInt();
+        long epochDay = record.getLong();
+        int secondOfDay = record.getInt();
+        String actor = getText(record);
+        String detail = getText(record);
+        return new AuditEvent(sequence, recordedAt, type, actor, patientId, doctorId,
+                epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay),
+                secondOfDay < 0 ? null : LocalTime.ofSecondOfDay(secondOfDay), detail);
+    }
+
+    private static String getText(ByteBuffer record) {
+        short length = record.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] text = new byte[length];
+        record.get(text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparingLong(EventLog::firstSequence))
+                    .toList();
+        }
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static String truncate(String text) {
+        return text.length() <= MAX_TEXT ? text : text.substring(0, MAX_TEXT);
+    }
+}
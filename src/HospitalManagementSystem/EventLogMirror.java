@@ -0,0 +1,166 @@
+package HospitalManagementSystem;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies the {@link EventLog} into the {@code audit_events} table in batched transactions, off the
+ * request path. Rows carry the log's id, since every log numbers its events from 1. Each run
+ * continues after the highest sequence already in the table for this log, so a run that failed
+ * halfway is simply repeated. Only events the log has fsynced are copied.
+ */
+public class EventLogMirror implements AutoCloseable {
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_QUERY = "INSERT INTO audit_events(log_id, sequence, recorded_at, event_type, actor, "
+            + "patient_id, doctor_id, appointment_date, appointment_time, detail) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String MIRRORED_QUERY = "SELECT COALESCE(MAX(sequence), 0) FROM audit_events WHERE log_id = ?";
+    private static final OperationMetrics MIRROR = Metrics.query("eventlog.mirror", INSERT_QUERY);
+
+    private final ConnectionPool pool;
+    private final EventLog eventLog;
+    private ScheduledExecutorService scheduler;
+
+    public EventLogMirror(ConnectionPool pool, EventLog eventLog) {
+        this.pool = pool;
+        this.eventLog = eventLog;
+    }
+
+    // Mirrors every intervalSeconds on a background thread until closed
+    public synchronized void start(long intervalSeconds) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-log-mirror");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                mirror();
+            } catch (IOException | SQLException e) {
+                e.printStackTrace();
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // Copies the events not yet in the table; returns how many were copied
+    public synchronized int mirror() throws IOException, SQLException {
+        long durable = eventLog.getDurableSequence();
+        long start = MIRROR.start();
+        int[] copied = new int[1];
+        try (Connection connection = pool.getConnection()) {
+            long mirrored;
+            try (PreparedStatement preparedStatement = connection.prepareStatement(MIRRORED_QUERY)) {
+                preparedStatement.setString(1, eventLog.getLogId());
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    resultSet.next();
+                    mirrored = resultSet.getLong(1);
+                }
+            }
+            if (mirrored >= durable) {
+                MIRROR.success(start, 0);
+                return 0;
+            }
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_QUERY)) {
+                int[] pending = new int[1];
+                eventLog.replay(mirrored + 1, event -> {
+                    if (event.sequence() > durable) {
+                        return;
+                    }
+                    try {
+                        addBatch(preparedStatement, eventLog.getLogId(), event);
+                        if (++pending[0] == BATCH_SIZE) {
+                            preparedStatement.executeBatch();
+                            connection.commit();
+                            copied[0] += pending[0];
+                            pending[0] = 0;
+                        }
+                    } catch (SQLException e) {
+                        throw new MirrorFailure(e);
+                    }
+                });
+                preparedStatement.executeBatch();
+                connection.commit();
+                copied[0] += pending[0];
+            } catch (MirrorFailure e) {
+                connection.rollback();
+                throw e.getCause();
+            } catch (SQLException | IOException e) {
+                connection.rollback();
+                throw e;
+            }
+            MIRROR.success(start, copied[0]);
+            return copied[0];
+        } catch (SQLException | IOException e) {
+            MIRROR.failure(start);
+            throw e;
+        }
+    }
+
+    // Stops the schedule and copies what is left
+    @Override
+    public void close() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        try {
+            if (running != null) {
+                running.shutdown();
+                running.awaitTermination(10, TimeUnit.SECONDS);
+            }
+            mirror();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void addBatch(PreparedStatement preparedStatement, String logId, AuditEvent event) throws SQLException {
+        preparedStatement.setString(1, logId);
+        preparedStatement.setLong(2, event.sequence());
+        preparedStatement.setTimestamp(3, new Timestamp(event.recordedAtMillis()));
+        preparedStatement.setString(4, event.type().name());
+        preparedStatement.setString(5, event.actor());
+        if (event.patientId() > 0) {
+            preparedStatement.setInt(6, event.patientId());
+        } else {
+            preparedStatement.setNull(6, Types.INTEGER);
+        }
+        if (event.doctorId() > 0) {
+            preparedStatement.setInt(7, event.doctorId());
+        } else {
+            preparedStatement.setNull(7, Types.INTEGER);
+        }
+        preparedStatement.setDate(8, event.appointmentDate() == null ? null : Date.valueOf(event.appointmentDate()));
+        preparedStatement.setTime(9, event.appointmentTime() == null ? null : Time.valueOf(event.appointmentTime()));
+        preparedStatement.setString(10, event.detail());
+        preparedStatement.addBatch();
+    }
+
+    // Carries a SQLException out of the replay callback
+    private static class MirrorFailure extends RuntimeException {
+        private MirrorFailure(SQLException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+}
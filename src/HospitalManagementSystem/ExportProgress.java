@@ -0,0 +1,60 @@
+package HospitalManagementSystem;
+
+/**
+ * Progress of a {@link ReportExporter} run, reported as rows are written and once at the end.
+ * {@code totalRows} is counted before the export starts, so rows added meanwhile can take the
+ * written count past it.
+ */
+public class ExportProgress {
+    private final long rowsWritten;
+    private final long totalRows;
+    private final long bytesWritten;
+    private final int filesWritten;
+    private final double megabytesPerSecond;
+    private final boolean finished;
+
+    public ExportProgress(long rowsWritten, long totalRows, long bytesWritten, int filesWritten,
+                          double megabytesPerSecond, boolean finished) {
+        this.rowsWritten = rowsWritten;
+        this.totalRows = totalRows;
+        this.bytesWritten = bytesWritten;
+        this.filesWritten = filesWritten;
+        this.megabytesPerSecond = megabytesPerSecond;
+        this.finished = finished;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public int getFilesWritten() {
+        return filesWritten;
+    }
+
+    public double getMegabytesPerSecond() {
+        return megabytesPerSecond;
+    }
+
+    // False when the export was cancelled
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public int getPercentComplete() {
+        return totalRows == 0 ? 100 : (int) Math.min(100, rowsWritten * 100 / totalRows);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d of %d rows, %.1f MB (%.1f MB/s)",
+                rowsWritten, totalRows, bytesWritten / 1e6, megabytesPerSecond);
+    }
+}
@@ -0,0 +1,257 @@
+package HospitalManagementSystem;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Dashboard tab: patients registered today, the next-7-days booking heatmap per doctor, and load
+ * per specialization. Reads {@link DashboardAggregates} on a coalesced timer and only rebuilds
+ * the view when the aggregates have changed since the last tick.
+ */
+public class HospitalDashboard extends JPanel {
+    private static final int REPAINT_MILLIS = 500;
+    private static final long MIN_RETRY_MILLIS = 1_000;
+    private static final long MAX_RETRY_MILLIS = 60_000;
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("EEE dd");
+
+    private final DashboardAggregates aggregates;
+    private final AsyncDataAccess dataAccess;
+    private final JLabel patientsTodayLabel = createStatLabel();
+    private final JLabel bookingsLabel = createStatLabel();
+    private final HeatmapModel heatmapModel = new HeatmapModel();
+    private final SpecializationModel specializationModel = new SpecializationModel();
+    private final Timer repaintTimer;
+    private long shownVersion = -1;
+    private LocalDate shownDay;
+    private CompletableFuture<Void> reloading;
+    // After a failed day-rollover reload, the next one waits until retryAt, doubling up to MAX_RETRY_MILLIS
+    private long retryAt;
+    private long retryMillis = MIN_RETRY_MILLIS;
+
+    public HospitalDashboard(DashboardAggregates aggregates, AsyncDataAccess dataAccess) {
+        super(new BorderLayout(10, 10));
+        this.aggregates = aggregates;
+        this.dataAccess = dataAccess;
+        setBackground(new Color(30, 30, 50));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JPanel stats = new JPanel(new GridLayout(1, 2, 10, 10));
+        stats.setOpaque(false);
+        stats.add(patientsTodayLabel);
+        stats.add(bookingsLabel);
+
+        JTable heatmap = createTable(heatmapModel);
+        heatmap.setDefaultRenderer(Integer.class, new HeatCellRenderer());
+        heatmap.getColumnModel().getColumn(0).setPreferredWidth(160);
+        JTable specializations = createTable(specializationModel);
+
+        JScrollPane heatmapPane = new JScrollPane(heatmap);
+        heatmapPane.setBorder(BorderFactory.createTitledBorder(BorderFactory.createLineBorder(new Color(100, 100, 120)),
+                "Bookings per doctor, next " + DashboardAggregates.DAYS + " days", 0, 0, null, Color.WHITE));
+        heatmapPane.getViewport().setBackground(new Color(30, 30, 50));
+        JScrollPane specializationPane = new JScrollPane(specializations);
+        specializationPane.setBorder(BorderFactory.createTitledBorder(BorderFactory.createLineBorder(new Color(100, 100, 120)),
+                "Load per specialization", 0, 0, null, Color.WHITE));
+        specializationPane.getViewport().setBackground(new Color(30, 30, 50));
+        specializationPane.setPreferredSize(new Dimension(220, 0));
+
+        add(stats, BorderLayout.NORTH);
+        add(heatmapPane, BorderLayout.CENTER);
+        add(specializationPane, BorderLayout.EAST);
+
+        // Events can arrive many times a second; the timer folds them into at most one rebuild per tick
+        repaintTimer = new Timer(REPAINT_MILLIS, e -> refresh());
+        repaintTimer.start();
+    }
+
+    public void stop() {
+        repaintTimer.stop();
+    }
+
+    /**
+     * Re-seeds the aggregates off the EDT: once the database is ready, and e.g. after working offline
+     * or when the day rolls over. The returned future completes on the EDT; a reload already running is joined.
+     */
+    public CompletableFuture<Void> reload() {
+        if (reloading != null) {
+            return reloading;
+        }
+        CompletableFuture<Void> loaded = new CompletableFuture<>();
+        reloading = loaded;
+        dataAccess.submit(() -> {
+            aggregates.reload();
+            return null;
+        }).whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            reloading = null;
+            if (error != null) {
+                patientsTodayLabel.setText("Dashboard unavailable: " + error.getMessage());
+                loaded.completeExceptionally(error);
+            } else {
+                loaded.complete(null);
+            }
+        }));
+        return loaded;
+    }
+
+    private void refresh() {
+        // The window starts at today, so a new day needs a fresh seed
+        if (shownDay != null && reloading == null && !shownDay.equals(LocalDate.now())
+                && System.currentTimeMillis() >= retryAt) {
+            reload().whenComplete((result, error) -> {
+                if (error == null) {
+                    retryMillis = MIN_RETRY_MILLIS;
+                } else {
+                    retryAt = System.currentTimeMillis() + retryMillis;
+                    retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+                }
+            });
+        }
+        long version = aggregates.getVersion();
+        if (version == shownVersion) {
+            return;
+        }
+        shownVersion = version;
+        DashboardAggregates.Snapshot snapshot = aggregates.snapshot();
+        shownDay = snapshot.getFirstDay();
+        int total = 0;
+        for (int count : snapshot.getBookingsPerDay()) {
+            total += count;
+        }
+        patientsTodayLabel.setText("Patients registered today: " + snapshot.getPatientsToday());
+        bookingsLabel.setText("Appointments next " + DashboardAggregates.DAYS + " days: " + total);
+        heatmapModel.update(snapshot);
+        specializationModel.update(snapshot.getBookingsBySpecialization());
+    }
+
+    private static JLabel createStatLabel() {
+        JLabel label = new JLabel("Loading...");
+        label.setForeground(new Color(0, 255, 255));
+        label.setFont(new Font("Arial", Font.BOLD, 16));
+        return label;
+    }
+
+    private static JTable createTable(AbstractTableModel model) {
+        JTable table = new JTable(model);
+        table.setBackground(new Color(50, 50, 70));
+        table.setForeground(Color.WHITE);
+        table.setFont(new Font("Arial", Font.PLAIN, 13));
+        table.setRowHeight(24);
+        table.setGridColor(new Color(70, 70, 90));
+        return table;
+    }
+
+    private static class HeatmapModel extends AbstractTableModel {
+        private DashboardAggregates.Snapshot snapshot;
+        private int max;
+
+        private void update(DashboardAggregates.Snapshot newSnapshot) {
+            boolean sameShape = snapshot != null && snapshot.getFirstDay().equals(newSnapshot.getFirstDay())
+                    && snapshot.getDoctors().size() == newSnapshot.getDoctors().size();
+            snapshot = newSnapshot;
+            max = 0;
+            for (int[] row : snapshot.getBookings()) {
+                for (int count : row) {
+                    max = Math.max(max, count);
+                }
+            }
+            if (sameShape) {
+                if (getRowCount() > 0) {
+                    fireTableRowsUpdated(0, getRowCount() - 1);
+                }
+            } else {
+                fireTableStructureChanged();
+            }
+        }
+
+        @Override
+        public int getRowCount() {
+            return snapshot == null ? 0 : snapshot.getDoctors().size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return DashboardAggregates.DAYS + 1;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            if (column == 0) {
+                return "Doctor";
+            }
+            return snapshot == null ? "" : snapshot.getFirstDay().plusDays(column - 1).format(DAY_FORMATTER);
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 ? String.class : Integer.class;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (columnIndex == 0) {
+                DoctorRecord doctor = snapshot.getDoctors().get(rowIndex);
+                return doctor.name() + " (" + doctor.specialization() + ")";
+            }
+            return snapshot.getBookings()[rowIndex][columnIndex - 1];
+        }
+    }
+
+    // Shades each cell from the table background towards red as its count nears the busiest cell
+    private class HeatCellRenderer extends DefaultTableCellRenderer {
+        private HeatCellRenderer() {
+            setHorizontalAlignment(SwingConstants.CENTER);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            int count = (Integer) value;
+            float heat = heatmapModel.max == 0 ? 0 : (float) count / heatmapModel.max;
+            Color base = table.getBackground();
+            setBackground(new Color(base.getRed() + Math.round((200 - base.getRed()) * heat),
+                    Math.round(base.getGreen() * (1 - heat)), Math.round(base.getBlue() * (1 - heat))));
+            setForeground(Color.WHITE);
+            return this;
+        }
+    }
+
+    private static class SpecializationModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Specialization", "Bookings"};
+        private List<Map.Entry<String, Integer>> rows = new ArrayList<>();
+
+        private void update(Map<String, Integer> bySpecialization) {
+            rows = new ArrayList<>(bySpecialization.entrySet());
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            Map.Entry<String, Integer> row = rows.get(rowIndex);
+            return columnIndex == 0 ? row.getKey() : row.getValue();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package HospitalManagementSystem;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Notified after a change has been committed. Callbacks run on the thread that made the change,
+ * usually a data-access worker, so implementations must be thread-safe and quick.
+ */
+public interface HospitalEventListener {
+    default void patientAdded(int patientId) {
+    }
+
+    default void appointmentBooked(int patientId, int doctorId, LocalDate appointmentDate) {
+    }
+
+    // The slot-level callback; listeners that only count per day can keep overriding the one above
+    default void appointmentBooked(int patientId, int doctorId, LocalDate appointmentDate, LocalTime appointmentTime) {
+        appointmentBooked(patientId, doctorId, appointmentDate);
+    }
+
+    // Any refused booking; the time is null when no slot was picked
+    default void appointmentRejected(int patientId, int doctorId, LocalDate appointmentDate, LocalTime appointmentTime,
+                                     BookingResult reason) {
+    }
+}
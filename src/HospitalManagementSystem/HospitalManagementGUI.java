@@ -1,33 +1,142 @@
 package HospitalManagementSystem;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.TableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class HospitalManagementGUI {
     private JFrame frame;
-    private Connection connection;
+    private ConnectionPool pool;
     private Patient patient;
     private Doctor doctor;
+    private AppointmentService appointmentService;
+    private AsyncDataAccess dataAccess;
+    private DashboardAggregates dashboardAggregates;
+    private SchedulingEngine schedulingEngine;
+    private boolean scheduleReloading;
+    private HospitalDashboard dashboard;
+    private EventLog eventLog;
+    private EventLogMirror eventLogMirror;
+    private OfflineJournal offlineJournal;
+    private OfflineReconciler offlineReconciler;
+    private boolean wasOffline;
+    private boolean databaseReady;
     private JLabel dateTimeLabel;
+    private JLabel connectionLabel;
+    // Sidebar buttons that need the database, enabled once startup has connected (or gone offline)
+    private JButton[] databaseButtons;
+    private MetricsDashboard metricsPanel;
+    private Timer clock;
+    // Built on first use and reused, so opening a window again only refreshes its data
+    private AddPatientDialog addPatientDialog;
+    private BookAppointmentDialog bookAppointmentDialog;
+    private PatientsWindow patientsWindow;
+    private DoctorsWindow doctorsWindow;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd MMMM yyyy, hh:mm a");
+    private static final int PATIENT_PAGE_SIZE = 200;
+    private static final int PATIENT_CACHED_PAGES = 25;
+    private static final int SEARCH_DEBOUNCE_MILLIS = 250;
+    private static final int SEARCH_BATCH_SIZE = 200;
+    private static final int SEARCH_MAX_RESULTS = 5000;
+    private static final int IMPORT_BATCH_SIZE = Integer.getInteger("hms.import.batchSize", 1000);
+    private static final int IMPORT_COMMIT_INTERVAL = Integer.getInteger("hms.import.commitInterval", 10_000);
+    private static final int EXPORT_FETCH_SIZE = Integer.getInteger("hms.export.fetchSize", 1000);
+    // Prints the pool, cache and operation metrics on exit; the metrics panel shows them while running
+    private static final boolean DUMP_METRICS_ON_EXIT = Boolean.getBoolean("hms.metrics.dumpOnExit");
+    private static final String[] EXPORT_REPORTS = {"Patients", "Doctors", "Appointments", "Doctor rosters"};
+    private static final OperationMetrics TABLE_FILL = Metrics.action("ui.tableFill", "Adding result rows to a table on the EDT");
+    private static final Color WINDOW_BACKGROUND = new Color(30, 30, 50);
+    private static final Color PANEL_BACKGROUND = new Color(40, 40, 60);
+    private static final Color FIELD_BACKGROUND = new Color(50, 50, 70);
+    private static final Color BORDER_COLOR = new Color(100, 100, 120);
+    private static final Font BUTTON_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final String BASE_COLOR = "hms.baseColor";
+    private static final String HOVER_COLOR = "hms.hoverColor";
+    // One hover listener shared by every styled button; the colors travel on the button
+    private static final MouseAdapter BUTTON_HOVER = new MouseAdapter() {
+        @Override
+        public void mouseEntered(MouseEvent e) {
+            JComponent button = (JComponent) e.getComponent();
+            button.setBackground((Color) button.getClientProperty(HOVER_COLOR));
+        }
+
+        @Override
+        public void mouseExited(MouseEvent e) {
+            JComponent button = (JComponent) e.getComponent();
+            button.setBackground((Color) button.getClientProperty(BASE_COLOR));
+        }
+    };
+
+    public HospitalManagementGUI(ConnectionPool pool) {
+        this.pool = pool;
+        this.patient = new Patient(pool);
+        this.doctor = new Doctor(pool);
+        this.schedulingEngine = new SchedulingEngine(pool, doctor, new AvailabilityIndex());
+        this.appointmentService = new AppointmentService(pool, schedulingEngine);
+        this.dataAccess = new AsyncDataAccess(patient, doctor, pool.getMaxSize());
+        this.dashboardAggregates = new DashboardAggregates(pool, doctor);
+        patient.addListener(dashboardAggregates);
+        appointmentService.addListener(dashboardAggregates);
+    }
 
-    public HospitalManagementGUI(Connection connection) {
-        this.connection = connection;
-        this.patient = new Patient(connection);
-        this.doctor = new Doctor(connection);
+    // Builds and shows the main frame; the database buttons stay disabled until databaseReady()
+    public void show() {
         initialize();
+        SwingUtilities.invokeLater(() -> HospitalManagementSystem.STARTUP_FRAME.successElapsed(
+                HospitalManagementSystem.sinceProcessStartNanos(), 0));
+    }
+
+    /**
+     * Startup connected and migrated, or found the server unreachable and marked the pool offline.
+     * The audit log and offline journal were opened by the startup thread, since opening scans,
+     * repairs and fsyncs their files; either is null if it could not be opened.
+     */
+    public void databaseReady(EventLog eventLog, OfflineJournal offlineJournal) {
+        if (eventLog != null) {
+            attachEventLog(eventLog);
+        }
+        if (offlineJournal != null) {
+            attachOfflineJournal(offlineJournal);
+        }
+        databaseReady = true;
+        for (JButton button : databaseButtons) {
+            button.setEnabled(true);
+        }
+        updateConnectionStatus();
+        reloadSchedule();
+        dashboard.reload().thenRun(() -> HospitalManagementSystem.STARTUP_FIRST_QUERY.successElapsed(
+                HospitalManagementSystem.sinceProcessStartNanos(), 0));
+    }
+
+    // A failure the application cannot work around, such as bad credentials
+    public void databaseFailed(Exception e) {
+        JOptionPane.showMessageDialog(frame, "Database connection failed: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        exit(1);
     }
 
     private void initialize() {
@@ -56,7 +165,7 @@ public class HospitalManagementGUI {
         JPanel sidebar = new JPanel();
         sidebar.setPreferredSize(new Dimension(200, 0));
         sidebar.setBackground(new Color(40, 40, 60));
-        sidebar.setLayout(new GridLayout(5, 1, 10, 10));
+        sidebar.setLayout(new GridLayout(7, 1, 10, 10));
         sidebar.setBorder(BorderFactory.createEmptyBorder(20, 10, 20, 10));
 
         // Styled buttons with icons (Unicode for now)
@@ -64,13 +173,21 @@ public class HospitalManagementGUI {
         JButton viewPatientsButton = createStyledButton("👁️ View Patients", new Color(0, 128, 128));
         JButton viewDoctorsButton = createStyledButton("👁️ View Doctors", new Color(0, 128, 128));
         JButton bookAppointmentButton = createStyledButton("📅 Book Appointment", new Color(128, 0, 128));
+        JButton importPatientsButton = createStyledButton("📥 Import Patients", new Color(0, 100, 160));
+        JButton exportReportsButton = createStyledButton("📤 Export Reports", new Color(0, 100, 160));
         JButton exitButton = createStyledButton("🚪 Exit", new Color(255, 0, 0));
+        databaseButtons = new JButton[]{addPatientButton, viewPatientsButton, viewDoctorsButton, bookAppointmentButton, importPatientsButton, exportReportsButton};
+        for (JButton button : databaseButtons) {
+            button.setEnabled(databaseReady);
+        }
 
         // Add to sidebar
         sidebar.add(addPatientButton);
         sidebar.add(viewPatientsButton);
         sidebar.add(viewDoctorsButton);
         sidebar.add(bookAppointmentButton);
+        sidebar.add(importPatientsButton);
+        sidebar.add(exportReportsButton);
         sidebar.add(exitButton);
 
         // Main content area with tabbed pane
@@ -79,10 +196,10 @@ public class HospitalManagementGUI {
         tabbedPane.setForeground(Color.WHITE);
         tabbedPane.setFont(new Font("Arial", Font.BOLD, 14));
 
-        // Placeholder panels for tabs (to be updated dynamically)
-        JPanel dashboardPanel = new JPanel();
-        dashboardPanel.setBackground(new Color(30, 30, 50));
-        tabbedPane.addTab("Dashboard", dashboardPanel); // You can add dashboard content later
+        dashboard = new HospitalDashboard(dashboardAggregates, dataAccess);
+        tabbedPane.addTab("Dashboard", dashboard);
+        metricsPanel = new MetricsDashboard(pool);
+        tabbedPane.addTab("Performance", metricsPanel);
 
         mainPanel.add(sidebar, BorderLayout.WEST);
         mainPanel.add(tabbedPane, BorderLayout.CENTER);
@@ -96,195 +213,829 @@ public class HospitalManagementGUI {
         dateTimeLabel.setForeground(new Color(0, 255, 255)); // Neon cyan
         dateTimeLabel.setFont(new Font("Arial", Font.BOLD, 16));
         topPanel.add(dateTimeLabel);
+        connectionLabel = new JLabel(databaseReady ? "" : "Connecting to the database...");
+        connectionLabel.setForeground(new Color(255, 180, 0));
+        connectionLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        topPanel.add(connectionLabel);
+        // The label shows minutes, so it only changes when the formatted text does
+        clock = new Timer(1000, e -> {
+            updateConnectionStatus();
+            String text = "Current Date & Time: " + LocalDateTime.now().format(DATE_TIME_FORMATTER);
+            if (!text.equals(dateTimeLabel.getText())) {
+                dateTimeLabel.setText(text);
+                // The availability horizon starts at the day it was loaded
+                LocalDate loadedFor = schedulingEngine.getAvailabilityIndex().getFirstDay();
+                if (loadedFor != null && !loadedFor.equals(LocalDate.now())) {
+                    reloadSchedule();
+                }
+            }
+        });
+        clock.start();
         mainPanel.add(topPanel, BorderLayout.NORTH);
 
         // Action listeners
-        addPatientButton.addActionListener(e -> showAddPatientDialog());
-        viewPatientsButton.addActionListener(e -> showViewPatientsWindow());
-        viewDoctorsButton.addActionListener(e -> showViewDoctorsWindow());
-        bookAppointmentButton.addActionListener(e -> showBookAppointmentDialog());
-        exitButton.addActionListener(e -> {
+        addPatientButton.addActionListener(timed("ui.addPatient", this::showAddPatientDialog));
+        viewPatientsButton.addActionListener(timed("ui.viewPatients", this::showViewPatientsWindow));
+        viewDoctorsButton.addActionListener(timed("ui.viewDoctors", this::showViewDoctorsWindow));
+        bookAppointmentButton.addActionListener(timed("ui.bookAppointment", this::showBookAppointmentDialog));
+        importPatientsButton.addActionListener(timed("ui.importPatients", this::showImportPatientsDialog));
+        exportReportsButton.addActionListener(timed("ui.exportReports", this::showExportReportsDialog));
+        exitButton.addActionListener(e -> exit(0));
+
+        frame.setVisible(true);
+    }
+
+    private void exit(int status) {
+        if (clock != null) {
+            clock.stop();
+            dashboard.stop();
+            metricsPanel.stop();
             frame.dispose();
-            try {
-                if (connection != null && !connection.isClosed()) {
-                    connection.close();
+        }
+        dataAccess.close();
+        if (offlineReconciler != null) {
+            offlineReconciler.close();
+            offlineJournal.close();
+        }
+        if (eventLog != null) {
+            eventLog.close();
+            eventLogMirror.close();
+        }
+        try {
+            if (pool != null) {
+                if (DUMP_METRICS_ON_EXIT) {
+                    System.out.println(pool.getMetrics());
+                    System.out.println("Patient " + patient.getCache());
+                    System.out.println("Doctor " + doctor.getCache());
+                    for (OperationMetrics operation : Metrics.operations()) {
+                        System.out.println(operation);
+                    }
                 }
-            } catch (Exception ex) {
-                ex.printStackTrace();
+                pool.close();
             }
-            System.exit(0);
-        });
-
-        frame.setVisible(true);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+        System.exit(status);
     }
 
     private JButton createStyledButton(String text, Color bgColor) {
         JButton button = new JButton(text);
         button.setBackground(bgColor);
         button.setForeground(Color.WHITE);
-        button.setFont(new Font("Arial", Font.BOLD, 16));
+        button.setFont(BUTTON_FONT);
         button.setFocusPainted(false);
         button.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(100, 100, 120), 2),
+            BorderFactory.createLineBorder(BORDER_COLOR, 2),
             BorderFactory.createEmptyBorder(10, 15, 10, 15)
         ));
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                button.setBackground(new Color(bgColor.getRed() + 20, bgColor.getGreen() + 20, bgColor.getBlue() + 20));
+        button.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        button.putClientProperty(BASE_COLOR, bgColor);
+        button.putClientProperty(HOVER_COLOR, new Color(Math.min(255, bgColor.getRed() + 20),
+                Math.min(255, bgColor.getGreen() + 20), Math.min(255, bgColor.getBlue() + 20)));
+        button.addMouseListener(BUTTON_HOVER);
+        return button;
+    }
+
+    private JLabel createFieldLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setForeground(Color.WHITE);
+        return label;
+    }
+
+    private JTextField createField() {
+        JTextField field = new JTextField();
+        field.setBackground(FIELD_BACKGROUND);
+        field.setForeground(Color.WHITE);
+        return field;
+    }
+
+    // The audit trail is written behind the callers; without it the application still runs
+    static EventLog openEventLog() {
+        try {
+            return EventLog.open(Path.of(System.getProperty("hms.eventlog.dir", "eventlog")));
+        } catch (IOException e) {
+            System.err.println("Audit event log unavailable: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Without the journal, writes fail while the database is unreachable instead of being queued
+    static OfflineJournal openOfflineJournal() {
+        try {
+            return OfflineJournal.open(Path.of(System.getProperty("hms.offline.dir", "offline")));
+        } catch (IOException e) {
+            System.err.println("Offline journal unavailable: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private void attachEventLog(EventLog eventLog) {
+        this.eventLog = eventLog;
+        patient.addListener(eventLog);
+        appointmentService.addListener(eventLog);
+        eventLogMirror = new EventLogMirror(pool, eventLog);
+        eventLogMirror.start(Long.getLong("hms.eventlog.mirrorSeconds", 10));
+    }
+
+    private void attachOfflineJournal(OfflineJournal offlineJournal) {
+        this.offlineJournal = offlineJournal;
+        patient.setOfflineJournal(offlineJournal);
+        appointmentService.setOfflineJournal(offlineJournal);
+        offlineReconciler = new OfflineReconciler(pool, offlineJournal, patient, appointmentService);
+        offlineReconciler.start(Long.getLong("hms.offline.retrySeconds", 5));
+        wasOffline = pool.isOffline();
+    }
+
+    // Runs every clock tick: shows queued writes, refreshes what was loaded while offline, reports conflicts
+    private void updateConnectionStatus() {
+        if (!databaseReady) {
+            return;
+        }
+        boolean offline = pool.isOffline();
+        int queued = offlineJournal == null ? 0 : offlineJournal.getPendingCount();
+        String text = offline ? "⚠ Offline: " + queued + " writes queued" : queued > 0 ? "Syncing " + queued + " queued writes" : "";
+        if (!text.equals(connectionLabel.getText())) {
+            connectionLabel.setText(text);
+        }
+        if (wasOffline && !offline) {
+            reloadSchedule();
+            dashboard.reload();
+        }
+        wasOffline = offline;
+        if (offlineReconciler != null) {
+            List<String> conflicts = offlineReconciler.takeConflicts();
+            if (!conflicts.isEmpty()) {
+                JOptionPane.showMessageDialog(frame, "Bookings made offline that could not be kept:\n" + String.join("\n", conflicts),
+                        "Offline Conflicts", JOptionPane.WARNING_MESSAGE);
             }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                button.setBackground(bgColor);
+        }
+    }
+
+    // Loads the doctors' calendars off the EDT; until then the database alone rejects taken slots
+    private void reloadSchedule() {
+        if (scheduleReloading) {
+            return;
+        }
+        scheduleReloading = true;
+        onEdt(dataAccess.submit(() -> {
+            schedulingEngine.reload();
+            return null;
+        }), result -> scheduleReloading = false, error -> {
+            scheduleReloading = false;
+            System.err.println("Failed to load the appointment schedule: " + error.getMessage());
+        });
+    }
+
+    /**
+     * Times a sidebar action on the EDT. The stop is queued behind the handler, so it runs once the
+     * window the handler opened is up; for a modal dialog that is when its own event loop starts.
+     */
+    private ActionListener timed(String name, Runnable handler) {
+        OperationMetrics action = Metrics.action(name, "Sidebar action, click to window shown");
+        return e -> {
+            long start = action.start();
+            SwingUtilities.invokeLater(() -> action.success(start, 0));
+            handler.run();
+        };
+    }
+
+    // Completes a background query back on the EDT; results of cancelled futures are dropped
+    private <T> void onEdt(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                return;
             }
+            SwingUtilities.invokeLater(() -> {
+                if (error == null) {
+                    onSuccess.accept(result);
+                } else {
+                    onError.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                }
+            });
         });
-        return button;
     }
 
+    private JLabel createLoadingLabel() {
+        JLabel loadingLabel = new JLabel("Loading...", SwingConstants.CENTER);
+        loadingLabel.setForeground(Color.WHITE);
+        loadingLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        return loadingLabel;
+    }
+
+
     private void showAddPatientDialog() {
-        JDialog dialog = new JDialog(frame, "Add Patient", true);
-        dialog.setSize(400, 300);
-        dialog.getContentPane().setBackground(new Color(40, 40, 60));
-        dialog.setLayout(new GridLayout(4, 2, 20, 20));
-        dialog.setLocationRelativeTo(frame);
+        if (addPatientDialog == null) {
+            addPatientDialog = new AddPatientDialog();
+        }
+        addPatientDialog.open();
+    }
 
-        JLabel nameLabel = new JLabel("Name:");
-        nameLabel.setForeground(Color.WHITE);
-        JTextField nameField = new JTextField();
-        nameField.setBackground(new Color(50, 50, 70));
-        nameField.setForeground(Color.WHITE);
-        JLabel ageLabel = new JLabel("Age:");
-        ageLabel.setForeground(Color.WHITE);
-        JTextField ageField = new JTextField();
-        ageField.setBackground(new Color(50, 50, 70));
-        ageField.setForeground(Color.WHITE);
-        JLabel genderLabel = new JLabel("Gender:");
-        genderLabel.setForeground(Color.WHITE);
-        JTextField genderField = new JTextField();
-        genderField.setBackground(new Color(50, 50, 70));
-        genderField.setForeground(Color.WHITE);
-        JButton submitButton = createStyledButton("✅ Submit", new Color(0, 128, 0));
-
-        dialog.add(nameLabel);
-        dialog.add(nameField);
-        dialog.add(ageLabel);
-        dialog.add(ageField);
-        dialog.add(genderLabel);
-        dialog.add(genderField);
-        dialog.add(new JLabel());
-        dialog.add(submitButton);
-
-        submitButton.addActionListener(e -> {
-            try {
-                String name = nameField.getText();
-                int age = Integer.parseInt(ageField.getText());
-                String gender = genderField.getText();
+    private final class AddPatientDialog {
+        private final JDialog dialog = new JDialog(frame, "Add Patient", true);
+        private final JTextField nameField = createField();
+        private final JTextField ageField = createField();
+        private final JTextField genderField = createField();
+        private final JButton submitButton = createStyledButton("✅ Submit", new Color(0, 128, 0));
 
-                if (name.isEmpty() || gender.isEmpty()) {
-                    JOptionPane.showMessageDialog(dialog, "All fields are required.", "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-                if (age < 0) {
-                    JOptionPane.showMessageDialog(dialog, "Age must be non-negative.", "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
+        AddPatientDialog() {
+            dialog.setSize(400, 300);
+            dialog.getContentPane().setBackground(PANEL_BACKGROUND);
+            dialog.setLayout(new GridLayout(4, 2, 20, 20));
+
+            dialog.add(createFieldLabel("Name:"));
+            dialog.add(nameField);
+            dialog.add(createFieldLabel("Age:"));
+            dialog.add(ageField);
+            dialog.add(createFieldLabel("Gender:"));
+            dialog.add(genderField);
+            dialog.add(new JLabel());
+            dialog.add(submitButton);
 
-                boolean success = patient.addPatient(name, age, gender);
-                if (success) {
+            submitButton.addActionListener(e -> submit());
+        }
+
+        void open() {
+            nameField.setText("");
+            ageField.setText("");
+            genderField.setText("");
+            dialog.setLocationRelativeTo(frame);
+            dialog.setVisible(true);
+        }
+
+        private void submit() {
+            String name = nameField.getText();
+            String gender = genderField.getText();
+            String validationError = PatientValidator.validate(name, ageField.getText(), gender);
+            if (validationError != null) {
+                JOptionPane.showMessageDialog(dialog, validationError, "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            int age = Integer.parseInt(ageField.getText().trim());
+
+            submitButton.setEnabled(false);
+            submitButton.setText("Saving...");
+            onEdt(dataAccess.createPatient(name, age, gender), id -> {
+                submitButton.setEnabled(true);
+                submitButton.setText("✅ Submit");
+                // Decided by what createPatient did, not by the offline flag, which the reconciler may flip meanwhile
+                if (id == 0) {
+                    JOptionPane.showMessageDialog(dialog, "The database is unreachable. The patient was saved and will be added when it is back.",
+                            "Saved Offline", JOptionPane.INFORMATION_MESSAGE);
+                    dialog.setVisible(false);
+                } else if (id > 0) {
                     JOptionPane.showMessageDialog(dialog, "Patient Added Successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    dialog.dispose();
+                    dialog.setVisible(false);
                 } else {
                     JOptionPane.showMessageDialog(dialog, "Failed to add patient.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (NumberFormatException ex) {
-                JOptionPane.showMessageDialog(dialog, "Please enter a valid age.", "Error", JOptionPane.ERROR_MESSAGE);
+            }, error -> {
+                submitButton.setEnabled(true);
+                submitButton.setText("✅ Submit");
+                JOptionPane.showMessageDialog(dialog, "Failed to add patient: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            });
+        }
+    }
+
+    private void showImportPatientsDialog() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Patients (CSV: name,age,gender)");
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV files", "csv"));
+        if (chooser.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path csvFile = chooser.getSelectedFile().toPath();
+        Path rejectFile = csvFile.resolveSibling(csvFile.getFileName() + ".rejected.csv");
+
+        JDialog dialog = new JDialog(frame, "Importing " + csvFile.getFileName(), false);
+        dialog.setSize(450, 180);
+        dialog.getContentPane().setBackground(new Color(40, 40, 60));
+        dialog.setLayout(new GridLayout(3, 1, 10, 10));
+        dialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        dialog.setLocationRelativeTo(frame);
+
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        JLabel statusLabel = createStatusLabel("Starting...");
+        JButton cancelButton = createStyledButton("✖ Cancel", new Color(160, 0, 0));
+        dialog.add(progressBar);
+        dialog.add(statusLabel);
+        dialog.add(cancelButton);
+
+        PatientImporter importer = new PatientImporter(pool, patient, IMPORT_BATCH_SIZE, IMPORT_COMMIT_INTERVAL);
+        CompletableFuture<ImportProgress> importFuture = dataAccess.submit(() ->
+                importer.importFile(csvFile, rejectFile, progress -> SwingUtilities.invokeLater(() -> {
+                    progressBar.setValue(progress.getPercentComplete());
+                    statusLabel.setText(progress.toString());
+                })));
+        cancelButton.addActionListener(e -> {
+            cancelButton.setEnabled(false);
+            statusLabel.setText("Cancelling after the current batch...");
+            importFuture.cancel(true);
+            dialog.dispose();
+        });
+        // Each committed row is announced to the caches, dashboard and patients window as it lands
+        onEdt(importFuture, result -> {
+            dialog.dispose();
+            String message = "Imported " + result.getRowsImported() + " patients (" + Math.round(result.getRowsPerSecond()) + " rows/s).";
+            if (result.getRowsRejected() > 0) {
+                message += "\n" + result.getRowsRejected() + " rows rejected, see " + rejectFile;
             }
+            JOptionPane.showMessageDialog(frame, message, "Import Complete", JOptionPane.INFORMATION_MESSAGE);
+        }, error -> {
+            dialog.dispose();
+            JOptionPane.showMessageDialog(frame, "Import failed: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
+
+        dialog.setVisible(true);
+    }
+
+    private void showExportReportsDialog() {
+        JComboBox<String> reportBox = new JComboBox<>(EXPORT_REPORTS);
+        JComboBox<ReportExporter.Format> formatBox = new JComboBox<>(ReportExporter.Format.values());
+        JTextField fromField = new JTextField(LocalDate.now().format(DATE_FORMATTER));
+        JTextField toField = new JTextField(LocalDate.now().format(DATE_FORMATTER));
+        JPanel form = new JPanel(new GridLayout(4, 2, 10, 10));
+        form.add(new JLabel("Report:"));
+        form.add(reportBox);
+        form.add(new JLabel("Format:"));
+        form.add(formatBox);
+        form.add(new JLabel("Rosters from (YYYY-MM-DD):"));
+        form.add(fromField);
+        form.add(new JLabel("Rosters to (YYYY-MM-DD):"));
+        form.add(toField);
+        if (JOptionPane.showConfirmDialog(frame, form, "Export Reports", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        int report = reportBox.getSelectedIndex();
+        ReportExporter.Format format = (ReportExporter.Format) formatBox.getSelectedItem();
+        boolean rosters = report == 3;
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(fromField.getText().trim(), DATE_FORMATTER);
+            to = LocalDate.parse(toField.getText().trim(), DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(frame, "Invalid date format. Use YYYY-MM-DD.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (rosters && to.isBefore(from)) {
+            JOptionPane.showMessageDialog(frame, "The roster range ends before it starts.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        if (rosters) {
+            chooser.setDialogTitle("Folder for the Doctor Rosters");
+            chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        } else {
+            chooser.setDialogTitle("Export " + EXPORT_REPORTS[report]);
+            chooser.setSelectedFile(new File(EXPORT_REPORTS[report].toLowerCase() + format.getExtension()));
+        }
+        if (chooser.showSaveDialog(frame) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path target = chooser.getSelectedFile().toPath();
+
+        JDialog dialog = new JDialog(frame, "Exporting " + EXPORT_REPORTS[report], false);
+        dialog.setSize(450, 180);
+        dialog.getContentPane().setBackground(new Color(40, 40, 60));
+        dialog.setLayout(new GridLayout(3, 1, 10, 10));
+        dialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        dialog.setLocationRelativeTo(frame);
+
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        JLabel statusLabel = createStatusLabel("Starting...");
+        JButton cancelButton = createStyledButton("✖ Cancel", new Color(160, 0, 0));
+        dialog.add(progressBar);
+        dialog.add(statusLabel);
+        dialog.add(cancelButton);
+
+        // Roster workers each hold a connection, so leave half the pool to the rest of the application
+        ReportExporter exporter = new ReportExporter(pool, EXPORT_FETCH_SIZE,
+                Integer.getInteger("hms.export.parallelism", Math.max(1, pool.getMaxSize() / 2)));
+        Consumer<ExportProgress> progressListener = progress -> SwingUtilities.invokeLater(() -> {
+            progressBar.setValue(progress.getPercentComplete());
+            statusLabel.setText(progress.toString());
+        });
+        CompletableFuture<ExportProgress> exportFuture = dataAccess.submit(() -> switch (report) {
+            case 0 -> exporter.exportPatients(target, format, progressListener);
+            case 1 -> exporter.exportDoctors(target, format, progressListener);
+            case 2 -> exporter.exportAppointments(target, format, progressListener);
+            default -> exporter.exportRosters(from, to, target, format, progressListener);
+        });
+        cancelButton.addActionListener(e -> {
+            cancelButton.setEnabled(false);
+            exportFuture.cancel(true);
+            dialog.dispose();
+        });
+        onEdt(exportFuture, result -> {
+            dialog.dispose();
+            String message = rosters
+                    ? "Wrote " + result.getFilesWritten() + " rosters (" + result.getRowsWritten() + " appointments) to " + target + "."
+                    : String.format("Exported %d rows (%.1f MB at %.1f MB/s) to %s.", result.getRowsWritten(),
+                    result.getBytesWritten() / 1e6, result.getMegabytesPerSecond(), target);
+            JOptionPane.showMessageDialog(frame, message, "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+        }, error -> {
+            dialog.dispose();
+            JOptionPane.showMessageDialog(frame, "Export failed: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         });
 
         dialog.setVisible(true);
     }
 
     private void showViewPatientsWindow() {
-        JFrame viewFrame = new JFrame("View Patients");
-        viewFrame.setSize(700, 500);
-        viewFrame.getContentPane().setBackground(new Color(30, 30, 50));
-        viewFrame.setLocationRelativeTo(frame);
+        if (patientsWindow == null) {
+            patientsWindow = new PatientsWindow();
+        }
+        patientsWindow.open();
+    }
 
-        String[] columns = {"ID", "Name", "Age", "Gender"};
-        List<String[]> patients = patient.viewPatients();
-        String[][] data = patients.toArray(new String[0][0]);
+    // While hidden the window keeps no pages; opening it again re-counts and fetches from the top
+    private final class PatientsWindow {
+        private final JFrame viewFrame = new JFrame("View Patients");
+        private final PatientPageTableModel pagedModel = new PatientPageTableModel(patient, dataAccess, PATIENT_PAGE_SIZE, PATIENT_CACHED_PAGES);
+        private final JTable table = createTable(pagedModel);
+        private final JLabel statusLabel = createStatusLabel("Loading...");
+        private final JTextField searchField;
 
-        DefaultTableModel model = new DefaultTableModel(data, columns);
-        JTable table = new JTable(model);
-        table.setBackground(new Color(50, 50, 70));
-        table.setForeground(Color.WHITE);
-        table.setFont(new Font("Arial", Font.PLAIN, 14));
-        table.setRowHeight(30);
-        table.setGridColor(new Color(70, 70, 90));
-        JScrollPane scrollPane = new JScrollPane(table);
-        scrollPane.setBorder(BorderFactory.createLineBorder(new Color(100, 100, 120), 2));
-        viewFrame.add(scrollPane, BorderLayout.CENTER);
+        PatientsWindow() {
+            viewFrame.setSize(700, 500);
+            viewFrame.getContentPane().setBackground(WINDOW_BACKGROUND);
+            viewFrame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+
+            searchField = createSearchField("Name prefix, plus optional age:20-40 and gender:F", text -> {
+                if (text.isBlank()) {
+                    setTableModel(table, pagedModel);
+                    statusLabel.setText(pagedModel.getRowCount() + " patients");
+                    return null;
+                }
+                String namePrefix = "";
+                Integer minAge = null;
+                Integer maxAge = null;
+                String gender = null;
+                for (String token : text.trim().split("\\s+")) {
+                    if (token.startsWith("age:")) {
+                        String[] range = token.substring(4).split("-", -1);
+                        try {
+                            minAge = range[0].isEmpty() ? null : Integer.valueOf(range[0]);
+                            maxAge = range.length == 1 ? minAge : (range[1].isEmpty() ? null : Integer.valueOf(range[1]));
+                        } catch (NumberFormatException ex) {
+                            statusLabel.setText("Invalid age range: " + token);
+                            return null;
+                        }
+                    } else if (token.startsWith("gender:")) {
+                        gender = token.substring(7);
+                    } else {
+                        namePrefix = namePrefix.isEmpty() ? token : namePrefix + " " + token;
+                    }
+                }
+                ColumnarTableModel<PatientRecord> results = createPatientModel();
+                setTableModel(table, results);
+                statusLabel.setText("Searching...");
+                CompletableFuture<Integer> search = dataAccess.searchPatients(namePrefix, minAge, maxAge, gender,
+                        SEARCH_BATCH_SIZE, SEARCH_MAX_RESULTS, batch -> appendBatch(table, results, batch));
+                onEdt(search, found -> {
+                    if (table.getModel() == results) {
+                        statusLabel.setText(found + " matches" + (found >= SEARCH_MAX_RESULTS ? " (showing first " + SEARCH_MAX_RESULTS + ")" : ""));
+                    }
+                }, error -> statusLabel.setText("Search failed: " + error.getMessage()));
+                return search;
+            });
 
-        viewFrame.setVisible(true);
+            JScrollPane scrollPane = new JScrollPane(table);
+            scrollPane.setBorder(BorderFactory.createLineBorder(BORDER_COLOR, 2));
+            viewFrame.add(searchField, BorderLayout.NORTH);
+            viewFrame.add(scrollPane, BorderLayout.CENTER);
+            viewFrame.add(statusLabel, BorderLayout.SOUTH);
+
+            viewFrame.addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentHidden(ComponentEvent e) {
+                    pagedModel.close();
+                }
+            });
+            pagedModel.setPageErrorHandler(error -> {
+                if (table.getModel() == pagedModel) {
+                    statusLabel.setText("Failed to load rows, scroll to retry: " + error.getMessage());
+                }
+            });
+            // Imports and offline replays add patients in bursts, so additions are counted here
+            // and handed to the table in one event
+            AtomicInteger added = new AtomicInteger();
+            patient.addListener(new HospitalEventListener() {
+                @Override
+                public void patientAdded(int patientId) {
+                    if (added.getAndIncrement() == 0) {
+                        SwingUtilities.invokeLater(() -> {
+                            pagedModel.patientsAdded(added.getAndSet(0));
+                            if (table.getModel() == pagedModel) {
+                                statusLabel.setText(pagedModel.getRowCount() + " patients");
+                            }
+                        });
+                    }
+                }
+            });
+        }
+
+        void open() {
+            if (!searchField.getText().isEmpty()) {
+                searchField.setText("");
+            }
+            setTableModel(table, pagedModel);
+            statusLabel.setText("Loading...");
+            onEdt(pagedModel.load(), total -> {
+                if (table.getModel() == pagedModel) {
+                    statusLabel.setText(total + " patients");
+                }
+            }, error -> statusLabel.setText("Failed to load patients: " + error.getMessage()));
+            viewFrame.setLocationRelativeTo(frame);
+            viewFrame.setVisible(true);
+        }
     }
 
     private void showViewDoctorsWindow() {
-        JFrame viewFrame = new JFrame("View Doctors");
-        viewFrame.setSize(700, 500);
-        viewFrame.getContentPane().setBackground(new Color(30, 30, 50));
-        viewFrame.setLocationRelativeTo(frame);
+        if (doctorsWindow == null) {
+            doctorsWindow = new DoctorsWindow();
+        }
+        doctorsWindow.open();
+    }
+
+    private final class DoctorsWindow {
+        private final JFrame viewFrame = new JFrame("View Doctors");
+        private final ColumnarTableModel<DoctorRecord> allDoctors = createDoctorModel();
+        private final JTable table = createTable(allDoctors);
+        private final JLabel statusLabel = createStatusLabel("Loading...");
+        private final JTextField searchField;
+        private Future<?> loading;
 
-        String[] columns = {"ID", "Name", "Specialization"};
-        List<String[]> doctors = doctor.viewDoctors();
-        String[][] data = doctors.toArray(new String[0][0]);
+        DoctorsWindow() {
+            viewFrame.setSize(700, 500);
+            viewFrame.getContentPane().setBackground(WINDOW_BACKGROUND);
+            viewFrame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
 
-        DefaultTableModel model = new DefaultTableModel(data, columns);
-        JTable table = new JTable(model);
+            searchField = createSearchField("Name prefix, plus optional spec:cardio", text -> {
+                if (text.isBlank()) {
+                    setTableModel(table, allDoctors);
+                    statusLabel.setText(allDoctors.getRowCount() + " doctors");
+                    return null;
+                }
+                String namePrefix = "";
+                String specialization = null;
+                for (String token : text.trim().split("\\s+")) {
+                    if (token.startsWith("spec:")) {
+                        specialization = token.substring(5);
+                    } else {
+                        namePrefix = namePrefix.isEmpty() ? token : namePrefix + " " + token;
+                    }
+                }
+                ColumnarTableModel<DoctorRecord> results = createDoctorModel();
+                setTableModel(table, results);
+                statusLabel.setText("Searching...");
+                CompletableFuture<Integer> search = dataAccess.searchDoctors(namePrefix, specialization,
+                        SEARCH_BATCH_SIZE, SEARCH_MAX_RESULTS, batch -> appendBatch(table, results, batch));
+                onEdt(search, found -> {
+                    if (table.getModel() == results) {
+                        statusLabel.setText(found + " matches");
+                    }
+                }, error -> statusLabel.setText("Search failed: " + error.getMessage()));
+                return search;
+            });
+
+            JScrollPane scrollPane = new JScrollPane(table);
+            scrollPane.setBorder(BorderFactory.createLineBorder(BORDER_COLOR, 2));
+            viewFrame.add(searchField, BorderLayout.NORTH);
+            viewFrame.add(scrollPane, BorderLayout.CENTER);
+            viewFrame.add(statusLabel, BorderLayout.SOUTH);
+
+            viewFrame.addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentHidden(ComponentEvent e) {
+                    if (loading != null) {
+                        loading.cancel(true);
+                    }
+                }
+            });
+        }
+
+        // The roster is cached by Doctor, so reopening usually refills without a query
+        void open() {
+            if (!searchField.getText().isEmpty()) {
+                searchField.setText("");
+            }
+            setTableModel(table, allDoctors);
+            allDoctors.clear();
+            statusLabel.setText("Loading...");
+            CompletableFuture<List<DoctorRecord>> doctorsFuture = dataAccess.viewDoctors();
+            loading = doctorsFuture;
+            onEdt(doctorsFuture, doctors -> {
+                long start = TABLE_FILL.start();
+                allDoctors.append(doctors);
+                TABLE_FILL.success(start, doctors.size());
+                if (table.getModel() == allDoctors) {
+                    statusLabel.setText(doctors.size() + " doctors");
+                }
+            }, error -> statusLabel.setText("Failed to load doctors: " + error.getMessage()));
+            viewFrame.setLocationRelativeTo(frame);
+            viewFrame.setVisible(true);
+        }
+    }
+
+    private JTable createTable(TableModel model) {
+        JTable table = ColumnarCellRenderer.createTable(model);
         table.setBackground(new Color(50, 50, 70));
         table.setForeground(Color.WHITE);
         table.setFont(new Font("Arial", Font.PLAIN, 14));
         table.setRowHeight(30);
         table.setGridColor(new Color(70, 70, 90));
-        JScrollPane scrollPane = new JScrollPane(table);
-        scrollPane.setBorder(BorderFactory.createLineBorder(new Color(100, 100, 120), 2));
-        viewFrame.add(scrollPane, BorderLayout.CENTER);
+        return table;
+    }
+
+    private JLabel createStatusLabel(String text) {
+        JLabel statusLabel = new JLabel(text);
+        statusLabel.setForeground(Color.WHITE);
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        return statusLabel;
+    }
+
+    private static ColumnarTableModel<PatientRecord> createPatientModel() {
+        return new ColumnarTableModel<>(
+                ColumnarTableModel.intColumn("ID", PatientRecord::id),
+                ColumnarTableModel.textColumn("Name", PatientRecord::name),
+                ColumnarTableModel.intColumn("Age", PatientRecord::age),
+                ColumnarTableModel.dictionaryColumn("Gender", PatientRecord::gender));
+    }
+
+    private static ColumnarTableModel<DoctorRecord> createDoctorModel() {
+        return new ColumnarTableModel<>(
+                ColumnarTableModel.intColumn("ID", DoctorRecord::id),
+                ColumnarTableModel.textColumn("Name", DoctorRecord::name),
+                ColumnarTableModel.dictionaryColumn("Specialization", DoctorRecord::specialization));
+    }
+
+    // Columnar models sort on header clicks and keep the current sort order across searches; the
+    // paged model is always in id order
+    private void setTableModel(JTable table, TableModel model) {
+        RowSorter<? extends TableModel> previous = table.getRowSorter();
+        table.setRowSorter(null);
+        table.setModel(model);
+        if (model instanceof ColumnarTableModel<?> columnar) {
+            ColumnarRowSorter sorter = new ColumnarRowSorter(columnar);
+            if (previous != null) {
+                sorter.setSortKeys(previous.getSortKeys());
+            }
+            table.setRowSorter(sorter);
+        }
+    }
+
+    // Called on a data-access thread; rows are dropped if the table has moved on to a newer search
+    private <T> void appendBatch(JTable table, ColumnarTableModel<T> results, List<T> batch) {
+        SwingUtilities.invokeLater(() -> {
+            if (table.getModel() != results) {
+                return;
+            }
+            long start = TABLE_FILL.start();
+            results.append(batch);
+            TABLE_FILL.success(start, batch.size());
+        });
+    }
+
+    // Search-as-you-type: keystrokes restart a short timer, and each new search cancels the one still running
+    private JTextField createSearchField(String hint, Function<String, Future<?>> search) {
+        JTextField searchField = new JTextField();
+        searchField.setBackground(new Color(50, 50, 70));
+        searchField.setForeground(Color.WHITE);
+        searchField.setCaretColor(Color.WHITE);
+        searchField.setFont(new Font("Arial", Font.PLAIN, 14));
+        searchField.setToolTipText(hint);
+        searchField.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(new Color(100, 100, 120), 2),
+            BorderFactory.createEmptyBorder(5, 10, 5, 10)
+        ));
 
-        viewFrame.setVisible(true);
+        Future<?>[] inFlight = new Future<?>[1];
+        Timer debounce = new Timer(SEARCH_DEBOUNCE_MILLIS, e -> {
+            if (inFlight[0] != null) {
+                inFlight[0].cancel(true);
+            }
+            inFlight[0] = search.apply(searchField.getText());
+        });
+        debounce.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+        });
+        searchField.addHierarchyListener(e -> {
+            if (!searchField.isShowing() && (e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                debounce.stop();
+                if (inFlight[0] != null) {
+                    inFlight[0].cancel(true);
+                }
+            }
+        });
+        return searchField;
     }
 
     private void showBookAppointmentDialog() {
-        JDialog dialog = new JDialog(frame, "Book Appointment", true);
-        dialog.setSize(400, 300);
-        dialog.getContentPane().setBackground(new Color(40, 40, 60));
-        dialog.setLayout(new GridLayout(4, 2, 20, 20));
-        dialog.setLocationRelativeTo(frame);
+        if (bookAppointmentDialog == null) {
+            bookAppointmentDialog = new BookAppointmentDialog();
+        }
+        bookAppointmentDialog.open();
+    }
+
+    private final class BookAppointmentDialog {
+        private final JDialog dialog = new JDialog(frame, "Book Appointment", true);
+        private final JTextField patientIdField = createField();
+        private final JTextField doctorIdField = createField();
+        private final JTextField dateField = createField();
+        private final JTextField timeField = createField();
+        private final JButton submitButton = createStyledButton("📅 Book", new Color(128, 0, 128));
+        private final JButton suggestButton = createStyledButton("🔎 Next Free", new Color(0, 100, 160));
+
+        BookAppointmentDialog() {
+            dialog.setSize(400, 360);
+            dialog.getContentPane().setBackground(PANEL_BACKGROUND);
+            dialog.setLayout(new GridLayout(5, 2, 20, 20));
+
+            dialog.add(createFieldLabel("Patient ID:"));
+            dialog.add(patientIdField);
+            dialog.add(createFieldLabel("Doctor ID:"));
+            dialog.add(doctorIdField);
+            dialog.add(createFieldLabel("Date (YYYY-MM-DD):"));
+            dialog.add(dateField);
+            dialog.add(createFieldLabel("Time (HH:MM, blank = first free):"));
+            dialog.add(timeField);
+            dialog.add(suggestButton);
+            dialog.add(submitButton);
+
+            suggestButton.addActionListener(e -> suggest());
+            submitButton.addActionListener(e -> submit());
+        }
 
-        JLabel patientIdLabel = new JLabel("Patient ID:");
-        patientIdLabel.setForeground(Color.WHITE);
-        JTextField patientIdField = new JTextField();
-        patientIdField.setBackground(new Color(50, 50, 70));
-        patientIdField.setForeground(Color.WHITE);
-        JLabel doctorIdLabel = new JLabel("Doctor ID:");
-        doctorIdLabel.setForeground(Color.WHITE);
-        JTextField doctorIdField = new JTextField();
-        doctorIdField.setBackground(new Color(50, 50, 70));
-        doctorIdField.setForeground(Color.WHITE);
-        JLabel dateLabel = new JLabel("Date (YYYY-MM-DD):");
-        dateLabel.setForeground(Color.WHITE);
-        JTextField dateField = new JTextField(LocalDate.now().format(DATE_FORMATTER));
-        dateField.setBackground(new Color(50, 50, 70));
-        dateField.setForeground(Color.WHITE);
-        JButton submitButton = createStyledButton("📅 Book", new Color(128, 0, 128));
-
-        dialog.add(patientIdLabel);
-        dialog.add(patientIdField);
-        dialog.add(doctorIdLabel);
-        dialog.add(doctorIdField);
-        dialog.add(dateLabel);
-        dialog.add(dateField);
-        dialog.add(new JLabel());
-        dialog.add(submitButton);
-
-        submitButton.addActionListener(e -> {
+        void open() {
+            patientIdField.setText("");
+            doctorIdField.setText("");
+            dateField.setText(LocalDate.now().format(DATE_FORMATTER));
+            timeField.setText("");
+            submitButton.setEnabled(true);
+            dialog.setLocationRelativeTo(frame);
+            dialog.setVisible(true);
+        }
+
+        // With a doctor ID, that doctor's next open slot; without one, the earliest across a specialization
+        private void suggest() {
+            LocalDate from;
+            try {
+                from = LocalDate.parse(dateField.getText().trim(), DATE_FORMATTER);
+            } catch (Exception ex) {
+                from = LocalDate.now();
+            }
+            if (schedulingEngine.getAvailabilityIndex().getFirstDay() == null) {
+                JOptionPane.showMessageDialog(dialog, "The schedule is still loading, try again in a moment.", "Please wait", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            AppointmentSlot slot;
+            String doctorText = doctorIdField.getText().trim();
+            if (doctorText.isEmpty()) {
+                String specialization = JOptionPane.showInputDialog(dialog, "Specialization:", "Next Free Slot", JOptionPane.QUESTION_MESSAGE);
+                if (specialization == null || specialization.trim().isEmpty()) {
+                    return;
+                }
+                slot = schedulingEngine.firstFreeSlot(specialization.trim(), from.atStartOfDay());
+            } else {
+                try {
+                    slot = schedulingEngine.firstFreeSlot(Integer.parseInt(doctorText), from.atStartOfDay());
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(dialog, "Please enter a valid doctor ID.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+            }
+            if (slot == null) {
+                JOptionPane.showMessageDialog(dialog, "No free slot found in the booking horizon.", "No Availability", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                doctorIdField.setText(String.valueOf(slot.doctorId()));
+                dateField.setText(slot.date().format(DATE_FORMATTER));
+                timeField.setText(slot.time().toString());
+            }
+        }
+
+        private void submit() {
             try {
                 int patientId = Integer.parseInt(patientIdField.getText());
                 int doctorId = Integer.parseInt(doctorIdField.getText());
@@ -302,52 +1053,46 @@ public class HospitalManagementGUI {
                     return;
                 }
 
-                if (patient.getPatientById(patientId) && doctor.getDoctorById(doctorId)) {
-                    if (checkDoctorAvailability(doctorId, appointmentDate)) {
-                        String query = "INSERT INTO appointments(patient_id, doctor_id, appointment_date) VALUES(?, ?, ?)";
-                        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-                            preparedStatement.setInt(1, patientId);
-                            preparedStatement.setInt(2, doctorId);
-                            preparedStatement.setString(3, appointmentDate);
-                            int rowsAffected = preparedStatement.executeUpdate();
-                            if (rowsAffected > 0) {
-                                JOptionPane.showMessageDialog(dialog, "Appointment Booked!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                                dialog.dispose();
-                            } else {
-                                JOptionPane.showMessageDialog(dialog, "Failed to book appointment.", "Error", JOptionPane.ERROR_MESSAGE);
-                            }
-                        } catch (SQLException ex) {
-                            JOptionPane.showMessageDialog(dialog, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                        }
-                    } else {
-                        JOptionPane.showMessageDialog(dialog, "Doctor not available on this date.", "Error", JOptionPane.ERROR_MESSAGE);
+                LocalTime appointmentTime;
+                if (timeField.getText().trim().isEmpty()) {
+                    AppointmentSlot slot = schedulingEngine.firstFreeSlot(doctorId, appointmentDateObj.atStartOfDay());
+                    if (slot == null || !slot.date().equals(appointmentDateObj)) {
+                        JOptionPane.showMessageDialog(dialog, "No free slot left for this doctor on that date.", "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
                     }
+                    appointmentTime = slot.time();
+                    timeField.setText(appointmentTime.toString());
                 } else {
-                    JOptionPane.showMessageDialog(dialog, "Either patient or doctor doesn't exist.", "Error", JOptionPane.ERROR_MESSAGE);
+                    try {
+                        appointmentTime = LocalTime.parse(timeField.getText().trim());
+                    } catch (DateTimeParseException ex) {
+                        JOptionPane.showMessageDialog(dialog, "Invalid time format. Use HH:MM.", "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
                 }
+
+                submitButton.setEnabled(false);
+                onEdt(dataAccess.submit(() -> appointmentService.bookAppointment(patientId, doctorId, appointmentDateObj, appointmentTime)), result -> {
+                    submitButton.setEnabled(true);
+                    if (result == BookingResult.BOOKED) {
+                        JOptionPane.showMessageDialog(dialog, result.getMessage() + " " + appointmentDateObj.format(DATE_FORMATTER) + " at " + appointmentTime,
+                                "Success", JOptionPane.INFORMATION_MESSAGE);
+                        dialog.setVisible(false);
+                    } else if (result == BookingResult.QUEUED) {
+                        JOptionPane.showMessageDialog(dialog, result.getMessage(), "Saved Offline", JOptionPane.INFORMATION_MESSAGE);
+                        dialog.setVisible(false);
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, result.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, error -> {
+                    submitButton.setEnabled(true);
+                    JOptionPane.showMessageDialog(dialog, "Database error: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                });
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(dialog, "Please enter valid IDs.", "Error", JOptionPane.ERROR_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(dialog, "Invalid date format. Use YYYY-MM-DD.", "Error", JOptionPane.ERROR_MESSAGE);
             }
-        });
-
-        dialog.setVisible(true);
-    }
-
-    private boolean checkDoctorAvailability(int doctorId, String appointmentDate) {
-        String query = "SELECT COUNT(*) FROM appointments WHERE doctor_id = ? AND appointment_date = ?";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setInt(1, doctorId);
-            preparedStatement.setString(2, appointmentDate);
-            ResultSet resultSet = preparedStatement.executeQuery();
-            if (resultSet.next()) {
-                int count = resultSet.getInt(1);
-                return count == 0;
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
-        return false;
     }
 }
\ No newline at end of file
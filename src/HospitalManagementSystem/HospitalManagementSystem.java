@@ -1,30 +1,144 @@
 package HospitalManagementSystem;
 
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.sql.*;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 public class HospitalManagementSystem {
-    private static final String url = "jdbc:mysql://localhost:3306/hospital";
-    private static final String username = "root";
-    private static final String password = "toor";
+    private static final String url = System.getProperty("hms.jdbc.url",
+            "jdbc:mysql://localhost:3306/hospital?rewriteBatchedStatements=true");
+    private static final String username = System.getProperty("hms.jdbc.username", "root");
+    private static final String password = System.getProperty("hms.jdbc.password", "toor");
+    private static final int poolSize = Integer.getInteger("hms.pool.size", 10);
+    // Show the frame first and connect behind it; false connects before the frame appears
+    private static final boolean stagedStartup = Boolean.parseBoolean(System.getProperty("hms.startup.staged", "true"));
+    // Falls back to class initialization when the OS does not report the process start
+    private static final long processStartMillis = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
 
+    static final OperationMetrics STARTUP_FRAME = Metrics.action("startup.firstFrame",
+            "Process start to the main frame shown");
+    static final OperationMetrics STARTUP_DATABASE = Metrics.action("startup.databaseReady",
+            "Process start to connected, migrated and validated (or offline)");
+    static final OperationMetrics STARTUP_FIRST_QUERY = Metrics.action("startup.firstQuery",
+            "Process start to the dashboard's first data on screen");
+
+    // No arguments starts the GUI; "--server [port]" starts the headless HTTP server instead
     public static void main(String[] args) {
-        Connection connection = null;
+        ConnectionPool pool = new ConnectionPool(url, username, password, poolSize);
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer(pool, args.length > 1 ? Integer.parseInt(args[1]) : Integer.getInteger("hms.server.port", 8080));
+            return;
+        }
+        HospitalManagementGUI gui = new HospitalManagementGUI(pool);
+        if (stagedStartup) {
+            SwingUtilities.invokeLater(gui::show);
+        }
         try {
-            System.out.println("Attempting to load MySQL driver...");
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            System.out.println("Driver loaded successfully. Attempting to connect...");
-            connection = DriverManager.getConnection(url, username, password);
-            System.out.println("Successfully connected to the database.");
-
-            // Start the GUI
-            new HospitalManagementGUI(connection);
-
+            connect(pool);
         } catch (ClassNotFoundException e) {
             System.err.println("MySQL JDBC Driver not found: " + e.getMessage());
             e.printStackTrace();
+            SwingUtilities.invokeLater(() -> gui.databaseFailed(e));
+            return;
         } catch (SQLException e) {
             System.err.println("Database connection failed: " + e.getMessage());
             e.printStackTrace();
+            SwingUtilities.invokeLater(() -> gui.databaseFailed(e));
+            return;
+        }
+        STARTUP_DATABASE.successElapsed(sinceProcessStartNanos(), 0);
+        // Opened here rather than on the EDT, which keeps painting while they scan and repair their files
+        EventLog eventLog = HospitalManagementGUI.openEventLog();
+        OfflineJournal offlineJournal = HospitalManagementGUI.openOfflineJournal();
+        SwingUtilities.invokeLater(() -> {
+            if (!stagedStartup) {
+                gui.show();
+            }
+            gui.databaseReady(eventLog, offlineJournal);
+        });
+    }
+
+    // Same services, journal and audit log as the GUI; runs until the process is stopped
+    private static void runServer(ConnectionPool pool, int port) {
+        try {
+            connect(pool);
+        } catch (ClassNotFoundException | SQLException e) {
+            System.err.println("Database connection failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+        Patient patient = new Patient(pool);
+        Doctor doctor = new Doctor(pool);
+        SchedulingEngine schedulingEngine = new SchedulingEngine(pool, doctor, new AvailabilityIndex());
+        AppointmentService appointmentService = new AppointmentService(pool, schedulingEngine);
+        try {
+            schedulingEngine.reload();
+        } catch (SQLException e) {
+            // Bookings are still checked by the database's unique key
+            System.err.println("Failed to load the appointment schedule: " + e.getMessage());
+        }
+        EventLog eventLog;
+        OfflineJournal offlineJournal;
+        HospitalServer server;
+        try {
+            eventLog = EventLog.open(Path.of(System.getProperty("hms.eventlog.dir", "eventlog")));
+            offlineJournal = OfflineJournal.open(Path.of(System.getProperty("hms.offline.dir", "offline")));
+            server = new HospitalServer(new InetSocketAddress(port), patient, doctor, appointmentService, poolSize * 4);
+        } catch (IOException e) {
+            System.err.println("Failed to start the server: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+            return;
+        }
+        patient.addListener(eventLog);
+        appointmentService.addListener(eventLog);
+        EventLogMirror eventLogMirror = new EventLogMirror(pool, eventLog);
+        eventLogMirror.start(Long.getLong("hms.eventlog.mirrorSeconds", 10));
+        patient.setOfflineJournal(offlineJournal);
+        appointmentService.setOfflineJournal(offlineJournal);
+        OfflineReconciler offlineReconciler = new OfflineReconciler(pool, offlineJournal, patient, appointmentService);
+        offlineReconciler.start(Long.getLong("hms.offline.retrySeconds", 5));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            offlineReconciler.close();
+            offlineJournal.close();
+            eventLogMirror.close();
+            eventLog.close();
+            pool.close();
+        }, "server-shutdown"));
+        server.start();
+        System.out.println("Serving HTTP on port " + server.getPort() + (pool.isOffline() ? " (database offline)" : ""));
+    }
+
+    static long sinceProcessStartNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - processStartMillis);
+    }
+
+    // Runs on the main thread while the EDT shows the frame
+    private static void connect(ConnectionPool pool) throws ClassNotFoundException, SQLException {
+        System.out.println("Attempting to load MySQL driver...");
+        Class.forName("com.mysql.cj.jdbc.Driver");
+        System.out.println("Driver loaded successfully. Attempting to connect...");
+        // Borrow once up front so a bad URL or credentials still fail at startup; an unreachable
+        // server does not, and the OfflineReconciler migrates once it is back. The probe connection
+        // goes back to the pool before migrating, since the migrator borrows its own
+        try {
+            pool.getConnection().close();
+            System.out.println("Successfully connected to the database.");
+            SchemaMigrator migrator = new SchemaMigrator(pool);
+            migrator.migrate();
+            migrator.validate();
+        } catch (SQLException e) {
+            if (!ConnectionPool.isConnectionFailure(e)) {
+                throw e;
+            }
+            System.err.println("Database unreachable (" + e.getMessage() + "); starting offline.");
+            pool.markOffline();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,400 @@
+package HospitalManagementSystem;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Headless HTTP front end for kiosks and web clients, over the same {@link Patient}, {@link Doctor}
+ * and {@link AppointmentService} the GUI uses. Requests and responses are JSON:
+ *
+ * <pre>
+ *   POST /patients                         {"name": "Ann Lee", "age": 34, "gender": "F"}
+ *   GET  /patients?name=&amp;minAge=&amp;maxAge=&amp;gender=&amp;limit=
+ *   GET  /doctors?name=&amp;specialization=&amp;limit=
+ *   GET  /doctors/{id}/availability?date=2024-05-02[&amp;time=09:30]
+ *   POST /appointments                     {"patientId": 1, "doctorId": 2, "date": "2024-05-02", "time": "09:30"}
+ * </pre>
+ *
+ * The list endpoints stream a JSON array, writing each batch as the database returns it, so a
+ * large result is never held in memory. Requests run on virtual threads when the runtime has them,
+ * otherwise on a fixed pool (see {@link AsyncDataAccess}).
+ */
+public class HospitalServer implements AutoCloseable {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int DEFAULT_LIMIT = 1000;
+    private static final int MAX_LIMIT = Integer.getInteger("hms.server.maxResults", 1_000_000);
+    private static final Pattern AVAILABILITY_PATH = Pattern.compile("/doctors/(\\d+)/availability");
+
+    private static final OperationMetrics ADD_PATIENT = Metrics.action("http.addPatient", "POST /patients");
+    private static final OperationMetrics SEARCH_PATIENTS = Metrics.action("http.searchPatients", "GET /patients, until the last row is sent");
+    private static final OperationMetrics SEARCH_DOCTORS = Metrics.action("http.searchDoctors", "GET /doctors, until the last row is sent");
+    private static final OperationMetrics AVAILABILITY = Metrics.action("http.availability", "GET /doctors/{id}/availability");
+    private static final OperationMetrics BOOK = Metrics.action("http.book", "POST /appointments");
+
+    private final Patient patient;
+    private final Doctor doctor;
+    private final AppointmentService appointmentService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public HospitalServer(InetSocketAddress address, Patient patient, Doctor doctor, AppointmentService appointmentService,
+                          int fallbackThreads) throws IOException {
+        this.patient = patient;
+        this.doctor = doctor;
+        this.appointmentService = appointmentService;
+        this.executor = AsyncDataAccess.createExecutor("http", fallbackThreads);
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::dispatch);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void dispatch(HttpExchange exchange) {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        Matcher availability = AVAILABILITY_PATH.matcher(path);
+        if (path.equals("/patients") && method.equals("POST")) {
+            handle(exchange, ADD_PATIENT, this::addPatient);
+        } else if (path.equals("/patients") && method.equals("GET")) {
+            handle(exchange, SEARCH_PATIENTS, this::searchPatients);
+        } else if (path.equals("/doctors") && method.equals("GET")) {
+            handle(exchange, SEARCH_DOCTORS, this::searchDoctors);
+        } else if (availability.matches() && method.equals("GET")) {
+            handle(exchange, AVAILABILITY, e -> availability(e, Integer.parseInt(availability.group(1))));
+        } else if (path.equals("/appointments") && method.equals("POST")) {
+            handle(exchange, BOOK, this::book);
+        } else {
+            boolean known = path.equals("/patients") || path.equals("/doctors") || availability.matches() || path.equals("/appointments");
+            handle(exchange, null, e -> {
+                throw known ? new HttpError(405, "Method not allowed.") : new HttpError(404, "Not found.");
+            });
+        }
+    }
+
+    // Turns what a handler throws into a JSON error. Once a stream has started, a failure can only cut it short
+    private void handle(HttpExchange exchange, OperationMetrics metrics, Handler handler) {
+        long start = metrics == null ? 0 : metrics.start();
+        boolean failed = false;
+        try {
+            handler.handle(exchange);
+        } catch (HttpError e) {
+            failed = e.status >= 500;
+            sendError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException | DateTimeException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (SQLException e) {
+            failed = true;
+            if (ConnectionPool.isConnectionFailure(e)) {
+                sendError(exchange, 503, "The database is unreachable.");
+            } else {
+                e.printStackTrace();
+                sendError(exchange, 500, "Database error.");
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // The client went away
+            failed = true;
+        } catch (RuntimeException e) {
+            failed = true;
+            e.printStackTrace();
+            sendError(exchange, 500, "Internal error.");
+        } finally {
+            exchange.close();
+        }
+        if (metrics != null) {
+            if (failed) {
+                metrics.failure(start);
+            } else {
+                metrics.success(start, 0);
+            }
+        }
+    }
+
+    private void addPatient(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String name = text(body, "name").trim();
+        String ageText = text(body, "age");
+        String gender = text(body, "gender").trim();
+        String problem = PatientValidator.validate(name, ageText, gender);
+        if (problem != null) {
+            throw new HttpError(400, problem);
+        }
+        int id = patient.createPatient(name, Integer.parseInt(ageText.trim()), gender);
+        if (id < 0) {
+            throw new HttpError(500, "Failed to add patient.");
+        }
+        if (id == 0) {
+            send(exchange, 202, "{\"status\":\"queued\"}");
+        } else {
+            send(exchange, 201, "{\"id\":" + id + "}");
+        }
+    }
+
+    private void searchPatients(HttpExchange exchange) throws IOException, SQLException {
+        Map<String, String> query = query(exchange);
+        Integer minAge = optionalInt(query, "minAge");
+        Integer maxAge = optionalInt(query, "maxAge");
+        int limit = limit(query);
+        this.<PatientRecord>stream(exchange, batches -> patient.searchPatients(query.get("name"), minAge, maxAge, query.get("gender"),
+                STREAM_BATCH_SIZE, limit, batches), (json, row) -> {
+            json.append("{\"id\":").append(row.id()).append(",\"name\":");
+            Json.appendString(json, row.name()).append(",\"age\":").append(row.age()).append(",\"gender\":");
+            Json.appendString(json, row.gender()).append('}');
+        });
+    }
+
+    private void searchDoctors(HttpExchange exchange) throws IOException, SQLException {
+        Map<String, String> query = query(exchange);
+        int limit = limit(query);
+        this.<DoctorRecord>stream(exchange, batches -> doctor.searchDoctors(query.get("name"), query.get("specialization"),
+                STREAM_BATCH_SIZE, limit, batches), (json, row) -> {
+            json.append("{\"id\":").append(row.id()).append(",\"name\":");
+            Json.appendString(json, row.name()).append(",\"specialization\":");
+            Json.appendString(json, row.specialization()).append('}');
+        });
+    }
+
+    // With a time, whether that slot is free; without, whether any slot is free that day and the first one
+    private void availability(HttpExchange exchange, int doctorId) throws IOException {
+        Map<String, String> query = query(exchange);
+        LocalDate date = LocalDate.parse(required(query, "date"));
+        if (doctor.findDoctorById(doctorId) == null) {
+            throw new HttpError(404, BookingResult.UNKNOWN_DOCTOR.getMessage());
+        }
+        StringBuilder json = new StringBuilder("{\"doctorId\":").append(doctorId).append(",\"date\":\"").append(date).append('"');
+        String timeText = query.get("time");
+        if (timeText != null && !timeText.isEmpty()) {
+            LocalTime time = LocalTime.parse(timeText);
+            json.append(",\"time\":\"").append(time).append("\",\"available\":")
+                    .append(appointmentService.isDoctorAvailable(doctorId, date, time));
+        } else {
+            AppointmentSlot slot = appointmentService.getSchedulingEngine().firstFreeSlot(doctorId, date.atStartOfDay());
+            boolean available = slot != null && slot.date().equals(date);
+            json.append(",\"available\":").append(available).append(",\"firstFreeTime\":");
+            Json.appendString(json, available ? slot.time().toString() : null);
+        }
+        send(exchange, 200, json.append('}').toString());
+    }
+
+    // Without a time, books the doctor's first free slot that day
+    private void book(HttpExchange exchange) throws IOException, SQLException {
+        Map<String, Object> body = readBody(exchange);
+        int patientId = requiredInt(body, "patientId");
+        int doctorId = requiredInt(body, "doctorId");
+        LocalDate date = LocalDate.parse(text(body, "date"));
+        String timeText = text(body, "time");
+        BookingResult result = timeText.isEmpty()
+                ? appointmentService.bookAppointment(patientId, doctorId, date.toString())
+                : appointmentService.bookAppointment(patientId, doctorId, date, LocalTime.parse(timeText));
+        int status;
+        switch (result) {
+            case BOOKED:
+                status = 201;
+                break;
+            case QUEUED:
+                status = 202;
+                break;
+            case DOCTOR_UNAVAILABLE:
+                status = 409;
+                break;
+            case UNKNOWN_PATIENT:
+            case UNKNOWN_DOCTOR:
+                status = 404;
+                break;
+            default:
+                status = 400;
+        }
+        StringBuilder json = new StringBuilder("{\"result\":\"").append(result.name()).append("\",\"message\":");
+        send(exchange, status, Json.appendString(json, result.getMessage()).append('}').toString());
+    }
+
+    // Headers go out with the first batch, so a query that fails before any row still gets an error status
+    private <T> void stream(HttpExchange exchange, Search<T> search, BiConsumer<StringBuilder, T> writeRow)
+            throws IOException, SQLException {
+        ArrayStream<T> array = new ArrayStream<>(exchange, writeRow);
+        search.run(array);
+        array.finish();
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            throw new HttpError(413, "Request body too large.");
+        }
+        return Json.parseObject(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static String text(Map<String, Object> body, String key) {
+        Object value = body.get(key);
+        return value == null ? "" : value.toString();
+    }
+
+    private static int requiredInt(Map<String, Object> body, String key) {
+        Object value = body.get(key);
+        if (value instanceof Long number && number == number.intValue()) {
+            return number.intValue();
+        }
+        if (value instanceof String number) {
+            return Integer.parseInt(number.trim());
+        }
+        throw new IllegalArgumentException(key + " must be a whole number.");
+    }
+
+    private static String required(Map<String, String> query, String key) {
+        String value = query.get(key);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException(key + " is required.");
+        }
+        return value;
+    }
+
+    private static Integer optionalInt(Map<String, String> query, String key) {
+        String value = query.get(key);
+        return value == null || value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    private static int limit(Map<String, String> query) {
+        Integer limit = optionalInt(query, "limit");
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        return limit;
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        try {
+            send(exchange, status, Json.appendString(new StringBuilder("{\"error\":"), message).append('}').toString());
+        } catch (IOException e) {
+            // The client went away
+        }
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException, SQLException;
+    }
+
+    private interface Search<T> {
+        int run(Consumer<List<T>> batchConsumer) throws SQLException;
+    }
+
+    // Writes each batch as one chunk of a JSON array, flushed so the client sees rows as they come
+    private static final class ArrayStream<T> implements Consumer<List<T>> {
+        private final HttpExchange exchange;
+        private final BiConsumer<StringBuilder, T> writeRow;
+        private final StringBuilder json = new StringBuilder(16 * 1024);
+        private Writer out;
+        private boolean empty = true;
+
+        ArrayStream(HttpExchange exchange, BiConsumer<StringBuilder, T> writeRow) {
+            this.exchange = exchange;
+            this.writeRow = writeRow;
+        }
+
+        @Override
+        public void accept(List<T> batch) {
+            try {
+                open();
+                json.setLength(0);
+                for (T row : batch) {
+                    json.append(empty ? "\n" : ",\n");
+                    writeRow.accept(json, row);
+                    empty = false;
+                }
+                out.append(json);
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            open();
+            out.write(empty ? "]" : "\n]");
+            out.close();
+        }
+
+        private void open() throws IOException {
+            if (out == null) {
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                // Length 0 selects chunked transfer encoding
+                exchange.sendResponseHeaders(200, 0);
+                out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 16 * 1024);
+                out.write('[');
+            }
+        }
+    }
+
+    private static final class HttpError extends RuntimeException {
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
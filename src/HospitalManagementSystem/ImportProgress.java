@@ -0,0 +1,63 @@
+package HospitalManagementSystem;
+
+/**
+ * Progress of a {@link PatientImporter} run, reported after each batch and once at the end.
+ */
+public class ImportProgress {
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final long bytesRead;
+    private final long totalBytes;
+    private final double rowsPerSecond;
+    private final boolean finished;
+
+    public ImportProgress(long rowsRead, long rowsImported, long rowsRejected, long bytesRead, long totalBytes,
+                          double rowsPerSecond, boolean finished) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.rowsPerSecond = rowsPerSecond;
+        this.finished = finished;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public int getPercentComplete() {
+        return totalBytes == 0 ? 100 : (int) Math.min(100, bytesRead * 100 / totalBytes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d read, %d imported, %d rejected (%.0f rows/s)",
+                rowsRead, rowsImported, rowsRejected, rowsPerSecond);
+    }
+}
@@ -0,0 +1,225 @@
+package HospitalManagementSystem;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded, expiring cache keyed by a primitive {@code int}, so lookups by record id do not
+ * box. Entries live in small 4-way sets; a full set evicts its least recently used entry. A size
+ * of 0 turns the cache off.
+ *
+ * <p>A lookup that misses and then loads from the database should take {@link #generation(int)}
+ * first and store with {@link #putIfUnchanged}, so a row invalidated while it was loading is not
+ * cached in its old state. An entry may be stored with a shorter time to live than the cache's,
+ * e.g. a marker for an id that does not exist yet.
+ */
+public class IntKeyCache<V> {
+    private static final int WAYS = 4;
+    private static final int LOCK_STRIPES = 64;
+
+    private final int[] keys;
+    private final Object[] values;
+    private final long[] expiresAt;
+    private final long[] lastAccess;
+    private final int setMask;
+    private final long ttlNanos;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    // Bumped by every invalidation in the stripe, whether or not the key was cached
+    private final long[] generations = new long[LOCK_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public IntKeyCache(int maxEntries, long ttl, TimeUnit unit) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative.");
+        }
+        int sets = maxEntries == 0 ? 0 : Integer.highestOneBit(Math.max(1, (maxEntries + WAYS - 1) / WAYS));
+        if (sets * WAYS < maxEntries) {
+            sets <<= 1;
+        }
+        this.setMask = sets - 1;
+        this.keys = new int[sets * WAYS];
+        this.values = new Object[sets * WAYS];
+        this.expiresAt = new long[sets * WAYS];
+        this.lastAccess = new long[sets * WAYS];
+        this.ttlNanos = unit.toNanos(ttl);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (values.length == 0) {
+            misses.increment();
+            return null;
+        }
+        int base = setOf(key);
+        synchronized (lockFor(base)) {
+            long now = System.nanoTime();
+            for (int i = base; i < base + WAYS; i++) {
+                if (values[i] != null && keys[i] == key) {
+                    if (now - expiresAt[i] >= 0) {
+                        values[i] = null;
+                        expirations.increment();
+                        break;
+                    }
+                    lastAccess[i] = now;
+                    hits.increment();
+                    return (V) values[i];
+                }
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Cache values must not be null.");
+        }
+        if (values.length == 0) {
+            return;
+        }
+        int base = setOf(key);
+        synchronized (lockFor(base)) {
+            store(base, key, value, ttlNanos);
+        }
+    }
+
+    // The stripe's invalidation count, to pass to putIfUnchanged once the value has been loaded
+    public long generation(int key) {
+        if (values.length == 0) {
+            return 0;
+        }
+        int base = setOf(key);
+        synchronized (lockFor(base)) {
+            return generations[stripeOf(base)];
+        }
+    }
+
+    // Stores the value unless something in the key's stripe was invalidated since generation() was read
+    public void putIfUnchanged(int key, V value, long generation) {
+        putIfUnchanged(key, value, generation, ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // As above, but the entry expires after the given time, capped at the cache's own time to live
+    public void putIfUnchanged(int key, V value, long generation, long ttl, TimeUnit unit) {
+        if (value == null) {
+            throw new IllegalArgumentException("Cache values must not be null.");
+        }
+        if (values.length == 0) {
+            return;
+        }
+        int base = setOf(key);
+        synchronized (lockFor(base)) {
+            if (generations[stripeOf(base)] == generation) {
+                store(base, key, value, Math.min(ttlNanos, unit.toNanos(ttl)));
+            }
+        }
+    }
+
+    public void invalidate(int key) {
+        if (values.length == 0) {
+            return;
+        }
+        int base = setOf(key);
+        synchronized (lockFor(base)) {
+            generations[stripeOf(base)]++;
+            for (int i = base; i < base + WAYS; i++) {
+                if (values[i] != null && keys[i] == key) {
+                    values[i] = null;
+                    invalidations.increment();
+                    return;
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        for (int base = 0; base < values.length; base += WAYS) {
+            synchronized (lockFor(base)) {
+                generations[stripeOf(base)]++;
+                for (int i = base; i < base + WAYS; i++) {
+                    values[i] = null;
+                }
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return String.format("Cache[capacity=%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, expirations=%d, invalidations=%d]",
+                values.length, hitCount, misses.sum(), total == 0 ? 0.0 : 100.0 * hitCount / total,
+                evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    // Caller holds the set's lock
+    private void store(int base, int key, Object value, long entryTtlNanos) {
+        long now = System.nanoTime();
+        int slot = -1;
+        for (int i = base; i < base + WAYS; i++) {
+            if (values[i] != null && keys[i] == key) {
+                slot = i;
+                break;
+            }
+            if (values[i] == null && slot < 0) {
+                slot = i;
+            }
+        }
+        if (slot < 0) {
+            slot = base;
+            for (int i = base + 1; i < base + WAYS; i++) {
+                if (lastAccess[i] < lastAccess[slot]) {
+                    slot = i;
+                }
+            }
+            evictions.increment();
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        expiresAt[slot] = now + entryTtlNanos;
+        lastAccess[slot] = now;
+    }
+
+    private int setOf(int key) {
+        // Spread sequential ids across sets
+        int h = key * 0x9E3779B9;
+        return ((h ^ (h >>> 16)) & setMask) * WAYS;
+    }
+
+    // Sets share a fixed number of striped locks
+    private Object lockFor(int base) {
+        return locks[stripeOf(base)];
+    }
+
+    private static int stripeOf(int base) {
+        return (base / WAYS) & (LOCK_STRIPES - 1);
+    }
+}
@@ -0,0 +1,30 @@
+package HospitalManagementSystem;
+
+/**
+ * Builds LIKE patterns from user input. Wildcards typed by the user are escaped with '!',
+ * so queries must declare {@code ESCAPE '!'}.
+ */
+final class LikePatterns {
+    private LikePatterns() {
+    }
+
+    static String prefix(String text) {
+        return escape(text) + "%";
+    }
+
+    static String contains(String text) {
+        return "%" + escape(text) + "%";
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 4);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '!' || c == '%' || c == '_') {
+                escaped.append('!');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package HospitalManagementSystem;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide registry of {@link OperationMetrics}. Every operation is also published over JMX.
+ * Queries slower than {@code hms.metrics.slowQueryMillis} (default 200) are written to stderr.
+ */
+public final class Metrics {
+    private static final long SLOW_QUERY_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("hms.metrics.slowQueryMillis", 200));
+    private static final ConcurrentMap<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+    // Starting the platform MBean server takes a few hundred ms, which would otherwise land on
+    // whichever class first declares an operation, typically during startup before the frame is shown
+    private static final ExecutorService JMX_REGISTRATION = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "metrics-jmx");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Metrics() {
+    }
+
+    // A database call; slow executions are logged together with the SQL
+    public static OperationMetrics query(String name, String sql) {
+        return OPERATIONS.computeIfAbsent(name, n -> register(new OperationMetrics(n, sql, SLOW_QUERY_NANOS)));
+    }
+
+    // A UI action or other in-process work, not subject to the slow-query log
+    public static OperationMetrics action(String name, String description) {
+        return OPERATIONS.computeIfAbsent(name, n -> register(new OperationMetrics(n, description, -1)));
+    }
+
+    public static List<OperationMetrics> operations() {
+        List<OperationMetrics> all = new ArrayList<>(OPERATIONS.values());
+        all.sort(Comparator.comparing(OperationMetrics::getName));
+        return all;
+    }
+
+    static void logSlow(OperationMetrics operation, long elapsedNanos, long rows, boolean failed) {
+        System.err.printf("%s SLOW QUERY %s took %.1f ms (%s): %s%n", LocalDateTime.now(), operation.getName(),
+                elapsedNanos / 1_000_000.0, failed ? "failed" : rows + " rows", operation.getDescription());
+    }
+
+    private static OperationMetrics register(OperationMetrics operation) {
+        JMX_REGISTRATION.execute(() -> {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName objectName = new ObjectName("HospitalManagementSystem:type=Operation,name="
+                        + ObjectName.quote(operation.getName()));
+                if (!server.isRegistered(objectName)) {
+                    server.registerMBean(operation, objectName);
+                }
+            } catch (JMException e) {
+                e.printStackTrace();
+            }
+        });
+        return operation;
+    }
+}
@@ -0,0 +1,158 @@
+package HospitalManagementSystem;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard tab: per-operation latency, error and row counts over a rolling window, plus the
+ * connection pool and an EDT responsiveness probe. Refreshed once a second from {@link Metrics}.
+ */
+public class MetricsDashboard extends JPanel {
+    private static final int REFRESH_MILLIS = 1000;
+    private static final int WINDOW_SECONDS = Integer.getInteger("hms.metrics.windowSeconds", 60);
+    private static final int EDT_PROBE_MILLIS = 100;
+    private static final OperationMetrics EDT_LAG = Metrics.action("ui.edtLag",
+            "How late a " + EDT_PROBE_MILLIS + " ms Swing timer fires; high values mean the EDT was blocked");
+
+    private final ConnectionPool pool;
+    private final WindowModel model = new WindowModel();
+    private final JLabel poolLabel = new JLabel();
+    // One sample per refresh, oldest first; the window is the newest minus the oldest
+    private final Deque<Map<String, Sample>> history = new ArrayDeque<>();
+    private final Timer refreshTimer;
+    private final Timer edtProbe;
+    private long lastProbe = System.nanoTime();
+
+    public MetricsDashboard(ConnectionPool pool) {
+        super(new BorderLayout(5, 5));
+        this.pool = pool;
+        setBackground(new Color(30, 30, 50));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JLabel title = new JLabel("Operations over the last " + WINDOW_SECONDS + " s (times in ms)");
+        title.setForeground(Color.WHITE);
+        title.setFont(new Font("Arial", Font.BOLD, 14));
+        poolLabel.setForeground(Color.WHITE);
+        poolLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+
+        JTable table = new JTable(model);
+        table.setBackground(new Color(50, 50, 70));
+        table.setForeground(Color.WHITE);
+        table.setGridColor(new Color(70, 70, 90));
+        table.setFont(new Font("Arial", Font.PLAIN, 12));
+        table.getColumnModel().getColumn(0).setPreferredWidth(180);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.getViewport().setBackground(new Color(30, 30, 50));
+
+        add(title, BorderLayout.NORTH);
+        add(scrollPane, BorderLayout.CENTER);
+        add(poolLabel, BorderLayout.SOUTH);
+
+        edtProbe = new Timer(EDT_PROBE_MILLIS, e -> {
+            long now = System.nanoTime();
+            // Lateness beyond the scheduled delay is time the EDT spent on something else
+            EDT_LAG.successElapsed(Math.max(0, now - lastProbe - EDT_PROBE_MILLIS * 1_000_000L), 0);
+            lastProbe = now;
+        });
+        refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+        edtProbe.start();
+        refreshTimer.start();
+        refresh();
+    }
+
+    public void stop() {
+        refreshTimer.stop();
+        edtProbe.stop();
+    }
+
+    private void refresh() {
+        List<OperationMetrics> operations = Metrics.operations();
+        Map<String, Sample> current = new HashMap<>();
+        for (OperationMetrics operation : operations) {
+            current.put(operation.getName(), new Sample(operation));
+        }
+        history.addLast(current);
+        while (history.size() > WINDOW_SECONDS + 1) {
+            history.removeFirst();
+        }
+        Map<String, Sample> oldest = history.getFirst();
+
+        List<Object[]> rows = new ArrayList<>();
+        for (OperationMetrics operation : operations) {
+            Sample now = current.get(operation.getName());
+            Sample then = oldest.get(operation.getName());
+            LatencyHistogram.Snapshot window = then == null || then == now ? now.latency : now.latency.minus(then.latency);
+            long errors = now.errors - (then == null ? 0 : then.errors);
+            long rowCount = now.rows - (then == null ? 0 : then.rows);
+            rows.add(new Object[]{operation.getName(), window.getCount(), errors, rowCount,
+                    format(window.getMeanMillis()), format(window.getPercentileMillis(50)),
+                    format(window.getPercentileMillis(95)), format(window.getPercentileMillis(99)),
+                    format(window.getMaxMillis())});
+        }
+        model.setRows(rows);
+
+        PoolMetrics metrics = pool.getMetrics();
+        poolLabel.setText(String.format("Pool: %d/%d active, %d idle, avg wait %.2f ms, %d timeouts, %d leaks, statement cache %d hits / %d misses",
+                metrics.getActiveConnections(), metrics.getMaxSize(), metrics.getIdleConnections(),
+                metrics.getAverageWaitNanos() / 1_000_000.0, metrics.getBorrowTimeouts(), metrics.getLeaksDetected(),
+                metrics.getStatementCacheHits(), metrics.getStatementCacheMisses()));
+    }
+
+    private static String format(double millis) {
+        return String.format("%.2f", millis);
+    }
+
+    private static class Sample {
+        private final LatencyHistogram.Snapshot latency;
+        private final long errors;
+        private final long rows;
+
+        private Sample(OperationMetrics operation) {
+            this.latency = operation.latencySnapshot();
+            this.errors = operation.getErrors();
+            this.rows = operation.getRows();
+        }
+    }
+
+    private static class WindowModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Operation", "Count", "Errors", "Rows", "Mean", "p50", "p95", "p99", "Max"};
+        private List<Object[]> rows = new ArrayList<>();
+
+        private void setRows(List<Object[]> newRows) {
+            boolean sameShape = newRows.size() == rows.size();
+            rows = newRows;
+            if (sameShape && !rows.isEmpty()) {
+                fireTableRowsUpdated(0, rows.size() - 1);
+            } else {
+                fireTableDataChanged();
+            }
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            return rows.get(rowIndex)[columnIndex];
+        }
+    }
+}
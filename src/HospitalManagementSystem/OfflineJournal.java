@@ -0,0 +1,245 @@
+package HospitalManagementSystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Writes made while the database is unreachable: new patients and bookings, each fsynced to
+ * {@code journal.log} before the caller is told it was queued. {@code journal.state} holds the
+ * offset up to which the {@link OfflineReconciler} has applied the journal; once everything is
+ * applied the file is emptied.
+ *
+ * <p>Records use the {@link EventLog} framing ({@code [length][CRC32C][payload]}), and a record torn
+ * by a crash is cut off on open. Every entry carries a random reference that is stored with the
+ * row it creates, so an entry applied twice (a crash between commit and checkpoint) is recognised.
+ *
+ * <p>One journal owns its directory: open takes an exclusive lock on {@code journal.log} and fails if
+ * another process holds it, since two reconcilers would replay the same entries.
+ */
+public class OfflineJournal implements AutoCloseable {
+    private static final String JOURNAL_FILE = "journal.log";
+    private static final String STATE_FILE = "journal.state";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_TEXT = 255;
+
+    enum Kind {
+        PATIENT,
+        BOOKING
+    }
+
+    /**
+     * One queued write. Patient entries use name, age and gender; booking entries use the ids, date
+     * and time. {@code endOffset} is where the next entry starts.
+     */
+    record Entry(Kind kind, String ref, String name, int age, String gender, int patientId, int doctorId,
+                 LocalDate date, LocalTime time, long endOffset) {
+    }
+
+    private final Path directory;
+    // Guarded by this; locked until close
+    private final FileChannel channel;
+    private final CRC32C checksum = new CRC32C();
+    private long appliedOffset;
+    private int pending;
+
+    private OfflineJournal(Path directory, FileChannel channel, long appliedOffset, int pending) {
+        this.directory = directory;
+        this.channel = channel;
+        this.appliedOffset = appliedOffset;
+        this.pending = pending;
+    }
+
+    public static OfflineJournal open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel channel = FileChannel.open(directory.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            lock(directory, channel);
+            Path state = directory.resolve(STATE_FILE);
+            long applied = Files.exists(state) ? Long.parseLong(Files.readString(state).trim()) : 0;
+            // The file is emptied before the state is reset, so a crash in between leaves the state past the end
+            applied = Math.min(applied, channel.size());
+            List<Entry> entries = read(channel, applied, Integer.MAX_VALUE);
+            long end = entries.isEmpty() ? applied : entries.get(entries.size() - 1).endOffset();
+            if (end < channel.size()) {
+                System.err.println("Offline journal: dropping a torn entry at offset " + end);
+                channel.truncate(end);
+                channel.force(true);
+            }
+            return new OfflineJournal(directory, channel, applied, entries.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void lock(Path directory, FileChannel channel) throws IOException {
+        try {
+            if (channel.tryLock() != null) {
+                return;
+            }
+        } catch (OverlappingFileLockException e) {
+            // Another OfflineJournal in this process has the directory
+        }
+        throw new IOException("The offline journal in " + directory + " is in use by another process; "
+                + "give each instance its own hms.offline.dir.");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending;
+    }
+
+    public synchronized void appendPatient(String name, int age, String gender) throws IOException {
+        byte[] nameBytes = text(name);
+        byte[] genderBytes = text(gender);
+        ByteBuffer payload = payload(Kind.PATIENT, 2 + nameBytes.length + 4 + 2 + genderBytes.length);
+        payload.putShort((short) nameBytes.length).put(nameBytes).putInt(age)
+                .putShort((short) genderBytes.length).put(genderBytes);
+        append(payload);
+    }
+
+    public synchronized void appendBooking(int patientId, int doctorId, LocalDate date, LocalTime time) throws IOException {
+        ByteBuffer payload = payload(Kind.BOOKING, 4 + 4 + 8 + 4);
+        payload.putInt(patientId).putInt(doctorId).putLong(date.toEpochDay()).putInt(time.toSecondOfDay());
+        append(payload);
+    }
+
+    // Up to max entries not yet applied, oldest first
+    synchronized List<Entry> readPending(int max) throws IOException {
+        return read(channel, appliedOffset, max);
+    }
+
+    // Records that the entries up to endOffset are in the database
+    synchronized void markApplied(long endOffset, int count) throws IOException {
+        pending -= count;
+        if (endOffset >= channel.size()) {
+            channel.truncate(0);
+            channel.force(true);
+            endOffset = 0;
+        }
+        appliedOffset = endOffset;
+        Path state = directory.resolve(STATE_FILE);
+        Path temporary = directory.resolve(STATE_FILE + ".tmp");
+        try (FileChannel stateChannel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            stateChannel.write(ByteBuffer.wrap(Long.toString(endOffset).getBytes(StandardCharsets.US_ASCII)));
+            stateChannel.force(true);
+        }
+        Files.move(temporary, state, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Payload buffer with the kind and a fresh reference already written
+    private static ByteBuffer payload(Kind kind, int bodyBytes) {
+        byte[] ref = UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer payload = ByteBuffer.allocate(HEADER_BYTES + 1 + 2 + ref.length + bodyBytes);
+        payload.position(HEADER_BYTES);
+        payload.put((byte) kind.ordinal()).putShort((short) ref.length).put(ref);
+        return payload;
+    }
+
+    private void append(ByteBuffer record) throws IOException {
+        int length = record.position() - HEADER_BYTES;
+        checksum.reset();
+        checksum.update(record.array(), HEADER_BYTES, length);
+        record.putInt(0, length).putInt(4, (int) checksum.getValue());
+        record.flip();
+        long position = channel.size();
+        try {
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Do not leave half a record for the next append to follow
+            channel.truncate(position - record.position());
+            throw e;
+        }
+        pending++;
+    }
+
+    private static List<Entry> read(FileChannel channel, long from, int max) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long size = channel.size();
+        long position = from;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        CRC32C crc = new CRC32C();
+        while (entries.size() < max && size - position >= HEADER_BYTES) {
+            header.clear();
+            readFully(channel, header, position);
+            int length = header.getInt(0);
+            if (length <= 0 || length > size - position - HEADER_BYTES) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != header.getInt(4)) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+            entries.add(decode(payload.flip(), position));
+        }
+        return entries;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of the offline journal");
+            }
+        }
+    }
+
+    private static Entry decode(ByteBuffer payload, long endOffset) {
+        Kind kind = Kind.values()[payload.get()];
+        String ref = getText(payload);
+        if (kind == Kind.PATIENT) {
+            String name = getText(payload);
+            int age = payload.getInt();
+            String gender = getText(payload);
+            return new Entry(kind, ref, name, age, gender, 0, 0, null, null, endOffset);
+        }
+        int patientId = payload.getInt();
+        int doctorId = payload.getInt();
+        LocalDate date = LocalDate.ofEpochDay(payload.getLong());
+        LocalTime time = LocalTime.ofSecondOfDay(payload.getInt());
+        return new Entry(kind, ref, null, 0, null, patientId, doctorId, date, time, endOffset);
+    }
+
+    private static byte[] text(String value) {
+        return (value.length() <= MAX_TEXT ? value : value.substring(0, MAX_TEXT)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String getText(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,232 @@
+package HospitalManagementSystem;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brings the database up to date with the {@link OfflineJournal}. While the pool is offline each
+ * run tries one connection; once it gets through, the journal is replayed oldest first in batches,
+ * one transaction per batch, and the journal checkpoint moves only after the batch committed.
+ *
+ * <p>Rows carry the reference of the entry that created them, so an entry replayed again after a
+ * crash is skipped. A queued booking whose slot was taken online in the meantime is a conflict: it
+ * is rejected as {@link BookingResult#DOCTOR_UNAVAILABLE} and reported through
+ * {@link #takeConflicts()}.
+ */
+public class OfflineReconciler implements AutoCloseable {
+    private static final int BATCH_SIZE = Integer.getInteger("hms.offline.batchSize", 200);
+
+    private static final String PATIENT_QUERY = "INSERT INTO patients(name, age, gender, offline_ref) VALUES(?, ?, ?, ?)";
+    private static final String BOOKING_QUERY =
+            "INSERT INTO appointments(patient_id, doctor_id, appointment_date, appointment_time, offline_ref) "
+                    + "SELECT p.id, d.id, ?, ?, ? FROM patients p, doctors d WHERE p.id = ? AND d.id = ?";
+    private static final String APPLIED_BOOKING_QUERY = "SELECT COUNT(*) FROM appointments WHERE offline_ref = ?";
+    private static final String PATIENT_EXISTS_QUERY = "SELECT COUNT(*) FROM patients WHERE id = ?";
+
+    private static final OperationMetrics REPLAY = Metrics.action("offline.replay", "Replay one batch of the offline journal");
+
+    private final ConnectionPool pool;
+    private final OfflineJournal journal;
+    private final Patient patient;
+    private final AppointmentService appointmentService;
+    private final List<String> conflicts = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+
+    public OfflineReconciler(ConnectionPool pool, OfflineJournal journal, Patient patient, AppointmentService appointmentService) {
+        this.pool = pool;
+        this.journal = journal;
+        this.patient = patient;
+        this.appointmentService = appointmentService;
+    }
+
+    // Reconciles every intervalSeconds on a background thread until closed
+    public synchronized void start(long intervalSeconds) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "offline-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (IOException | SQLException e) {
+                if (!pool.isOffline()) {
+                    e.printStackTrace();
+                }
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // One pass: reconnect if offline, then replay everything queued; returns how many entries were applied
+    public synchronized int reconcile() throws IOException, SQLException {
+        if (pool.isOffline()) {
+            if (!pool.probe()) {
+                return 0;
+            }
+            // The application may have started offline, before the schema was brought up to date
+            new SchemaMigrator(pool).migrate();
+        }
+        int applied = 0;
+        List<OfflineJournal.Entry> batch;
+        while (!(batch = journal.readPending(BATCH_SIZE)).isEmpty()) {
+            applyBatch(batch);
+            applied += batch.size();
+        }
+        return applied;
+    }
+
+    public int getPendingCount() {
+        return journal.getPendingCount();
+    }
+
+    // Messages for queued bookings that lost their slot, each returned once
+    public List<String> takeConflicts() {
+        synchronized (conflicts) {
+            List<String> taken = new ArrayList<>(conflicts);
+            conflicts.clear();
+            return taken;
+        }
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            running.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Listeners hear about a batch only after it committed and the checkpoint moved past it
+    private void applyBatch(List<OfflineJournal.Entry> batch) throws IOException, SQLException {
+        List<Runnable> notifications = new ArrayList<>();
+        List<String> batchConflicts = new ArrayList<>();
+        long start = REPLAY.start();
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (OfflineJournal.Entry entry : batch) {
+                    if (entry.kind() == OfflineJournal.Kind.PATIENT) {
+                        applyPatient(connection, entry, notifications);
+                    } else {
+                        applyBooking(connection, entry, notifications, batchConflicts);
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                rollback(connection);
+                throw e;
+            }
+        } catch (SQLException e) {
+            REPLAY.failure(start);
+            if (ConnectionPool.isConnectionFailure(e)) {
+                pool.markOffline();
+            }
+            throw e;
+        }
+        journal.markApplied(batch.get(batch.size() - 1).endOffset(), batch.size());
+        REPLAY.success(start, batch.size());
+        synchronized (conflicts) {
+            conflicts.addAll(batchConflicts);
+        }
+        notifications.forEach(Runnable::run);
+    }
+
+    private void applyPatient(Connection connection, OfflineJournal.Entry entry, List<Runnable> notifications) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(PATIENT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+            preparedStatement.setString(1, entry.name());
+            preparedStatement.setInt(2, entry.age());
+            preparedStatement.setString(3, entry.gender());
+            preparedStatement.setString(4, entry.ref());
+            preparedStatement.executeUpdate();
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    int id = generatedKeys.getInt(1);
+                    notifications.add(() -> patient.notifyAdded(id));
+                }
+            }
+        } catch (SQLException e) {
+            // Applied by an earlier run that stopped before its checkpoint
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+        }
+    }
+
+    private void applyBooking(Connection connection, OfflineJournal.Entry entry, List<Runnable> notifications,
+                              List<String> batchConflicts) throws SQLException {
+        BookingResult result;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(BOOKING_QUERY)) {
+            preparedStatement.setDate(1, Date.valueOf(entry.date()));
+            preparedStatement.setTime(2, Time.valueOf(entry.time()));
+            preparedStatement.setString(3, entry.ref());
+            preparedStatement.setInt(4, entry.patientId());
+            preparedStatement.setInt(5, entry.doctorId());
+            if (preparedStatement.executeUpdate() > 0) {
+                result = BookingResult.BOOKED;
+            } else {
+                result = exists(connection, PATIENT_EXISTS_QUERY, entry.patientId())
+                        ? BookingResult.UNKNOWN_DOCTOR : BookingResult.UNKNOWN_PATIENT;
+            }
+        } catch (SQLException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+            if (exists(connection, APPLIED_BOOKING_QUERY, entry.ref())) {
+                return;
+            }
+            result = BookingResult.DOCTOR_UNAVAILABLE;
+            batchConflicts.add("Patient " + entry.patientId() + " with doctor " + entry.doctorId() + " on "
+                    + entry.date() + " at " + entry.time() + ": the slot was booked by someone else while offline.");
+        }
+        BookingResult outcome = result;
+        notifications.add(() -> appointmentService.completeQueued(entry.patientId(), entry.doctorId(), entry.date(),
+                entry.time(), outcome));
+    }
+
+    private static boolean exists(Connection connection, String query, Object key) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setObject(1, key);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            // The connection is gone; the pool discards it and nothing was committed
+        }
+    }
+
+    // SQLState class 23 is an integrity constraint violation; MySQL reports 23000, H2 reports 23505
+    private static boolean isUniqueViolation(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("23");
+    }
+}
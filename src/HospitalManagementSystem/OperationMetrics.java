@@ -0,0 +1,112 @@
+package HospitalManagementSystem;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timer and counters for one named operation: a latency histogram plus error and row counts.
+ * Callers take {@link #start()} before the work and report the outcome with {@link #success} or
+ * {@link #failure}; neither allocates.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+    private final String name;
+    private final String description;
+    private final long slowThresholdNanos;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    // A negative threshold turns the slow log off for this operation
+    OperationMetrics(String name, String description, long slowThresholdNanos) {
+        this.name = name;
+        this.description = description;
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void success(long start, long rowCount) {
+        successElapsed(System.nanoTime() - start, rowCount);
+    }
+
+    // For durations measured by the caller rather than from start()
+    public void successElapsed(long elapsedNanos, long rowCount) {
+        latency.recordNanos(elapsedNanos);
+        rows.add(rowCount);
+        if (slowThresholdNanos >= 0 && elapsedNanos >= slowThresholdNanos) {
+            Metrics.logSlow(this, elapsedNanos, rowCount, false);
+        }
+    }
+
+    public void failure(long start) {
+        long elapsed = System.nanoTime() - start;
+        latency.recordNanos(elapsed);
+        errors.increment();
+        if (slowThresholdNanos >= 0 && elapsed >= slowThresholdNanos) {
+            Metrics.logSlow(this, elapsed, 0, true);
+        }
+    }
+
+    public LatencyHistogram.Snapshot latencySnapshot() {
+        return latency.snapshot();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.snapshot().getMeanMillis();
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.snapshot().getPercentileMillis(50);
+    }
+
+    @Override
+    public double getP95Millis() {
+        return latency.snapshot().getPercentileMillis(95);
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.snapshot().getPercentileMillis(99);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.snapshot().getMaxMillis();
+    }
+
+    @Override
+    public String toString() {
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        return String.format("%s[count=%d, errors=%d, rows=%d, mean=%.3f ms, p50=%.3f ms, p99=%.3f ms, max=%.3f ms]",
+                name, snapshot.getCount(), errors.sum(), rows.sum(), snapshot.getMeanMillis(),
+                snapshot.getPercentileMillis(50), snapshot.getPercentileMillis(99), snapshot.getMaxMillis());
+    }
+}
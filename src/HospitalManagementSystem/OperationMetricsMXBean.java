@@ -0,0 +1,27 @@
+package HospitalManagementSystem;
+
+/**
+ * JMX view of one {@link OperationMetrics}, registered as
+ * {@code HospitalManagementSystem:type=Operation,name=<operation>}. Times are since startup.
+ */
+public interface OperationMetricsMXBean {
+    String getName();
+
+    String getDescription();
+
+    long getCount();
+
+    long getErrors();
+
+    long getRows();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+}
@@ -1,61 +1,244 @@
 package HospitalManagementSystem;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class Patient {
-    private Connection connection;
+    private static final int CACHE_SIZE = Integer.getInteger("hms.cache.size", 10_000);
+    private static final int CACHE_TTL_SECONDS = Integer.getInteger("hms.cache.ttlSeconds", 300);
+    // Misses expire sooner, since another process may insert the id at any time
+    private static final int MISS_TTL_SECONDS = Integer.getInteger("hms.cache.missTtlSeconds", 5);
+    // Cached marker for ids that were looked up and do not exist
+    private static final PatientRecord NOT_FOUND = new PatientRecord(0, "", 0, "");
+    // Every query selects these columns in this order, so rows are read by index
+    private static final String COLUMNS = "id, name, age, gender";
 
-    public Patient(Connection connection) {
-        this.connection = connection;
+    private static final String ADD_QUERY = "INSERT INTO patients(name, age, gender) VALUES(?, ?, ?)";
+    private static final String VIEW_QUERY = "SELECT " + COLUMNS + " FROM patients";
+    private static final String COUNT_QUERY = "SELECT COUNT(*) FROM patients";
+    private static final String PAGE_QUERY = "SELECT " + COLUMNS + " FROM patients WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String OFFSET_QUERY = "SELECT id FROM patients ORDER BY id LIMIT 1 OFFSET ?";
+    private static final String FIND_QUERY = "SELECT " + COLUMNS + " FROM patients WHERE id = ?";
+
+    private static final OperationMetrics ADD = Metrics.query("patient.add", ADD_QUERY);
+    private static final OperationMetrics VIEW = Metrics.query("patient.viewAll", VIEW_QUERY);
+    private static final OperationMetrics COUNT = Metrics.query("patient.count", COUNT_QUERY);
+    private static final OperationMetrics PAGE = Metrics.query("patient.page", PAGE_QUERY);
+    private static final OperationMetrics OFFSET = Metrics.query("patient.idAtOffset", OFFSET_QUERY);
+    private static final OperationMetrics SEARCH = Metrics.query("patient.search",
+            "SELECT " + COLUMNS + " FROM patients WHERE <name, age and gender filters> ORDER BY id LIMIT ?");
+    private static final OperationMetrics FIND = Metrics.query("patient.findById", FIND_QUERY);
+
+    private ConnectionPool pool;
+    private volatile OfflineJournal offlineJournal;
+    private final IntKeyCache<PatientRecord> cache = new IntKeyCache<>(CACHE_SIZE, CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+    private final List<HospitalEventListener> listeners = new CopyOnWriteArrayList<>();
+
+    public Patient(ConnectionPool pool) {
+        this.pool = pool;
     }
 
+    // Queues new patients in the journal while the database is unreachable
+    public void setOfflineJournal(OfflineJournal offlineJournal) {
+        this.offlineJournal = offlineJournal;
+    }
+
+    // True once the patient is stored, or queued in the offline journal (no id is known until it syncs)
     public boolean addPatient(String name, int age, String gender) {
-        try {
-            String query = "INSERT INTO patients(name, age, gender) VALUES(?, ?, ?)";
-            PreparedStatement preparedStatement = connection.prepareStatement(query);
+        return createPatient(name, age, gender) >= 0;
+    }
+
+    // The new patient's id, 0 when it was queued in the offline journal, or -1 on failure
+    public int createPatient(String name, int age, String gender) {
+        if (offlineJournal != null && pool.isOffline()) {
+            return addOffline(name, age, gender);
+        }
+        long start = ADD.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(ADD_QUERY, Statement.RETURN_GENERATED_KEYS)) {
             preparedStatement.setString(1, name);
             preparedStatement.setInt(2, age);
             preparedStatement.setString(3, gender);
             int affectedRows = preparedStatement.executeUpdate();
-            return affectedRows > 0;
+            int id = 0;
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    id = generatedKeys.getInt(1);
+                    notifyAdded(id);
+                }
+            }
+            ADD.success(start, affectedRows);
+            return affectedRows > 0 ? id : -1;
         } catch (SQLException e) {
+            ADD.failure(start);
+            if (offlineJournal != null && ConnectionPool.isConnectionFailure(e)) {
+                pool.markOffline();
+                return addOffline(name, age, gender);
+            }
             e.printStackTrace();
-            return false;
+            return -1;
         }
     }
 
-    public List<String[]> viewPatients() {
-        List<String[]> patients = new ArrayList<>();
-        String query = "SELECT * FROM patients";
+    private int addOffline(String name, int age, String gender) {
         try {
-            PreparedStatement preparedStatement = connection.prepareStatement(query);
-            ResultSet resultSet = preparedStatement.executeQuery();
+            offlineJournal.appendPatient(name, age, gender);
+            return 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    // Called once each new patient row has committed, including those the OfflineReconciler replays
+    void notifyAdded(int id) {
+        // The id may have been cached as missing by an earlier lookup
+        cache.invalidate(id);
+        for (HospitalEventListener listener : listeners) {
+            listener.patientAdded(id);
+        }
+    }
+
+    public List<PatientRecord> viewPatients() {
+        List<PatientRecord> patients = new ArrayList<>();
+        long start = VIEW.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(VIEW_QUERY);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
             while (resultSet.next()) {
-                String[] patient = new String[4];
-                patient[0] = String.valueOf(resultSet.getInt("id"));
-                patient[1] = resultSet.getString("name");
-                patient[2] = String.valueOf(resultSet.getInt("age"));
-                patient[3] = resultSet.getString("gender");
-                patients.add(patient);
+                patients.add(read(resultSet));
             }
+            VIEW.success(start, patients.size());
         } catch (SQLException e) {
+            VIEW.failure(start);
             e.printStackTrace();
         }
         return patients;
     }
 
+    public int countPatients() throws SQLException {
+        long start = COUNT.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(COUNT_QUERY);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            int count = resultSet.next() ? resultSet.getInt(1) : 0;
+            COUNT.success(start, 1);
+            return count;
+        } catch (SQLException e) {
+            COUNT.failure(start);
+            throw e;
+        }
+    }
+
+    // Keyset pagination: the page of patients whose id follows afterId, in id order
+    public List<PatientRecord> viewPatientsPage(int afterId, int limit) throws SQLException {
+        List<PatientRecord> patients = new ArrayList<>(limit);
+        long start = PAGE.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(PAGE_QUERY)) {
+            preparedStatement.setInt(1, afterId);
+            preparedStatement.setInt(2, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    patients.add(read(resultSet));
+                }
+            }
+            PAGE.success(start, patients.size());
+        } catch (SQLException e) {
+            PAGE.failure(start);
+            throw e;
+        }
+        return patients;
+    }
+
+    // Id of the patient at the given position in id order, or -1; walks only the primary key index
+    public int getPatientIdAtOffset(int offset) throws SQLException {
+        long start = OFFSET.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(OFFSET_QUERY)) {
+            preparedStatement.setInt(1, offset);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                int id = resultSet.next() ? resultSet.getInt(1) : -1;
+                OFFSET.success(start, id < 0 ? 0 : 1);
+                return id;
+            }
+        } catch (SQLException e) {
+            OFFSET.failure(start);
+            throw e;
+        }
+    }
+
+    /**
+     * Streams patients matching every given filter to {@code batchConsumer} in batches of at most
+     * {@code batchSize}. Null or empty filters are ignored. Stops early, returning what was sent so
+     * far, if the calling thread is interrupted.
+     */
+    public int searchPatients(String namePrefix, Integer minAge, Integer maxAge, String gender,
+                              int batchSize, int maxResults, Consumer<List<PatientRecord>> batchConsumer) throws SQLException {
+        SearchQuery query = new SearchQuery("SELECT " + COLUMNS + " FROM patients");
+        if (namePrefix != null && !namePrefix.isEmpty()) {
+            query.and("name LIKE ? ESCAPE '!'", LikePatterns.prefix(namePrefix));
+        }
+        if (minAge != null) {
+            query.and("age >= ?", minAge);
+        }
+        if (maxAge != null) {
+            query.and("age <= ?", maxAge);
+        }
+        if (gender != null && !gender.isEmpty()) {
+            query.and("gender = ?", gender);
+        }
+        return query.stream(pool, SEARCH, batchSize, maxResults, Patient::read, batchConsumer);
+    }
+
     public boolean getPatientById(int id) {
-        String query = "SELECT * FROM patients WHERE id = ?";
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(query);
+        return findPatientById(id) != null;
+    }
+
+    // The patient with this id, or null if there is none (or the lookup failed)
+    public PatientRecord findPatientById(int id) {
+        PatientRecord cached = cache.get(id);
+        if (cached != null) {
+            return cached == NOT_FOUND ? null : cached;
+        }
+        // Read before querying, so an invalidation meanwhile keeps the stale result out of the cache
+        long generation = cache.generation(id);
+        long start = FIND.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(FIND_QUERY)) {
             preparedStatement.setInt(1, id);
-            ResultSet resultSet = preparedStatement.executeQuery();
-            return resultSet.next();
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    FIND.success(start, 0);
+                    cache.putIfUnchanged(id, NOT_FOUND, generation, MISS_TTL_SECONDS, TimeUnit.SECONDS);
+                    return null;
+                }
+                PatientRecord patient = read(resultSet);
+                FIND.success(start, 1);
+                cache.putIfUnchanged(id, patient, generation);
+                return patient;
+            }
         } catch (SQLException e) {
+            FIND.failure(start);
             e.printStackTrace();
-            return false;
+            return null;
         }
     }
-}
\ No newline at end of file
+
+    public void addListener(HospitalEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public IntKeyCache<PatientRecord> getCache() {
+        return cache;
+    }
+
+    private static PatientRecord read(ResultSet resultSet) throws SQLException {
+        return new PatientRecord(resultSet.getInt(1), resultSet.getString(2), resultSet.getInt(3), resultSet.getString(4));
+    }
+}
@@ -0,0 +1,270 @@
+package HospitalManagementSystem;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams a {@code name,age,gender} CSV export into the patients table. Rows are validated with
+ * {@link PatientValidator}, inserted with JDBC batches on one prepared statement, and committed
+ * every {@code commitInterval} rows. Invalid rows are copied to a side file with the reason. Each
+ * committed row is announced through {@link Patient}, like a patient added one at a time.
+ *
+ * <p>Against MySQL, {@code rewriteBatchedStatements=true} on the JDBC URL lets the driver send each
+ * batch as a multi-row insert.
+ */
+public class PatientImporter {
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final String INSERT_QUERY = "INSERT INTO patients(name, age, gender) VALUES(?, ?, ?)";
+    private static final String HEADER = "name,age,gender";
+    private static final OperationMetrics BATCH = Metrics.query("patient.importBatch", INSERT_QUERY);
+
+    private ConnectionPool pool;
+    private final Patient patient;
+    private final int batchSize;
+    private final int commitInterval;
+
+    public PatientImporter(ConnectionPool pool, Patient patient, int batchSize, int commitInterval) {
+        if (batchSize <= 0 || commitInterval < batchSize) {
+            throw new IllegalArgumentException("Batch size must be positive and no larger than the commit interval.");
+        }
+        this.pool = pool;
+        this.patient = patient;
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * Imports {@code csvFile}, writing rejected rows to {@code rejectFile}. If the calling thread is
+     * interrupted the rows read so far are committed and the import stops early.
+     */
+    public ImportProgress importFile(Path csvFile, Path rejectFile, Consumer<ImportProgress> progressListener)
+            throws IOException, SQLException {
+        long start = System.nanoTime();
+        long rowsRead = 0;
+        long rowsImported = 0;
+        long rowsRejected = 0;
+        // Rows since the last commit, replayed one by one if a batch fails, and their generated ids
+        List<String[]> uncommitted = new ArrayList<>(commitInterval);
+        List<Integer> uncommittedIds = new ArrayList<>(commitInterval);
+        int batched = 0;
+
+        try (FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ);
+             BufferedReader reader = new BufferedReader(Channels.newReader(channel,
+                     StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE),
+                     READ_BUFFER_SIZE), READ_BUFFER_SIZE);
+             BufferedWriter rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8);
+             Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+            long totalBytes = channel.size();
+            connection.setAutoCommit(false);
+
+            String line;
+            boolean firstLine = true;
+            while ((line = reader.readLine()) != null) {
+                if (firstLine) {
+                    firstLine = false;
+                    if (line.startsWith("\uFEFF")) {
+                        line = line.substring(1);
+                    }
+                    if (isHeader(line)) {
+                        continue;
+                    }
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                rowsRead++;
+                List<String> fields = parseCsvLine(line);
+                String error = fields.size() != 3 ? "Expected 3 fields (name,age,gender) but found " + fields.size() + "."
+                        : PatientValidator.validate(fields.get(0).trim(), fields.get(1), fields.get(2).trim());
+                if (error != null) {
+                    reject(rejects, line, error);
+                    rowsRejected++;
+                    continue;
+                }
+
+                String[] row = {fields.get(0).trim(), fields.get(1).trim(), fields.get(2).trim()};
+                setParameters(preparedStatement, row);
+                preparedStatement.addBatch();
+                uncommitted.add(row);
+                if (++batched == batchSize) {
+                    batched = 0;
+                    boolean commitDue = uncommitted.size() >= commitInterval;
+                    int[] flushed = flush(connection, preparedStatement, uncommitted, uncommittedIds, rejects, commitDue);
+                    if (flushed != null) {
+                        rowsImported += flushed[0];
+                        rowsRejected += flushed[1];
+                    }
+                    progressListener.accept(progress(rowsRead, rowsImported, uncommitted.size(), rowsRejected,
+                            channel.position(), totalBytes, start, false));
+                    if (Thread.currentThread().isInterrupted()) {
+                        break;
+                    }
+                }
+            }
+            int[] flushed = flush(connection, preparedStatement, uncommitted, uncommittedIds, rejects, true);
+            rowsImported += flushed[0];
+            rowsRejected += flushed[1];
+            ImportProgress done = progress(rowsRead, rowsImported, 0, rowsRejected, totalBytes, totalBytes, start, true);
+            progressListener.accept(done);
+            return done;
+        }
+    }
+
+    /**
+     * Sends the pending batch and commits if asked. Returns {imported, rejected} for the rows this
+     * call committed, or null when rows were only batched. A failed batch is rolled back and the
+     * uncommitted rows are retried individually so one bad row does not sink its neighbours. Ids
+     * are announced only once their rows have committed.
+     */
+    private int[] flush(Connection connection, PreparedStatement preparedStatement, List<String[]> uncommitted,
+                        List<Integer> uncommittedIds, BufferedWriter rejects, boolean commit)
+            throws SQLException, IOException {
+        long start = BATCH.start();
+        try {
+            int[] counts = preparedStatement.executeBatch();
+            readGeneratedIds(preparedStatement, uncommittedIds);
+            if (!commit) {
+                BATCH.success(start, counts.length);
+                return null;
+            }
+            connection.commit();
+            BATCH.success(start, counts.length);
+            int imported = uncommitted.size();
+            uncommitted.clear();
+            notifyAdded(uncommittedIds);
+            return new int[]{imported, 0};
+        } catch (SQLException batchFailure) {
+            BATCH.failure(start);
+            connection.rollback();
+            preparedStatement.clearBatch();
+            uncommittedIds.clear();
+            int imported = 0;
+            int rejected = 0;
+            for (String[] row : uncommitted) {
+                try {
+                    setParameters(preparedStatement, row);
+                    preparedStatement.executeUpdate();
+                    readGeneratedIds(preparedStatement, uncommittedIds);
+                    connection.commit();
+                    imported++;
+                    notifyAdded(uncommittedIds);
+                } catch (SQLException rowFailure) {
+                    connection.rollback();
+                    uncommittedIds.clear();
+                    reject(rejects, toCsvLine(row), "Database error: " + rowFailure.getMessage());
+                    rejected++;
+                }
+            }
+            uncommitted.clear();
+            return new int[]{imported, rejected};
+        }
+    }
+
+    private static void readGeneratedIds(PreparedStatement preparedStatement, List<Integer> ids) throws SQLException {
+        try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+            while (generatedKeys.next()) {
+                ids.add(generatedKeys.getInt(1));
+            }
+        }
+    }
+
+    private void notifyAdded(List<Integer> ids) {
+        for (int id : ids) {
+            patient.notifyAdded(id);
+        }
+        ids.clear();
+    }
+
+    // Only the exact column header, so a patient whose name starts with "Name" is still imported
+    static boolean isHeader(String line) {
+        List<String> fields = parseCsvLine(line);
+        fields.replaceAll(String::trim);
+        return String.join(",", fields).equalsIgnoreCase(HEADER);
+    }
+
+    private static void setParameters(PreparedStatement preparedStatement, String[] row) throws SQLException {
+        preparedStatement.setString(1, row[0]);
+        preparedStatement.setInt(2, Integer.parseInt(row[1]));
+        preparedStatement.setString(3, row[2]);
+    }
+
+    private static void reject(BufferedWriter rejects, String line, String reason) throws IOException {
+        rejects.write(line);
+        rejects.write(",\"");
+        rejects.write(reason.replace("\"", "\"\"").replace('\r', ' ').replace('\n', ' '));
+        rejects.write('"');
+        rejects.newLine();
+    }
+
+    private static ImportProgress progress(long rowsRead, long committed, int pending, long rejected, long bytesRead,
+                                           long totalBytes, long startNanos, boolean finished) {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        return new ImportProgress(rowsRead, committed, rejected, bytesRead, totalBytes,
+                (committed + pending + rejected) / seconds, finished);
+    }
+
+    // Quotes fields the way parseCsvLine reads them, so a rejected row can be fixed and imported again
+    static String toCsvLine(String[] row) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String field = row[i];
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0) {
+                line.append('"').append(field.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(field);
+            }
+        }
+        return line.toString();
+    }
+
+    // Minimal RFC 4180 field splitting: quoted fields may contain commas and doubled quotes
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
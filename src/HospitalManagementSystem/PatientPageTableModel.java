@@ -0,0 +1,187 @@
+package HospitalManagementSystem;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Virtual patient table. Only the row count is known up front; pages are fetched with keyset
+ * queries as the table asks for rows, and a bounded LRU of pages keeps memory flat.
+ */
+public class PatientPageTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"ID", "Name", "Age", "Gender"};
+
+    private final Patient patient;
+    private final AsyncDataAccess dataAccess;
+    private final int pageSize;
+    private final Map<Integer, PatientRecord[]> pages;
+    private final Map<Integer, CompletableFuture<?>> pending = new HashMap<>();
+    private int rowCount;
+    // Last patient id of each page seen so far, so the next page can seek straight to it
+    private int[] pageLastIds = new int[0];
+    private boolean closed;
+    private boolean loading;
+    private Consumer<Throwable> pageErrorHandler = Throwable::printStackTrace;
+
+    public PatientPageTableModel(Patient patient, AsyncDataAccess dataAccess, int pageSize, int maxCachedPages) {
+        this.patient = patient;
+        this.dataAccess = dataAccess;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, PatientRecord[]> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+    }
+
+    // Called on the EDT when a page fetch fails; the page is fetched again the next time the table asks for it
+    public void setPageErrorHandler(Consumer<Throwable> pageErrorHandler) {
+        this.pageErrorHandler = pageErrorHandler;
+    }
+
+    // Fetches the row count, reopening a closed model; the returned future completes on the EDT once the table is sized
+    public CompletableFuture<Integer> load() {
+        closed = false;
+        loading = true;
+        CompletableFuture<Integer> count = dataAccess.submit(patient::countPatients);
+        CompletableFuture<Integer> loaded = new CompletableFuture<>();
+        count.whenComplete((total, error) -> SwingUtilities.invokeLater(() -> {
+            loading = false;
+            if (error != null) {
+                loaded.completeExceptionally(error);
+                return;
+            }
+            if (!closed) {
+                rowCount = total;
+                pageLastIds = new int[(total + pageSize - 1) / pageSize];
+                Arrays.fill(pageLastIds, -1);
+                pages.clear();
+                fireTableDataChanged();
+            }
+            loaded.complete(total);
+        }));
+        return loaded;
+    }
+
+    // New patients get the highest ids, so they are appended after the last row. Ignored while
+    // the count is loading, since the count may already include them
+    public void patientsAdded(int count) {
+        if (closed || loading || count == 0) {
+            return;
+        }
+        int first = rowCount;
+        rowCount += count;
+        int pageCount = (rowCount + pageSize - 1) / pageSize;
+        if (pageCount > pageLastIds.length) {
+            int known = pageLastIds.length;
+            pageLastIds = Arrays.copyOf(pageLastIds, pageCount);
+            Arrays.fill(pageLastIds, known, pageCount, -1);
+        }
+        // The last page was fetched short; fetch it again to pick up the new rows
+        int lastPage = first / pageSize;
+        pages.remove(lastPage);
+        CompletableFuture<?> fetching = pending.remove(lastPage);
+        if (fetching != null) {
+            fetching.cancel(true);
+        }
+        fireTableRowsInserted(first, rowCount - 1);
+    }
+
+    // Drops the cached pages and cancels fetches in flight, e.g. while the window is hidden
+    public void close() {
+        closed = true;
+        for (CompletableFuture<?> future : pending.values()) {
+            future.cancel(true);
+        }
+        pending.clear();
+        pages.clear();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int page = rowIndex / pageSize;
+        PatientRecord[] rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return columnIndex == 1 ? "Loading..." : "";
+        }
+        int offset = rowIndex % pageSize;
+        if (offset >= rows.length) {
+            return "";
+        }
+        PatientRecord row = rows[offset];
+        switch (columnIndex) {
+            case 0:
+                return row.id();
+            case 1:
+                return row.name();
+            case 2:
+                return row.age();
+            default:
+                return row.gender();
+        }
+    }
+
+    private void requestPage(int page) {
+        if (closed || pending.containsKey(page)) {
+            return;
+        }
+        int knownAfterId = page == 0 ? 0 : pageLastIds[page - 1];
+        CompletableFuture<List<PatientRecord>> future = dataAccess.submit(() -> {
+            int afterId = knownAfterId;
+            if (afterId < 0) {
+                // Jumped past unseen pages: find this page's first id, then seek from just before it
+                int firstId = patient.getPatientIdAtOffset(page * pageSize);
+                if (firstId < 0) {
+                    return List.of();
+                }
+                afterId = firstId - 1;
+            }
+            return patient.viewPatientsPage(afterId, pageSize);
+        });
+        pending.put(page, future);
+        future.whenComplete((rows, error) -> SwingUtilities.invokeLater(() -> {
+            // A cancelled fetch was already dropped from pending, and a newer one may hold its page now.
+            // A failed one is dropped too, so the next repaint of its rows retries it
+            if (!pending.remove(page, future) || closed || future.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                pageErrorHandler.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                return;
+            }
+            pages.put(page, rows.toArray(new PatientRecord[0]));
+            if (!rows.isEmpty() && page < pageLastIds.length) {
+                pageLastIds[page] = rows.get(rows.size() - 1).id();
+            }
+            int first = page * pageSize;
+            int last = Math.min(rowCount, first + pageSize) - 1;
+            if (first <= last) {
+                fireTableRowsUpdated(first, last);
+            }
+        }));
+    }
+}
@@ -0,0 +1,7 @@
+package HospitalManagementSystem;
+
+/**
+ * A row of the {@code patients} table.
+ */
+public record PatientRecord(int id, String name, int age, String gender) {
+}
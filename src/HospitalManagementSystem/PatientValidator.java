@@ -0,0 +1,26 @@
+package HospitalManagementSystem;
+
+/**
+ * Patient input rules shared by the Add Patient dialog and the bulk importer.
+ */
+public final class PatientValidator {
+    private PatientValidator() {
+    }
+
+    // Returns null when the input is valid, otherwise the message to show
+    public static String validate(String name, String ageText, String gender) {
+        int age;
+        try {
+            age = Integer.parseInt(ageText.trim());
+        } catch (NumberFormatException e) {
+            return "Please enter a valid age.";
+        }
+        if (name.isEmpty() || gender.isEmpty()) {
+            return "All fields are required.";
+        }
+        if (age < 0) {
+            return "Age must be non-negative.";
+        }
+        return null;
+    }
+}
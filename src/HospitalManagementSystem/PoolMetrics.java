@@ -0,0 +1,114 @@
+package HospitalManagementSystem;
+
+/**
+ * Point-in-time snapshot of {@link ConnectionPool} counters, used to size the pool from data.
+ */
+public class PoolMetrics {
+    private final int maxSize;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final long borrowCount;
+    private final long borrowTimeouts;
+    private final long averageWaitNanos;
+    private final long maxWaitNanos;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long validationFailures;
+    private final long reconnectCount;
+    private final long leaksDetected;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final int openStatements;
+
+    public PoolMetrics(int maxSize, int activeConnections, int idleConnections, long borrowCount,
+                       long borrowTimeouts, long averageWaitNanos, long maxWaitNanos, long createdCount,
+                       long destroyedCount, long validationFailures, long reconnectCount, long leaksDetected,
+                       long statementCacheHits, long statementCacheMisses, int openStatements) {
+        this.maxSize = maxSize;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.borrowCount = borrowCount;
+        this.borrowTimeouts = borrowTimeouts;
+        this.averageWaitNanos = averageWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.validationFailures = validationFailures;
+        this.reconnectCount = reconnectCount;
+        this.leaksDetected = leaksDetected;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.openStatements = openStatements;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getBorrowTimeouts() {
+        return borrowTimeouts;
+    }
+
+    public long getAverageWaitNanos() {
+        return averageWaitNanos;
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    public long getReconnectCount() {
+        return reconnectCount;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public int getOpenStatements() {
+        return openStatements;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pool[max=%d, active=%d, idle=%d, borrows=%d, timeouts=%d, avgWait=%.3f ms, "
+                        + "maxWait=%.3f ms, created=%d, destroyed=%d, validationFailures=%d, reconnects=%d, leaks=%d, "
+                        + "stmtCacheHits=%d, stmtCacheMisses=%d, openStatements=%d]",
+                maxSize, activeConnections, idleConnections, borrowCount, borrowTimeouts,
+                averageWaitNanos / 1_000_000.0, maxWaitNanos / 1_000_000.0, createdCount, destroyedCount,
+                validationFailures, reconnectCount, leaksDetected, statementCacheHits, statementCacheMisses,
+                openStatements);
+    }
+}
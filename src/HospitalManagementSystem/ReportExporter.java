@@ -0,0 +1,580 @@
+package HospitalManagementSystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Exports patients, doctors and appointments to CSV or JSON, and writes appointment rosters with
+ * one file per doctor. Queries are forward-only and read-only with a fetch size, and each row is
+ * encoded straight into a byte buffer that goes to a {@link FileChannel} when full, so an export
+ * holds one fetch of rows however large the table is. Rosters are generated in parallel, one task
+ * per doctor, on a ForkJoinPool of {@code parallelism} workers that each hold one pooled connection.
+ *
+ * <p>Connector/J reads the whole result into memory whatever the fetch size unless the JDBC URL
+ * has {@code useCursorFetch=true}.
+ */
+public class ReportExporter {
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final long PROGRESS_INTERVAL_MILLIS = 200;
+
+    private static final Dataset PATIENTS = new Dataset("report.patients",
+            "SELECT id, name, age, gender FROM patients ORDER BY id",
+            "SELECT COUNT(*) FROM patients",
+            new String[]{"id", "name", "age", "gender"}, new boolean[]{true, false, true, false});
+    private static final Dataset DOCTORS = new Dataset("report.doctors",
+            "SELECT id, name, specialization FROM doctors ORDER BY id",
+            "SELECT COUNT(*) FROM doctors",
+            new String[]{"id", "name", "specialization"}, new boolean[]{true, false, false});
+    private static final Dataset APPOINTMENTS = new Dataset("report.appointments",
+            "SELECT a.id, a.appointment_date, a.appointment_time, a.doctor_id, d.name, a.patient_id, p.name FROM appointments a "
+                    + "JOIN doctors d ON d.id = a.doctor_id JOIN patients p ON p.id = a.patient_id ORDER BY a.id",
+            "SELECT COUNT(*) FROM appointments",
+            new String[]{"id", "date", "time", "doctor_id", "doctor_name", "patient_id", "patient_name"},
+            new boolean[]{true, false, false, true, false, true, false});
+    private static final Dataset ROSTER = new Dataset("report.roster",
+            "SELECT a.appointment_date, a.appointment_time, a.patient_id, p.name, p.age, p.gender FROM appointments a "
+                    + "JOIN patients p ON p.id = a.patient_id WHERE a.doctor_id = ? AND a.appointment_date BETWEEN ? AND ? "
+                    + "ORDER BY a.appointment_date, a.appointment_time",
+            "SELECT COUNT(*) FROM appointments WHERE appointment_date BETWEEN ? AND ?",
+            new String[]{"date", "time", "patient_id", "patient_name", "age", "gender"},
+            new boolean[]{false, false, true, false, true, false});
+    private static final String ROSTER_DOCTORS_QUERY =
+            "SELECT DISTINCT doctor_id FROM appointments WHERE appointment_date BETWEEN ? AND ? ORDER BY doctor_id";
+
+    public enum Format {
+        CSV(".csv"), JSON(".json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private ConnectionPool pool;
+    private final int fetchSize;
+    private final int parallelism;
+
+    public ReportExporter(ConnectionPool pool, int fetchSize, int parallelism) {
+        if (fetchSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Fetch size and parallelism must be positive.");
+        }
+        this.pool = pool;
+        this.fetchSize = fetchSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Writes every patient to {@code file}. If the calling thread is interrupted the export stops
+     * after the current fetch, the partial file is deleted and the progress returned is not finished.
+     */
+    public ExportProgress exportPatients(Path file, Format format, Consumer<ExportProgress> progressListener)
+            throws IOException, SQLException {
+        return export(PATIENTS, file, format, progressListener);
+    }
+
+    public ExportProgress exportDoctors(Path file, Format format, Consumer<ExportProgress> progressListener)
+            throws IOException, SQLException {
+        return export(DOCTORS, file, format, progressListener);
+    }
+
+    // Appointments with the doctor's and patient's names
+    public ExportProgress exportAppointments(Path file, Format format, Consumer<ExportProgress> progressListener)
+            throws IOException, SQLException {
+        return export(APPOINTMENTS, file, format, progressListener);
+    }
+
+    /**
+     * Writes a roster for each doctor with appointments between {@code from} and {@code to}
+     * (inclusive) into {@code directory}, as {@code roster-<from>[_<to>]-doctor-<id>}. Interrupting
+     * the calling thread stops the workers after their current fetch; rosters already complete are
+     * kept and partial ones deleted.
+     */
+    public ExportProgress exportRosters(LocalDate from, LocalDate to, Path directory, Format format,
+                                        Consumer<ExportProgress> progressListener) throws IOException, SQLException {
+        long start = System.nanoTime();
+        List<Integer> doctorIds = new ArrayList<>();
+        long totalRows;
+        try (Connection connection = pool.getConnection();
+             PreparedStatement doctors = connection.prepareStatement(ROSTER_DOCTORS_QUERY);
+             PreparedStatement count = connection.prepareStatement(ROSTER.countQuery())) {
+            for (PreparedStatement statement : new PreparedStatement[]{doctors, count}) {
+                statement.setDate(1, Date.valueOf(from));
+                statement.setDate(2, Date.valueOf(to));
+            }
+            try (ResultSet resultSet = doctors.executeQuery()) {
+                while (resultSet.next()) {
+                    doctorIds.add(resultSet.getInt(1));
+                }
+            }
+            try (ResultSet resultSet = count.executeQuery()) {
+                resultSet.next();
+                totalRows = resultSet.getLong(1);
+            }
+        }
+        Files.createDirectories(directory);
+
+        RosterRun run = new RosterRun(from, to, directory, format);
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try {
+            int[] ids = doctorIds.stream().mapToInt(Integer::intValue).toArray();
+            ForkJoinTask<Void> task = forkJoinPool.submit(new RosterTask(run, ids, 0, ids.length));
+            while (true) {
+                try {
+                    task.get(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    progressListener.accept(run.progress(totalRows, start, false));
+                } catch (InterruptedException e) {
+                    run.cancelled = true;
+                    task.quietlyJoin();
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    throw rethrow(e.getCause());
+                }
+            }
+        } finally {
+            forkJoinPool.shutdown();
+        }
+        ExportProgress done = run.progress(totalRows, start, !run.cancelled);
+        progressListener.accept(done);
+        return done;
+    }
+
+    private ExportProgress export(Dataset dataset, Path file, Format format, Consumer<ExportProgress> progressListener)
+            throws IOException, SQLException {
+        long start = System.nanoTime();
+        long metricsStart = dataset.metrics().start();
+        long totalRows;
+        try (Connection connection = pool.getConnection();
+             PreparedStatement count = connection.prepareStatement(dataset.countQuery());
+             ResultSet resultSet = count.executeQuery()) {
+            resultSet.next();
+            totalRows = resultSet.getLong(1);
+        }
+
+        ReportWriter writer = new ReportWriter(file, format, dataset);
+        boolean cancelled = false;
+        try (writer;
+             Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = prepareStreaming(connection, dataset.query());
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                writer.writeRow(resultSet);
+                if (writer.rows % fetchSize == 0) {
+                    progressListener.accept(progress(writer.rows, totalRows, writer.bytesWritten(), 0, start, false));
+                    if (Thread.currentThread().isInterrupted()) {
+                        cancelled = true;
+                        break;
+                    }
+                }
+            }
+            if (!cancelled) {
+                writer.finish();
+            }
+        } catch (ClosedByInterruptException e) {
+            // Interrupted inside a write, which also closes the channel
+            cancelled = true;
+        } catch (IOException | SQLException e) {
+            dataset.metrics().failure(metricsStart);
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        dataset.metrics().success(metricsStart, writer.rows);
+        if (cancelled) {
+            Files.deleteIfExists(file);
+        }
+        ExportProgress done = progress(writer.rows, totalRows, writer.bytesWritten(), cancelled ? 0 : 1, start, !cancelled);
+        progressListener.accept(done);
+        return done;
+    }
+
+    private PreparedStatement prepareStreaming(Connection connection, String query) throws SQLException {
+        PreparedStatement preparedStatement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        preparedStatement.setFetchSize(fetchSize);
+        return preparedStatement;
+    }
+
+    private static ExportProgress progress(long rows, long totalRows, long bytes, int files, long startNanos, boolean finished) {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        return new ExportProgress(rows, totalRows, bytes, files, bytes / 1e6 / seconds, finished);
+    }
+
+    // The IOException or SQLException a roster task failed with
+    private static IOException rethrow(Throwable failure) throws SQLException {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return (IOException) cause;
+            }
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        throw new IllegalStateException(failure);
+    }
+
+    private record Dataset(String query, String countQuery, String[] columns, boolean[] numeric, OperationMetrics metrics) {
+        Dataset(String metricsName, String query, String countQuery, String[] columns, boolean[] numeric) {
+            this(query, countQuery, columns, numeric, Metrics.query(metricsName, query));
+        }
+    }
+
+    // Shared state of one roster export; the workers add to the counters as they go
+    private final class RosterRun {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final Path directory;
+        private final Format format;
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final AtomicInteger files = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        RosterRun(LocalDate from, LocalDate to, Path directory, Format format) {
+            this.from = from;
+            this.to = to;
+            this.directory = directory;
+            this.format = format;
+        }
+
+        void writeRoster(int doctorId) throws IOException, SQLException {
+            String range = to.equals(from) ? from.toString() : from + "_" + to;
+            Path file = directory.resolve("roster-" + range + "-doctor-" + doctorId + format.getExtension());
+            long metricsStart = ROSTER.metrics().start();
+            ReportWriter writer = new ReportWriter(file, format, ROSTER);
+            long reportedRows = 0;
+            long reportedBytes = 0;
+            boolean complete = false;
+            try (writer;
+                 Connection connection = pool.getConnection();
+                 PreparedStatement preparedStatement = prepareStreaming(connection, ROSTER.query())) {
+                preparedStatement.setInt(1, doctorId);
+                preparedStatement.setDate(2, Date.valueOf(from));
+                preparedStatement.setDate(3, Date.valueOf(to));
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        writer.writeRow(resultSet);
+                        if (writer.rows % fetchSize == 0) {
+                            rows.add(writer.rows - reportedRows);
+                            bytes.add(writer.bytesWritten() - reportedBytes);
+                            reportedRows = writer.rows;
+                            reportedBytes = writer.bytesWritten();
+                            if (cancelled) {
+                                break;
+                            }
+                        }
+                    }
+                }
+                if (!cancelled) {
+                    writer.finish();
+                    complete = true;
+                }
+            } catch (IOException | SQLException e) {
+                ROSTER.metrics().failure(metricsStart);
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            ROSTER.metrics().success(metricsStart, writer.rows);
+            rows.add(writer.rows - reportedRows);
+            bytes.add(writer.bytesWritten() - reportedBytes);
+            if (complete) {
+                files.incrementAndGet();
+            } else {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        ExportProgress progress(long totalRows, long startNanos, boolean finished) {
+            return ReportExporter.progress(rows.sum(), totalRows, bytes.sum(), files.get(), startNanos, finished);
+        }
+    }
+
+    // Splits the doctors in halves down to one roster per task
+    private static final class RosterTask extends RecursiveAction {
+        private final RosterRun run;
+        private final int[] doctorIds;
+        private final int from;
+        private final int to;
+
+        RosterTask(RosterRun run, int[] doctorIds, int from, int to) {
+            this.run = run;
+            this.doctorIds = doctorIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RosterTask(run, doctorIds, from, middle), new RosterTask(run, doctorIds, middle, to));
+                return;
+            }
+            if (to == from || run.cancelled) {
+                return;
+            }
+            try {
+                run.writeRoster(doctorIds[from]);
+            } catch (IOException | SQLException e) {
+                // The other workers stop at their next fetch
+                run.cancelled = true;
+                throw new CompletionException(e);
+            }
+        }
+    }
+
+    /**
+     * Encodes rows as UTF-8 CSV or JSON into a reused array and writes it to the channel when full.
+     * Room for each value is reserved before it is encoded, so the copy loops do no bounds checks.
+     * CSV has a header row and quotes fields that need it; JSON is an array with one object per
+     * line. Nulls are empty CSV fields and JSON nulls.
+     */
+    private static final class ReportWriter implements Closeable {
+        // Worst cases per char: a six-byte JSON escape, and a doubled quote or three UTF-8 bytes in CSV
+        // (a surrogate pair is two chars and four bytes)
+        private static final int JSON_BYTES_PER_CHAR = 6;
+        private static final int CSV_BYTES_PER_CHAR = 3;
+        private static final int INT_BYTES = 11;
+        private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+        private final FileChannel channel;
+        private final boolean json;
+        private final boolean[] numeric;
+        // JSON: the text before each value, from the opening brace or comma to the colon
+        private final byte[][] jsonKeys;
+        private byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+        private int position;
+        private long flushed;
+        private long rows;
+
+        ReportWriter(Path file, Format format, Dataset dataset) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.json = format == Format.JSON;
+            this.numeric = dataset.numeric();
+            String[] columns = dataset.columns();
+            this.jsonKeys = new byte[columns.length][];
+            for (int i = 0; i < columns.length; i++) {
+                jsonKeys[i] = ((i == 0 ? "{\"" : ",\"") + columns[i] + "\":").getBytes(StandardCharsets.UTF_8);
+            }
+            writeAscii(json ? "[" : String.join(",", columns) + "\n");
+        }
+
+        void writeRow(ResultSet resultSet) throws SQLException, IOException {
+            if (json) {
+                writeAscii(rows == 0 ? "\n" : ",\n");
+            }
+            for (int i = 0; i < numeric.length; i++) {
+                String text = null;
+                int value = 0;
+                if (numeric[i]) {
+                    value = resultSet.getInt(i + 1);
+                } else {
+                    text = resultSet.getString(i + 1);
+                }
+                boolean isNull = numeric[i] ? resultSet.wasNull() : text == null;
+                int length = isNull ? 4 : numeric[i] ? INT_BYTES : text.length() * (json ? JSON_BYTES_PER_CHAR : CSV_BYTES_PER_CHAR) + 2;
+                reserve((json ? jsonKeys[i].length : 1) + length);
+                if (json) {
+                    System.arraycopy(jsonKeys[i], 0, buffer, position, jsonKeys[i].length);
+                    position += jsonKeys[i].length;
+                } else if (i > 0) {
+                    buffer[position++] = ',';
+                }
+                if (isNull) {
+                    if (json) {
+                        putAscii("null");
+                    }
+                } else if (numeric[i]) {
+                    putInt(value);
+                } else if (json) {
+                    putJsonString(text);
+                } else {
+                    putCsvField(text);
+                }
+            }
+            writeAscii(json ? "}" : "\n");
+            rows++;
+        }
+
+        void finish() throws IOException {
+            writeAscii(json ? "\n]\n" : "");
+            flush();
+        }
+
+        long bytesWritten() {
+            return flushed + position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private void putJsonString(String value) {
+            byte[] bytes = buffer;
+            int end = position;
+            bytes[end++] = '"';
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                    bytes[end++] = (byte) c;
+                } else if (c == '"' || c == '\\') {
+                    bytes[end++] = '\\';
+                    bytes[end++] = (byte) c;
+                } else if (c < 0x20) {
+                    bytes[end++] = '\\';
+                    bytes[end++] = 'u';
+                    bytes[end++] = '0';
+                    bytes[end++] = '0';
+                    bytes[end++] = HEX_DIGITS[c >> 4];
+                    bytes[end++] = HEX_DIGITS[c & 0xF];
+                } else {
+                    position = end;
+                    i = putNonAscii(value, i);
+                    end = position;
+                }
+            }
+            bytes[end++] = '"';
+            position = end;
+        }
+
+        private void putCsvField(String value) {
+            int length = value.length();
+            boolean quote = false;
+            for (int i = 0; i < length && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            byte[] bytes = buffer;
+            int end = position;
+            if (quote) {
+                bytes[end++] = '"';
+            }
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"') {
+                        bytes[end++] = '"';
+                    }
+                    bytes[end++] = (byte) c;
+                } else {
+                    position = end;
+                    i = putNonAscii(value, i);
+                    end = position;
+                }
+            }
+            if (quote) {
+                bytes[end++] = '"';
+            }
+            position = end;
+        }
+
+        // UTF-8 for the character at index, returning the index of its last char; unpaired surrogates become '?'
+        private int putNonAscii(String value, int index) {
+            char c = value.charAt(index);
+            if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && index + 1 < value.length() && Character.isLowSurrogate(value.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++index));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                buffer[position++] = '?';
+            }
+            return index;
+        }
+
+        private void putInt(int value) {
+            long remaining = value;
+            if (remaining < 0) {
+                buffer[position++] = '-';
+                remaining = -remaining;
+            }
+            int digits = 1;
+            for (long bound = 10; remaining >= bound; bound *= 10) {
+                digits++;
+            }
+            for (int i = position + digits - 1; i >= position; i--) {
+                buffer[i] = (byte) ('0' + remaining % 10);
+                remaining /= 10;
+            }
+            position += digits;
+        }
+
+        private void putAscii(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                buffer[position++] = (byte) text.charAt(i);
+            }
+        }
+
+        private void writeAscii(String text) throws IOException {
+            reserve(text.length());
+            putAscii(text);
+        }
+
+        private void reserve(int bytes) throws IOException {
+            if (buffer.length - position < bytes) {
+                makeRoom(bytes);
+            }
+        }
+
+        // Only a value larger than the whole buffer grows it
+        private void makeRoom(int bytes) throws IOException {
+            flush();
+            if (bytes > buffer.length) {
+                buffer = new byte[Math.max(bytes, buffer.length * 2)];
+            }
+        }
+
+        private void flush() throws IOException {
+            ByteBuffer pending = ByteBuffer.wrap(buffer, 0, position);
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+            flushed += position;
+            position = 0;
+        }
+    }
+}
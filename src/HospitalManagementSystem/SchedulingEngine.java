@@ -0,0 +1,302 @@
+package HospitalManagementSystem;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-slot scheduling. Each doctor has a {@link DoctorSchedule} (slot length and working hours,
+ * from {@code doctor_schedules} or the {@code hms.schedule.*} defaults) and a {@link DoctorCalendar}
+ * of booked slots, so conflict checks are a binary search and the earliest open slot is found
+ * first-fit without a query. Fully booked days are mirrored into the {@link AvailabilityIndex}
+ * so searches skip them a word of days at a time.
+ *
+ * <p>Reservations here only stop this process from offering the same slot twice; the unique key on
+ * {@code appointments(doctor_id, appointment_date, appointment_time)} still decides every booking.
+ */
+public class SchedulingEngine {
+    private static final DoctorSchedule DEFAULT_SCHEDULE = new DoctorSchedule(
+            Integer.getInteger("hms.schedule.slotMinutes", 15),
+            LocalTime.parse(System.getProperty("hms.schedule.workStart", "09:00")),
+            LocalTime.parse(System.getProperty("hms.schedule.workEnd", "17:00")));
+    // How far ahead a first-fit search looks before giving up
+    private static final int SEARCH_DAYS = 366;
+
+    private static final String SCHEDULES_QUERY = "SELECT doctor_id, slot_minutes, work_start, work_end FROM doctor_schedules";
+    private static final String BOOKINGS_QUERY =
+            "SELECT doctor_id, appointment_date, appointment_time FROM appointments WHERE appointment_date >= ?";
+    private static final String SAVE_SCHEDULE_QUERY = "INSERT INTO doctor_schedules(doctor_id, slot_minutes, work_start, work_end) "
+            + "VALUES(?, ?, ?, ?) ON DUPLICATE KEY UPDATE slot_minutes = VALUES(slot_minutes), "
+            + "work_start = VALUES(work_start), work_end = VALUES(work_end)";
+    private static final OperationMetrics LOAD = Metrics.query("schedule.load", BOOKINGS_QUERY);
+    private static final OperationMetrics SAVE_SCHEDULE = Metrics.query("schedule.save", SAVE_SCHEDULE_QUERY);
+
+    private final ConnectionPool pool;
+    private final Doctor doctor;
+    private final AvailabilityIndex availabilityIndex;
+    private volatile Map<Integer, DoctorCalendar> calendars = new ConcurrentHashMap<>();
+    private volatile Map<String, List<Integer>> doctorsBySpecialization = new HashMap<>();
+    // The roster as of the last reload; null until the first one succeeds
+    private volatile Set<Integer> doctorIds;
+    // Guarded by this. Reservations made while a reload runs, replayed onto the new calendars.
+    private List<long[]> changedDuringReload;
+
+    public SchedulingEngine(ConnectionPool pool, Doctor doctor, AvailabilityIndex availabilityIndex) {
+        this.pool = pool;
+        this.doctor = doctor;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    public AvailabilityIndex getAvailabilityIndex() {
+        return availabilityIndex;
+    }
+
+    // Rebuilds every calendar from today's and later appointments
+    public void reload() throws SQLException {
+        LocalDate today = LocalDate.now();
+        synchronized (this) {
+            changedDuringReload = new ArrayList<>();
+        }
+        Map<Integer, DoctorCalendar> loaded = new ConcurrentHashMap<>();
+        long start = LOAD.start();
+        int rows = 0;
+        try (Connection connection = pool.getConnection()) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(SCHEDULES_QUERY);
+                 ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    loaded.put(resultSet.getInt(1), new DoctorCalendar(new DoctorSchedule(resultSet.getInt(2),
+                            resultSet.getTime(3).toLocalTime(), resultSet.getTime(4).toLocalTime())));
+                }
+            }
+            try (PreparedStatement preparedStatement = connection.prepareStatement(BOOKINGS_QUERY)) {
+                preparedStatement.setDate(1, Date.valueOf(today));
+                preparedStatement.setFetchSize(1000);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        DoctorCalendar calendar = loaded.computeIfAbsent(resultSet.getInt(1), id -> new DoctorCalendar(DEFAULT_SCHEDULE));
+                        LocalTime time = resultSet.getTime(3).toLocalTime();
+                        calendar.insert(DoctorCalendar.key(resultSet.getDate(2).toLocalDate().toEpochDay(), time.toSecondOfDay() / 60));
+                        rows++;
+                    }
+                }
+            }
+            LOAD.success(start, rows);
+        } catch (SQLException e) {
+            LOAD.failure(start);
+            synchronized (this) {
+                changedDuringReload = null;
+            }
+            throw e;
+        }
+
+        List<DoctorRecord> roster = doctor.viewDoctors();
+        Map<String, List<Integer>> specializations = new HashMap<>();
+        Set<Integer> ids = new HashSet<>();
+        for (DoctorRecord record : roster) {
+            specializations.computeIfAbsent(record.specialization().toLowerCase(), s -> new ArrayList<>()).add(record.id());
+            ids.add(record.id());
+        }
+        synchronized (this) {
+            calendars = loaded;
+            doctorsBySpecialization = specializations;
+            doctorIds = ids;
+            availabilityIndex.reset(today);
+            for (Map.Entry<Integer, DoctorCalendar> entry : loaded.entrySet()) {
+                markFullDays(entry.getKey(), entry.getValue(), today);
+            }
+            List<long[]> replay = changedDuringReload;
+            changedDuringReload = null;
+            for (long[] change : replay) {
+                DoctorCalendar calendar = calendarFor((int) change[0]);
+                synchronized (calendar) {
+                    if (change[2] > 0) {
+                        calendar.book(change[1]);
+                    } else {
+                        calendar.release(change[1]);
+                    }
+                    updateFullDay((int) change[0], calendar, change[1] / DoctorCalendar.MINUTES_PER_DAY);
+                }
+            }
+        }
+    }
+
+    public DoctorSchedule getSchedule(int doctorId) {
+        DoctorCalendar calendar = calendars.get(doctorId);
+        return calendar == null ? DEFAULT_SCHEDULE : calendar.getSchedule();
+    }
+
+    /**
+     * Stores the doctor's slot length and working hours. Existing appointments are kept as they are;
+     * new slots follow the new schedule.
+     */
+    public void setSchedule(int doctorId, DoctorSchedule schedule) throws SQLException {
+        long start = SAVE_SCHEDULE.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SAVE_SCHEDULE_QUERY)) {
+            preparedStatement.setInt(1, doctorId);
+            preparedStatement.setInt(2, schedule.slotMinutes());
+            preparedStatement.setTime(3, Time.valueOf(schedule.workStart()));
+            preparedStatement.setTime(4, Time.valueOf(schedule.workEnd()));
+            preparedStatement.executeUpdate();
+            SAVE_SCHEDULE.success(start, 1);
+        } catch (SQLException e) {
+            SAVE_SCHEDULE.failure(start);
+            throw e;
+        }
+        DoctorCalendar calendar = calendarFor(doctorId);
+        synchronized (calendar) {
+            calendar.setSchedule(schedule);
+        }
+    }
+
+    // Whether the time is a slot start inside the doctor's working hours
+    public boolean isSlotStart(int doctorId, LocalTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0 && getSchedule(doctorId).isSlotStart(time.toSecondOfDay() / 60);
+    }
+
+    public boolean isFree(int doctorId, LocalDate date, LocalTime time) {
+        DoctorCalendar calendar = calendars.get(doctorId);
+        if (calendar == null) {
+            return true;
+        }
+        synchronized (calendar) {
+            return !calendar.conflicts(DoctorCalendar.key(date.toEpochDay(), time.toSecondOfDay() / 60));
+        }
+    }
+
+    /**
+     * Whether bookings for this id may be reserved. Checked before {@link #reserve}, since a
+     * reservation keeps a calendar for the id. Doctors added since the last reload are looked up
+     * through the Doctor cache. Offline, only the last roster counts; before the first reload ids
+     * are let through and the reconciler rejects unknown ones when it replays them.
+     */
+    public boolean isKnownDoctor(int doctorId) {
+        Set<Integer> known = doctorIds;
+        if (known != null && known.contains(doctorId)) {
+            return true;
+        }
+        if (pool.isOffline()) {
+            return known == null;
+        }
+        return doctor.findDoctorById(doctorId) != null;
+    }
+
+    // Holds the slot for this process; false if it overlaps a booked or held slot
+    public boolean reserve(int doctorId, LocalDate date, LocalTime time) {
+        long key = DoctorCalendar.key(date.toEpochDay(), time.toSecondOfDay() / 60);
+        DoctorCalendar calendar = calendarFor(doctorId);
+        synchronized (calendar) {
+            if (!calendar.book(key)) {
+                return false;
+            }
+            updateFullDay(doctorId, calendar, date.toEpochDay());
+        }
+        recordChange(doctorId, key, 1);
+        return true;
+    }
+
+    // Gives back a slot whose booking did not go through
+    public void release(int doctorId, LocalDate date, LocalTime time) {
+        long key = DoctorCalendar.key(date.toEpochDay(), time.toSecondOfDay() / 60);
+        DoctorCalendar calendar = calendarFor(doctorId);
+        synchronized (calendar) {
+            calendar.release(key);
+            updateFullDay(doctorId, calendar, date.toEpochDay());
+        }
+        recordChange(doctorId, key, -1);
+    }
+
+    // The doctor's earliest open slot at or after from (never in the past), or null if none within a year
+    public AppointmentSlot firstFreeSlot(int doctorId, LocalDateTime from) {
+        LocalDateTime now = LocalDateTime.now();
+        if (from.isBefore(now)) {
+            from = now;
+        }
+        LocalDate date = from.toLocalDate();
+        // Round up to the next whole minute
+        int second = from.toLocalTime().toSecondOfDay();
+        int fromMinute = second / 60 + (second % 60 != 0 || from.getNano() != 0 ? 1 : 0);
+        LocalDate lastDay = date.plusDays(SEARCH_DAYS);
+        DoctorCalendar calendar = calendars.get(doctorId);
+        while (!date.isAfter(lastDay)) {
+            if (availabilityIndex.covers(date)) {
+                LocalDate free = availabilityIndex.nextFreeDate(doctorId, date);
+                if (free == null) {
+                    return null;
+                }
+                if (!free.equals(date)) {
+                    date = free;
+                    fromMinute = 0;
+                }
+            }
+            int minute;
+            if (calendar == null) {
+                minute = new DoctorCalendar(DEFAULT_SCHEDULE).firstFreeOnDay(date.toEpochDay(), fromMinute);
+            } else {
+                synchronized (calendar) {
+                    minute = calendar.firstFreeOnDay(date.toEpochDay(), fromMinute);
+                }
+            }
+            if (minute >= 0) {
+                return new AppointmentSlot(doctorId, date, LocalTime.ofSecondOfDay(minute * 60L));
+            }
+            date = date.plusDays(1);
+            fromMinute = 0;
+        }
+        return null;
+    }
+
+    // First fit across every doctor of the specialization (case-insensitive); ties go to the lower doctor id
+    public AppointmentSlot firstFreeSlot(String specialization, LocalDateTime from) {
+        AppointmentSlot best = null;
+        for (int doctorId : doctorsBySpecialization.getOrDefault(specialization.toLowerCase(), List.of())) {
+            AppointmentSlot slot = firstFreeSlot(doctorId, from);
+            if (slot != null && (best == null || slot.date().isBefore(best.date())
+                    || (slot.date().equals(best.date()) && slot.time().isBefore(best.time())))) {
+                best = slot;
+            }
+        }
+        return best;
+    }
+
+    private DoctorCalendar calendarFor(int doctorId) {
+        return calendars.computeIfAbsent(doctorId, id -> new DoctorCalendar(DEFAULT_SCHEDULE));
+    }
+
+    private synchronized void recordChange(int doctorId, long key, int delta) {
+        if (changedDuringReload != null) {
+            changedDuringReload.add(new long[]{doctorId, key, delta});
+        }
+    }
+
+    /**
+     * Caller holds the calendar's lock. Counting keeps this O(log n); a day left without a free slot
+     * by bookings made under an older slot length is not marked, and first-fit simply steps past it.
+     */
+    private void updateFullDay(int doctorId, DoctorCalendar calendar, long epochDay) {
+        availabilityIndex.setFull(doctorId, LocalDate.ofEpochDay(epochDay),
+                calendar.countOnDay(epochDay) >= calendar.getSchedule().slotsPerDay());
+    }
+
+    private void markFullDays(int doctorId, DoctorCalendar calendar, LocalDate today) {
+        synchronized (calendar) {
+            LocalDate last = today.plusDays(SEARCH_DAYS);
+            for (LocalDate day = today; day.isBefore(last); day = day.plusDays(1)) {
+                updateFullDay(doctorId, calendar, day.toEpochDay());
+            }
+        }
+    }
+}
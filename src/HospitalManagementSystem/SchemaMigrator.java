@@ -0,0 +1,224 @@
+package HospitalManagementSystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies the versioned scripts under {@code db/migration} on the classpath, in order, and records
+ * each applied version in {@code schema_history} so every script runs exactly once per database.
+ *
+ * <p>Instances starting together take turns through the single row of {@code schema_lock}. The
+ * holder refreshes it after each script, and a lock not refreshed for
+ * {@code hms.migration.lockTimeoutSeconds} is taken to belong to a crashed instance and taken over,
+ * so that timeout must be longer than the slowest script.
+ *
+ * <p>MySQL commits each DDL statement as it runs, so a script that fails part way leaves the
+ * statements before the failing one applied and its version unrecorded. Either undo those
+ * statements, or finish the script by hand and insert its row into {@code schema_history}; the
+ * error names the script and statement.
+ */
+public class SchemaMigrator {
+    private static final String LOCATION = "db/migration/";
+    // Append new scripts here; a script must never change once it has shipped
+    private static final String[] MIGRATIONS = {
+            "V1__create_tables.sql",
+            "V2__search_indexes.sql",
+            "V3__appointments_unique.sql",
+            "V4__dashboard_aggregates.sql",
+            "V5__appointment_slots.sql",
+            "V6__audit_events.sql",
+            "V7__offline_journal.sql",
+            "V8__audit_events_per_log.sql"
+    };
+
+    private static final String[] REQUIRED_TABLES = {"patients", "doctors", "appointments"};
+
+    private static final int LOCK_TIMEOUT_SECONDS = Integer.getInteger("hms.migration.lockTimeoutSeconds", 600);
+    private static final long LOCK_POLL_MILLIS = 200;
+    private static final String ACQUIRE_LOCK = "UPDATE schema_lock SET locked_by = ?, locked_at = CURRENT_TIMESTAMP "
+            + "WHERE id = 1 AND (locked_by IS NULL OR locked_at < TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP))";
+    private static final String REFRESH_LOCK = "UPDATE schema_lock SET locked_at = CURRENT_TIMESTAMP WHERE id = 1 AND locked_by = ?";
+    private static final String RELEASE_LOCK = "UPDATE schema_lock SET locked_by = NULL, locked_at = NULL WHERE id = 1 AND locked_by = ?";
+
+    private final ConnectionPool pool;
+
+    public SchemaMigrator(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    // Returns the number of scripts applied by this call
+    public int migrate() throws SQLException {
+        int applied = 0;
+        try (Connection connection = pool.getConnection()) {
+            createBookkeepingTables(connection);
+            String owner = UUID.randomUUID().toString();
+            acquireLock(connection, owner);
+            try {
+                // Read under the lock, so scripts applied by the previous holder are skipped
+                Set<Integer> installed = installedVersions(connection);
+                for (String script : MIGRATIONS) {
+                    int version = versionOf(script);
+                    if (installed.contains(version)) {
+                        continue;
+                    }
+                    // MySQL commits DDL implicitly, so each statement runs on its own and the version is
+                    // recorded only after the whole script succeeded
+                    try (Statement statement = connection.createStatement()) {
+                        for (String sql : splitStatements(load(script))) {
+                            try {
+                                statement.execute(sql);
+                            } catch (SQLException e) {
+                                throw new SQLException("Schema migration " + script + " failed at: " + sql
+                                        + ". The statements before it stay applied; undo them, or finish the script by hand "
+                                        + "and record it with INSERT INTO schema_history(version, script) VALUES("
+                                        + version + ", '" + script + "').", e.getSQLState(), e);
+                            }
+                        }
+                    }
+                    try (PreparedStatement preparedStatement = connection.prepareStatement(
+                            "INSERT INTO schema_history(version, script) VALUES(?, ?)")) {
+                        preparedStatement.setInt(1, version);
+                        preparedStatement.setString(2, script);
+                        preparedStatement.executeUpdate();
+                    }
+                    System.out.println("Applied schema migration " + script);
+                    applied++;
+                    refreshLock(connection, owner);
+                }
+            } finally {
+                releaseLock(connection, owner);
+            }
+        }
+        return applied;
+    }
+
+    // Fails if a table the application needs is missing, e.g. when a migration was applied by hand
+    public void validate() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String table : REQUIRED_TABLES) {
+                try (ResultSet tables = metaData.getTables(null, null, table, null)) {
+                    if (!tables.next()) {
+                        throw new SQLException("The '" + table + "' table does not exist in the database.", "42S02");
+                    }
+                }
+            }
+        }
+    }
+
+    private static void createBookkeepingTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_history (version INT NOT NULL PRIMARY KEY, "
+                    + "script VARCHAR(255) NOT NULL, installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_lock (id INT NOT NULL PRIMARY KEY, "
+                    + "locked_by CHAR(36) NULL, locked_at TIMESTAMP NULL)");
+            try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM schema_lock")) {
+                if (resultSet.next() && resultSet.getInt(1) > 0) {
+                    return;
+                }
+            }
+            statement.executeUpdate("INSERT INTO schema_lock(id) VALUES(1)");
+        } catch (SQLException e) {
+            // Another instance inserted the lock row first
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                throw e;
+            }
+        }
+    }
+
+    // Waits while another instance holds the lock and keeps refreshing it
+    private static void acquireLock(Connection connection, String owner) throws SQLException {
+        boolean reported = false;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(ACQUIRE_LOCK)) {
+            preparedStatement.setString(1, owner);
+            preparedStatement.setInt(2, -LOCK_TIMEOUT_SECONDS);
+            while (preparedStatement.executeUpdate() == 0) {
+                if (!reported) {
+                    System.out.println("Waiting for another instance to finish migrating the schema...");
+                    reported = true;
+                }
+                try {
+                    Thread.sleep(LOCK_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for the schema migration lock.", e);
+                }
+            }
+        }
+    }
+
+    private static void refreshLock(Connection connection, String owner) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(REFRESH_LOCK)) {
+            preparedStatement.setString(1, owner);
+            if (preparedStatement.executeUpdate() == 0) {
+                throw new SQLException("The schema migration lock was taken over after "
+                        + LOCK_TIMEOUT_SECONDS + " s; raise hms.migration.lockTimeoutSeconds above the slowest script.");
+            }
+        }
+    }
+
+    // Best effort: a lock left behind is taken over once it times out
+    private static void releaseLock(Connection connection, String owner) {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(RELEASE_LOCK)) {
+            preparedStatement.setString(1, owner);
+            preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Set<Integer> installedVersions(Connection connection) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version FROM schema_history")) {
+            while (resultSet.next()) {
+                versions.add(resultSet.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    private static int versionOf(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static String load(String script) throws SQLException {
+        try (InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(LOCATION + script)) {
+            if (in == null) {
+                throw new SQLException("Migration script not found on the classpath: " + LOCATION + script);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Could not read migration script " + script, e);
+        }
+    }
+
+    // Drops "--" comment lines before splitting on ';' so punctuation in comments cannot end a statement
+    static List<String> splitStatements(String script) {
+        StringBuilder code = new StringBuilder();
+        for (String line : script.split("\r?\n")) {
+            if (!line.trim().startsWith("--")) {
+                code.append(line).append('\n');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        for (String sql : code.toString().split(";")) {
+            if (!sql.trim().isEmpty()) {
+                statements.add(sql.trim());
+            }
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,76 @@
+package HospitalManagementSystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A filtered {@code SELECT ... ORDER BY id LIMIT ?} whose rows are streamed to a consumer in
+ * batches. Shared by the patient and doctor searches so both stop on interrupt the same way.
+ */
+final class SearchQuery {
+    private final StringBuilder sql;
+    private final List<Object> parameters = new ArrayList<>();
+
+    SearchQuery(String select) {
+        sql = new StringBuilder(select).append(" WHERE 1 = 1");
+    }
+
+    // Adds a condition with a single ? placeholder
+    SearchQuery and(String condition, Object parameter) {
+        sql.append(" AND ").append(condition);
+        parameters.add(parameter);
+        return this;
+    }
+
+    /**
+     * Sends the first {@code maxResults} rows to {@code batchConsumer} in batches of at most
+     * {@code batchSize}. Stops early, returning what was sent so far, if the calling thread is
+     * interrupted.
+     */
+    <T> int stream(ConnectionPool pool, OperationMetrics metrics, int batchSize, int maxResults,
+                   RowReader<T> reader, Consumer<List<T>> batchConsumer) throws SQLException {
+        int sent = 0;
+        long start = metrics.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql + " ORDER BY id LIMIT ?")) {
+            for (int i = 0; i < parameters.size(); i++) {
+                preparedStatement.setObject(i + 1, parameters.get(i));
+            }
+            preparedStatement.setInt(parameters.size() + 1, maxResults);
+            preparedStatement.setFetchSize(batchSize);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                List<T> batch = new ArrayList<>(batchSize);
+                while (resultSet.next()) {
+                    batch.add(reader.read(resultSet));
+                    if (batch.size() == batchSize) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            metrics.success(start, sent);
+                            return sent;
+                        }
+                        batchConsumer.accept(batch);
+                        sent += batch.size();
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty() && !Thread.currentThread().isInterrupted()) {
+                    batchConsumer.accept(batch);
+                    sent += batch.size();
+                }
+            }
+        } catch (SQLException e) {
+            metrics.failure(start);
+            throw e;
+        }
+        metrics.success(start, sent);
+        return sent;
+    }
+
+    interface RowReader<T> {
+        T read(ResultSet resultSet) throws SQLException;
+    }
+}